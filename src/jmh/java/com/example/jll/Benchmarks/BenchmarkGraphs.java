@@ -0,0 +1,56 @@
+package com.example.jll.Benchmarks;
+
+import com.example.jll.DijkstrasAlgorithim.DataStructures.Graph;
+import com.example.jll.DijkstrasAlgorithim.DataStructures.Node;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Seeded synthetic inputs shared by the benchmarks, so that every run measures the same graphs.
+ *
+ * @author Ani Thyagarajan
+ */
+final class BenchmarkGraphs {
+
+    static final long SEED = 42L;
+
+    private BenchmarkGraphs() {
+    }
+
+    /**
+     * Places nodes uniformly in a box of about 50 by 50 kilometers.
+     */
+    static List<Node> randomNodes(int size, long seed) {
+        Random random = new Random(seed);
+        List<Node> nodes = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            nodes.add(new Node("N" + i, -94.4 + 0.6 * random.nextDouble(), 36.0 + 0.45 * random.nextDouble()));
+        }
+        return nodes;
+    }
+
+    /**
+     * Builds a strongly connected road-like graph: a two-way ring through all nodes plus
+     * {@code degree} edges per node to nodes at most 64 ids away, with integer weights.
+     *
+     * @param size   The number of nodes.
+     * @param degree The number of extra edges per node, i.e. the density.
+     */
+    static Graph roadGraph(int size, int degree) {
+        Random random = new Random(SEED);
+        List<Node> nodes = randomNodes(size, SEED);
+        for (int i = 0; i < size; i++) {
+            Node node = nodes.get(i);
+            Node next = nodes.get((i + 1) % size);
+            double weight = 1 + random.nextInt(1000);
+            node.addDestination(next, weight);
+            next.addDestination(node, weight);
+            for (int e = 0; e < degree; e++) {
+                node.addDestination(nodes.get((i + 2 + random.nextInt(63)) % size), 1 + random.nextInt(1000));
+            }
+        }
+        return new Graph(nodes);
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.jll.Benchmarks;
+
+import com.example.jll.DijkstrasAlgorithim.DataStructures.CompactGraph;
+import com.example.jll.DijkstrasAlgorithim.DataStructures.Dijkstra;
+import com.example.jll.DijkstrasAlgorithim.DataStructures.Graph;
+import com.example.jll.DijkstrasAlgorithim.DataStructures.ShortestPathTree;
+import com.example.jll.DijkstrasAlgorithim.Visualization.JsonExport;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON export of graphs and shortest path trees to a stream that discards the bytes, so only the
+ * serialization is measured.
+ *
+ * @author Ani Thyagarajan
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class ExportBenchmark {
+
+    @Param({"10000", "100000"})
+    public int nodes;
+
+    @Param({"2", "8"})
+    public int degree;
+
+    private Graph graph;
+    private ShortestPathTree tree;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        graph = BenchmarkGraphs.roadGraph(nodes, degree);
+        tree = Dijkstra.calculateShortestPathTree(CompactGraph.of(graph), 0);
+    }
+
+    @Benchmark
+    public void diagram() throws IOException {
+        JsonExport.compact().writeDiagram(graph, "Benchmark", null, OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public void shortestPathTree() throws IOException {
+        JsonExport.compact().writeShortestPathTree(graph, tree, "Benchmark", OutputStream.nullOutputStream());
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.jll.Benchmarks;
+
+import com.example.jll.DijkstrasAlgorithim.DataIngress.CSVIngress;
+import com.example.jll.DijkstrasAlgorithim.DataStructures.Node;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of the two CSV formats from generated files.
+ *
+ * @author Ani Thyagarajan
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class IngestBenchmark {
+
+    /**
+     * The number of nodes of the distance matrix file, the coordinate file has 100 times as many rows.
+     */
+    @Param({"100", "500"})
+    public int size;
+
+    private File matrixFile;
+    private File nodesFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Random random = new Random(BenchmarkGraphs.SEED);
+        matrixFile = Files.createTempFile("jll-matrix", ".csv").toFile();
+        try (PrintWriter out = new PrintWriter(matrixFile)) {
+            StringBuilder header = new StringBuilder();
+            for (int j = 0; j < size; j++) {
+                header.append(",N").append(j);
+            }
+            out.println(header);
+            for (int i = 0; i < size; i++) {
+                StringBuilder row = new StringBuilder("N").append(i);
+                for (int j = 0; j < size; j++) {
+                    row.append(',').append(i == j ? 0 : 1 + random.nextInt(1000));
+                }
+                out.println(row);
+            }
+        }
+        nodesFile = Files.createTempFile("jll-nodes", ".csv").toFile();
+        try (PrintWriter out = new PrintWriter(nodesFile)) {
+            out.println("name,longitude,latitude");
+            for (Node node : BenchmarkGraphs.randomNodes(100 * size, BenchmarkGraphs.SEED)) {
+                out.println(node.getName() + "," + node.getLongitude() + "," + node.getLatitude());
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(matrixFile.toPath());
+        Files.deleteIfExists(nodesFile.toPath());
+    }
+
+    @Benchmark
+    public CSVIngress distanceMatrix() {
+        return new CSVIngress(matrixFile);
+    }
+
+    @Benchmark
+    public List<Node> coordinates() {
+        return CSVIngress.createNodesFromCsv(nodesFile);
+    }
+}
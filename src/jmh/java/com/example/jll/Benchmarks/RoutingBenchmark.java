@@ -0,0 +1,110 @@
+package com.example.jll.Benchmarks;
+
+import com.example.jll.DijkstrasAlgorithim.DataStructures.CompactGraph;
+import com.example.jll.DijkstrasAlgorithim.DataStructures.Dijkstra;
+import com.example.jll.DijkstrasAlgorithim.DataStructures.Graph;
+import com.example.jll.DijkstrasAlgorithim.DataStructures.Node;
+import com.example.jll.DijkstrasAlgorithim.DataStructures.ShortestPathTree;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-source searches across graph sizes and densities.
+ *
+ * @author Ani Thyagarajan
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RoutingBenchmark {
+
+    /**
+     * A graph for the searches on node ids.
+     */
+    @State(Scope.Benchmark)
+    public static class CompactState {
+        @Param({"10000", "100000", "1000000"})
+        public int nodes;
+
+        @Param({"2", "8"})
+        public int degree;
+
+        CompactGraph graph;
+        int source;
+        int target;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            graph = CompactGraph.of(BenchmarkGraphs.roadGraph(nodes, degree));
+            source = 0;
+            target = nodes / 2;
+        }
+    }
+
+    /**
+     * A smaller graph for the searches on {@link Node} objects, which scan all open nodes per step.
+     */
+    @State(Scope.Benchmark)
+    public static class NodeState {
+        @Param({"1000", "4000"})
+        public int nodes;
+
+        @Param({"2", "8"})
+        public int degree;
+
+        Graph graph;
+        Node source;
+        Node target;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            graph = BenchmarkGraphs.roadGraph(nodes, degree);
+            source = graph.getNode(0);
+            target = graph.getNode(nodes / 2);
+        }
+
+        /**
+         * The searches on {@link Node} objects keep their state in the nodes, every call has to
+         * start from unvisited nodes.
+         */
+        @Setup(Level.Invocation)
+        public void resetNodes() {
+            for (Node node : graph.getNodes()) {
+                node.setDistance(Double.MAX_VALUE);
+                node.setShortestPath(new LinkedList<>());
+            }
+        }
+    }
+
+    @Benchmark
+    public ShortestPathTree binaryHeap(CompactState state) {
+        return Dijkstra.calculateShortestPathTree(state.graph, state.source, -1, Dijkstra.QueueType.BINARY_HEAP);
+    }
+
+    @Benchmark
+    public ShortestPathTree dialBuckets(CompactState state) {
+        return Dijkstra.calculateShortestPathTree(state.graph, state.source, -1, Dijkstra.QueueType.DIAL);
+    }
+
+    @Benchmark
+    public ShortestPathTree radixHeap(CompactState state) {
+        return Dijkstra.calculateShortestPathTree(state.graph, state.source, -1, Dijkstra.QueueType.RADIX_HEAP);
+    }
+
+    @Benchmark
+    public ShortestPathTree pointToPoint(CompactState state) {
+        return Dijkstra.calculateShortestPathTree(state.graph, state.source, state.target);
+    }
+
+    @Benchmark
+    public Graph nodeShortestPathTree(NodeState state) {
+        return Dijkstra.calculateShortestPathFromSource(state.source);
+    }
+
+    @Benchmark
+    public List<Node> nodeShortestPath(NodeState state) {
+        return Dijkstra.calculateShortestPath(state.graph, state.source, state.target);
+    }
+}
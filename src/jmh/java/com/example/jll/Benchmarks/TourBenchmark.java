@@ -0,0 +1,74 @@
+package com.example.jll.Benchmarks;
+
+import com.example.jll.DijkstrasAlgorithim.DataIngress.GeoMatrix;
+import com.example.jll.DijkstrasAlgorithim.DataStructures.CompactGraph;
+import com.example.jll.DijkstrasAlgorithim.DataStructures.DistanceMatrix;
+import com.example.jll.DijkstrasAlgorithim.DataStructures.GeoDistance;
+import com.example.jll.DijkstrasAlgorithim.DataStructures.Graph;
+import com.example.jll.DijkstrasAlgorithim.DataStructures.Node;
+import com.example.jll.DijkstrasAlgorithim.DataStructures.SpatialIndex;
+import com.example.jll.TSP.NearestNeighbor;
+import com.example.jll.TSP.TourImprovement;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tour construction and improvement on complete Euclidean instances.
+ *
+ * @author Ani Thyagarajan
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class TourBenchmark {
+
+    @Param({"250", "1000", "2000"})
+    public int stops;
+
+    private List<Node> nodes;
+    private DistanceMatrix matrix;
+    private Graph nodeGraph;
+    private CompactGraph completeGraph;
+    private int[][] candidates;
+    private int[] startTour;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        nodes = BenchmarkGraphs.randomNodes(stops, BenchmarkGraphs.SEED);
+        GeoMatrix geo = new GeoMatrix(nodes, GeoMatrix.Formula.HAVERSINE);
+        matrix = geo.getDistanceMatrix();
+        nodeGraph = geo.toGraph();
+        completeGraph = CompactGraph.of(nodeGraph);
+        candidates = new SpatialIndex(nodes).candidateLists(8);
+        startTour = TourImprovement.nearestNeighborTour(matrix, 0);
+    }
+
+    @Benchmark
+    public NearestNeighbor nearestNeighborNodes() {
+        return new NearestNeighbor(nodeGraph, nodeGraph.getNode(0));
+    }
+
+    @Benchmark
+    public int[] nearestNeighborGraph() {
+        return NearestNeighbor.findTour(completeGraph, 0);
+    }
+
+    @Benchmark
+    public int[] nearestNeighborMatrix() {
+        return TourImprovement.nearestNeighborTour(matrix, 0);
+    }
+
+    @Benchmark
+    public double twoOptFull() {
+        return TourImprovement.twoOpt(matrix, startTour.clone());
+    }
+
+    @Benchmark
+    public int[] twoOptCandidates() {
+        int[] tour = startTour.clone();
+        TourImprovement.twoOpt(tour, candidates, (a, b) -> GeoDistance.haversine(nodes.get(a), nodes.get(b)));
+        return tour;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.jll.DijkstrasAlgorithim.DataGeneration;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Streams a generated graph to two CSV files: the nodes in the format read by
+ * {@link com.example.jll.DijkstrasAlgorithim.DataIngress.CSVIngress#createNodesFromCsv(File)} and the
+ * edges as an edge list read by
+ * {@link com.example.jll.DijkstrasAlgorithim.DataIngress.CSVIngress#createGraphFromEdgeList(File, File)}:
+ *
+ * <pre>
+ * name,longitude,latitude      from,to,weight
+ * N0,-94.1719,36.0626          N0,N1,112
+ * </pre>
+ *
+ * @author Ani Thyagarajan
+ */
+public class CsvGraphWriter implements GraphSink {
+
+    private final Writer nodes;
+    private final Writer edges;
+
+    /**
+     * @param nodesFile The file to write the nodes to.
+     * @param edgesFile The file to write the edges to.
+     * @throws IOException if a file cannot be created.
+     */
+    public CsvGraphWriter(File nodesFile, File edgesFile) throws IOException {
+        this.nodes = new BufferedWriter(new FileWriter(nodesFile), 1 << 16);
+        Writer edgeWriter;
+        try {
+            edgeWriter = new BufferedWriter(new FileWriter(edgesFile), 1 << 16);
+        } catch (IOException e) {
+            nodes.close();
+            throw e;
+        }
+        this.edges = edgeWriter;
+        nodes.write("name,longitude,latitude\n");
+        edges.write("from,to,weight\n");
+    }
+
+    @Override
+    public void node(int id, double longitude, double latitude) throws IOException {
+        nodes.write(GraphSink.nameOf(id) + "," + longitude + "," + latitude + "\n");
+    }
+
+    @Override
+    public void edge(int from, int to, double weight) throws IOException {
+        edges.write(GraphSink.nameOf(from) + "," + GraphSink.nameOf(to) + "," + format(weight) + "\n");
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            nodes.close();
+        } finally {
+            edges.close();
+        }
+    }
+
+    /**
+     * Writes integer weights without a fraction, so the files stay small and parse as integers.
+     */
+    static String format(double value) {
+        return value == Math.rint(value) && Math.abs(value) < 1e15 ? Long.toString((long) value) : Double.toString(value);
+    }
+}
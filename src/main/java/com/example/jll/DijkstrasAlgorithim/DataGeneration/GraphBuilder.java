@@ -0,0 +1,38 @@
+package com.example.jll.DijkstrasAlgorithim.DataGeneration;
+
+import com.example.jll.DijkstrasAlgorithim.DataStructures.Graph;
+import com.example.jll.DijkstrasAlgorithim.DataStructures.Node;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects a generated graph into a {@link Graph} in memory.
+ *
+ * @author Ani Thyagarajan
+ */
+public class GraphBuilder implements GraphSink {
+
+    private final List<Node> nodes = new ArrayList<>();
+
+    @Override
+    public void node(int id, double longitude, double latitude) {
+        if (id != nodes.size()) {
+            throw new IllegalArgumentException("Nodes must arrive in id order, expected " + nodes.size() + " but got " + id);
+        }
+        nodes.add(new Node(GraphSink.nameOf(id), longitude, latitude));
+    }
+
+    @Override
+    public void edge(int from, int to, double weight) {
+        nodes.get(from).addDestination(nodes.get(to), weight);
+    }
+
+    /**
+     * @return The graph of all nodes and edges received so far.
+     */
+    public Graph getGraph() {
+        nodes.forEach(node -> node.getAdjacentNodes().trimToSize());
+        return new Graph(nodes);
+    }
+}
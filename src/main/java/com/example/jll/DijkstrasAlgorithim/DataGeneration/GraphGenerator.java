@@ -0,0 +1,404 @@
+package com.example.jll.DijkstrasAlgorithim.DataGeneration;
+
+import com.example.jll.DijkstrasAlgorithim.DataStructures.Graph;
+import com.example.jll.DijkstrasAlgorithim.DataStructures.Node;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Seeded generators of synthetic graphs and routing instances for testing the library at scale.
+ * <p>
+ * Every random choice, e.g. the position of a node or whether an edge exists, is a hash of the
+ * seed and the id of the node or edge instead of the next value of a shared random stream. A node
+ * can therefore be placed again from its id alone, and the generators stream millions of nodes and
+ * edges to a {@link GraphSink}, e.g. a {@link CsvGraphWriter}, while holding only a few nodes in
+ * memory. The same seed always yields the same graph.
+ * </p>
+ * <p>
+ * Nodes are laid out in meters on a plane and converted to coordinates around Fayetteville,
+ * Arkansas, so that distances computed from the coordinates, e.g. with
+ * {@link com.example.jll.DijkstrasAlgorithim.DataStructures.GeoDistance}, match the edge weights
+ * closely. Weights are whole numbers, so the integer queues of
+ * {@link com.example.jll.DijkstrasAlgorithim.DataStructures.Dijkstra} apply.
+ * </p>
+ *
+ * @author Ani Thyagarajan
+ */
+public class GraphGenerator {
+
+    private static final double ORIGIN_LONGITUDE = -94.1719;
+    private static final double ORIGIN_LATITUDE = 36.0626;
+    private static final double METERS_PER_DEGREE = 111_195.0;
+
+    /**
+     * The side of a grid block and the mean distance between random nodes, in meters.
+     */
+    private static final double SPACING = 100.0;
+
+    /**
+     * The side of a city block of the road network, in meters.
+     */
+    private static final double BLOCK = 150.0;
+
+    /**
+     * Every this many rows and columns of the road network is an arterial road.
+     */
+    private static final int ARTERIAL = 8;
+
+    private static final double ARTERIAL_SPEED = 60 / 3.6;
+    private static final double LOCAL_SPEED = 30 / 3.6;
+
+    /**
+     * The share of local north-south streets and of diagonal shortcuts in the road network.
+     */
+    private static final double LOCAL_STREET_SHARE = 0.7;
+    private static final double DIAGONAL_SHARE = 0.05;
+
+    /**
+     * The length of the working day of the generated routing instances, in seconds.
+     */
+    public static final double HORIZON = 10 * 3600;
+
+    private final long seed;
+
+    /**
+     * @param seed The seed all random choices are derived from.
+     */
+    public GraphGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Streams a grid of blocks of 100 meters, every node connected to its four neighbors in both
+     * directions. Edge weights are the block length in meters times a random factor between 1 and
+     * 1.5, the same in both directions.
+     *
+     * @param rows    The number of rows.
+     * @param columns The number of columns.
+     * @param sink    Receives the nodes and edges.
+     * @throws IllegalArgumentException if the grid is empty or has more than {@code Integer.MAX_VALUE} nodes.
+     * @throws IOException              if the sink fails.
+     */
+    public void grid(int rows, int columns, GraphSink sink) throws IOException {
+        int size = checkedSize((long) rows * columns, rows > 0 && columns > 0);
+        for (int id = 0; id < size; id++) {
+            emitNode(sink, id, id % columns * SPACING, id / columns * SPACING);
+        }
+        for (int id = 0; id < size; id++) {
+            int column = id % columns;
+            if (column + 1 < columns) {
+                twoWay(sink, id, id + 1, Math.round(SPACING * (1 + 0.5 * uniform(2L * id, 0))));
+            }
+            if (id + columns < size) {
+                twoWay(sink, id, id + columns, Math.round(SPACING * (1 + 0.5 * uniform(2L * id + 1, 0))));
+            }
+        }
+    }
+
+    /**
+     * Streams a random geometric graph: nodes spread uniformly over a square with one node per
+     * 100 by 100 meters on average, and an edge in both directions between every two nodes closer
+     * than the radius that yields the requested average degree. Edge weights are the distances in
+     * meters. The graph is not necessarily connected, low degrees leave isolated parts.
+     * <p>
+     * The square is cut into cells at least one radius wide, each holding an equal share of the
+     * nodes, so the neighbors of a node are found in the three by three cells around it.
+     * </p>
+     *
+     * @param size          The number of nodes.
+     * @param averageDegree The expected number of neighbors per node away from the border.
+     * @param sink          Receives the nodes and edges.
+     * @throws IllegalArgumentException if the size or the degree is not positive.
+     * @throws IOException              if the sink fails.
+     */
+    public void randomGeometric(int size, double averageDegree, GraphSink sink) throws IOException {
+        if (!(averageDegree > 0.0)) {
+            throw new IllegalArgumentException("The average degree must be positive, got " + averageDegree);
+        }
+        checkedSize(size, size > 0);
+        double side = SPACING * Math.sqrt(size);
+        double radius = SPACING * Math.sqrt(averageDegree / Math.PI);
+        int cells = (int) Math.max(1, Math.min(side / radius, Math.sqrt(size)));
+        double cellSide = side / cells;
+        long cellCount = (long) cells * cells;
+
+        double[] x = new double[0];
+        double[] y = new double[0];
+        for (long cell = 0; cell < cellCount; cell++) {
+            for (int id = firstInCell(cell, size, cellCount); id < firstInCell(cell + 1, size, cellCount); id++) {
+                emitNode(sink, id, (cell % cells + uniform(id, 1)) * cellSide, (cell / cells + uniform(id, 2)) * cellSide);
+            }
+        }
+        for (long cell = 0; cell < cellCount; cell++) {
+            int from = firstInCell(cell, size, cellCount);
+            int to = firstInCell(cell + 1, size, cellCount);
+            if (from == to) {
+                continue;
+            }
+            // Place the nodes of the surrounding cells, ids of cells in a row are contiguous
+            int cellRow = (int) (cell / cells);
+            int cellColumn = (int) (cell % cells);
+            List<int[]> ranges = new ArrayList<>(3);
+            int count = 0;
+            for (int row = Math.max(0, cellRow - 1); row <= Math.min(cells - 1, cellRow + 1); row++) {
+                long first = (long) row * cells + Math.max(0, cellColumn - 1);
+                long last = (long) row * cells + Math.min(cells - 1, cellColumn + 1);
+                int[] range = {firstInCell(first, size, cellCount), firstInCell(last + 1, size, cellCount)};
+                ranges.add(range);
+                count += range[1] - range[0];
+            }
+            if (x.length < count) {
+                x = new double[2 * count];
+                y = new double[2 * count];
+            }
+            int[] ids = new int[count];
+            int k = 0;
+            for (int[] range : ranges) {
+                for (int id = range[0]; id < range[1]; id++, k++) {
+                    long home = cellOf(id, size, cellCount);
+                    ids[k] = id;
+                    x[k] = (home % cells + uniform(id, 1)) * cellSide;
+                    y[k] = (home / cells + uniform(id, 2)) * cellSide;
+                }
+            }
+            for (int i = 0; i < count; i++) {
+                if (ids[i] < from || ids[i] >= to) {
+                    continue;
+                }
+                for (int j = 0; j < count; j++) {
+                    double distance = Math.hypot(x[i] - x[j], y[i] - y[j]);
+                    if (i != j && distance <= radius) {
+                        sink.edge(ids[i], ids[j], Math.max(1, Math.round(distance)));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Streams a planar road-like network: a city grid of 150 meter blocks with jittered corners,
+     * arterial roads at 60 km/h on every eighth row and column and local streets at 30 km/h. All
+     * east-west streets exist, 70 percent of the local north-south streets and a few diagonal
+     * shortcuts. Every street is two-way and the network is connected. Edge weights are travel
+     * times in seconds.
+     *
+     * @param rows    The number of east-west streets.
+     * @param columns The number of north-south streets.
+     * @param sink    Receives the nodes and edges.
+     * @throws IllegalArgumentException if the network is empty or has more than {@code Integer.MAX_VALUE} nodes.
+     * @throws IOException              if the sink fails.
+     */
+    public void roadNetwork(int rows, int columns, GraphSink sink) throws IOException {
+        int size = checkedSize((long) rows * columns, rows > 0 && columns > 0);
+        for (int id = 0; id < size; id++) {
+            emitNode(sink, id, roadX(id, columns), roadY(id, columns));
+        }
+        for (int id = 0; id < size; id++) {
+            int row = id / columns;
+            int column = id % columns;
+            if (column + 1 < columns) {
+                road(sink, id, id + 1, columns, row % ARTERIAL == 0);
+            }
+            if (row + 1 < rows && (column % ARTERIAL == 0 || uniform(3L * id, 3) < LOCAL_STREET_SHARE)) {
+                road(sink, id, id + columns, columns, column % ARTERIAL == 0);
+            }
+            if (row + 1 < rows && column + 1 < columns && uniform(3L * id + 1, 3) < DIAGONAL_SHARE) {
+                road(sink, id, id + columns + 1, columns, false);
+            }
+        }
+    }
+
+    /**
+     * Builds a grid in memory, see {@link #grid(int, int, GraphSink)}.
+     */
+    public Graph grid(int rows, int columns) {
+        GraphBuilder builder = new GraphBuilder();
+        try {
+            grid(rows, columns, builder);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        return builder.getGraph();
+    }
+
+    /**
+     * Builds a random geometric graph in memory, see {@link #randomGeometric(int, double, GraphSink)}.
+     */
+    public Graph randomGeometric(int size, double averageDegree) {
+        GraphBuilder builder = new GraphBuilder();
+        try {
+            randomGeometric(size, averageDegree, builder);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        return builder.getGraph();
+    }
+
+    /**
+     * Builds a road network in memory, see {@link #roadNetwork(int, int, GraphSink)}.
+     */
+    public Graph roadNetwork(int rows, int columns) {
+        GraphBuilder builder = new GraphBuilder();
+        try {
+            roadNetwork(rows, columns, builder);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        return builder.getGraph();
+    }
+
+    /**
+     * Generates a TSP or vehicle routing instance: a depot named {@code Depot} in the middle of a
+     * square and customers {@code C1..Cn} spread uniformly over it, one per 250 by 250 meters on
+     * average. Every customer has a demand between 1 and 10, a time window of one to three hours
+     * within a {@link #HORIZON ten hour day} and a service time of five minutes.
+     *
+     * @param customers The number of customers.
+     * @return The depot followed by the customers, without edges.
+     * @throws IllegalArgumentException if the number of customers is negative.
+     */
+    public List<Node> instance(int customers) {
+        List<Node> nodes = new ArrayList<>(customers + 1);
+        for (int i = 0; i <= checkedCustomers(customers); i++) {
+            nodes.add(stop(i, customers));
+        }
+        return nodes;
+    }
+
+    /**
+     * Streams an instance like {@link #instance(int)} to a CSV file with the columns
+     * {@code name,longitude,latitude,demand,readyTime,dueTime,serviceTime}, which
+     * {@link com.example.jll.DijkstrasAlgorithim.DataIngress.CSVIngress#createNodesFromCsv(File)} reads.
+     *
+     * @param customers The number of customers.
+     * @param file      The file to write.
+     * @throws IllegalArgumentException if the number of customers is negative.
+     * @throws IOException              if the file cannot be written.
+     */
+    public void writeInstance(int customers, File file) throws IOException {
+        checkedCustomers(customers);
+        try (Writer out = new BufferedWriter(new FileWriter(file), 1 << 16)) {
+            out.write("name,longitude,latitude,demand,readyTime,dueTime,serviceTime\n");
+            for (int i = 0; i <= customers; i++) {
+                Node stop = stop(i, customers);
+                out.write(stop.getName() + "," + stop.getLongitude() + "," + stop.getLatitude() + ","
+                        + CsvGraphWriter.format(stop.getDemand()) + "," + CsvGraphWriter.format(stop.getReadyTime()) + ","
+                        + CsvGraphWriter.format(stop.getDueTime()) + "," + CsvGraphWriter.format(stop.getServiceTime()) + "\n");
+            }
+        }
+    }
+
+    /**
+     * Streams a generated graph to a node file and an edge list, see {@link CsvGraphWriter}.
+     *
+     * @param nodesFile The file to write the nodes to.
+     * @param edgesFile The file to write the edges to.
+     * @param generator The generator to run, e.g. {@code sink -> generator.roadNetwork(1000, 1000, sink)}.
+     * @throws IOException if a file cannot be written.
+     */
+    public static void writeCsv(File nodesFile, File edgesFile, Generation generator) throws IOException {
+        try (CsvGraphWriter writer = new CsvGraphWriter(nodesFile, edgesFile)) {
+            generator.run(writer);
+        }
+    }
+
+    /**
+     * One run of a generator into a sink.
+     */
+    @FunctionalInterface
+    public interface Generation {
+        void run(GraphSink sink) throws IOException;
+    }
+
+    private Node stop(int index, int customers) {
+        double side = 250.0 * Math.sqrt(Math.max(1, customers));
+        if (index == 0) {
+            Node depot = new Node("Depot", longitude(side / 2), latitude(side / 2));
+            depot.setDueTime(HORIZON);
+            return depot;
+        }
+        Node customer = new Node("C" + index, longitude(uniform(index, 4) * side), latitude(uniform(index, 5) * side));
+        customer.setDemand(1 + Math.floor(10 * uniform(index, 6)));
+        double ready = Math.floor((HORIZON - 3 * 3600) * uniform(index, 7));
+        customer.setReadyTime(ready);
+        customer.setDueTime(ready + 3600 + Math.floor(2 * 3600 * uniform(index, 8)));
+        customer.setServiceTime(300);
+        return customer;
+    }
+
+    private void road(GraphSink sink, int from, int to, int columns, boolean arterial) throws IOException {
+        double distance = Math.hypot(roadX(to, columns) - roadX(from, columns), roadY(to, columns) - roadY(from, columns));
+        twoWay(sink, from, to, Math.max(1, Math.round(distance / (arterial ? ARTERIAL_SPEED : LOCAL_SPEED))));
+    }
+
+    private double roadX(int id, int columns) {
+        return (id % columns + 0.6 * (uniform(id, 9) - 0.5)) * BLOCK;
+    }
+
+    private double roadY(int id, int columns) {
+        return (id / columns + 0.6 * (uniform(id, 10) - 0.5)) * BLOCK;
+    }
+
+    private static void twoWay(GraphSink sink, int from, int to, double weight) throws IOException {
+        sink.edge(from, to, weight);
+        sink.edge(to, from, weight);
+    }
+
+    private static void emitNode(GraphSink sink, int id, double x, double y) throws IOException {
+        sink.node(id, longitude(x), latitude(y));
+    }
+
+    private static double longitude(double x) {
+        return ORIGIN_LONGITUDE + x / (METERS_PER_DEGREE * Math.cos(Math.toRadians(ORIGIN_LATITUDE)));
+    }
+
+    private static double latitude(double y) {
+        return ORIGIN_LATITUDE + y / METERS_PER_DEGREE;
+    }
+
+    /**
+     * The first id of a cell when {@code size} ids are split as evenly as possible over the cells.
+     */
+    private static int firstInCell(long cell, int size, long cellCount) {
+        return (int) (cell * size / cellCount);
+    }
+
+    /**
+     * The cell holding an id, the inverse of {@link #firstInCell(long, int, long)}.
+     */
+    private static long cellOf(int id, int size, long cellCount) {
+        return ((id + 1L) * cellCount + size - 1) / size - 1;
+    }
+
+    private static int checkedSize(long size, boolean positive) {
+        if (!positive || size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("The graph must have between 1 and " + Integer.MAX_VALUE + " nodes, got " + size);
+        }
+        return (int) size;
+    }
+
+    private static int checkedCustomers(int customers) {
+        if (customers < 0) {
+            throw new IllegalArgumentException("The number of customers must not be negative, got " + customers);
+        }
+        return customers;
+    }
+
+    /**
+     * A uniform number in {@code [0, 1)} derived from the seed, a key and a salt with the
+     * SplitMix64 finalizer.
+     */
+    private double uniform(long key, int salt) {
+        long z = seed * 0x9E3779B97F4A7C15L + key * 0xC2B2AE3D27D4EB4FL + salt * 0x165667B19E3779F9L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z ^= z >>> 31;
+        return (z >>> 11) * 0x1.0p-53;
+    }
+}
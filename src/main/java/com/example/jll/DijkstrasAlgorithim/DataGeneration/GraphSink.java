@@ -0,0 +1,41 @@
+package com.example.jll.DijkstrasAlgorithim.DataGeneration;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Receives the nodes and edges of a generated graph one at a time, so that a generator never
+ * holds the whole graph. All nodes are delivered before the first edge, in increasing id order.
+ *
+ * @author Ani Thyagarajan
+ */
+public interface GraphSink extends Closeable {
+
+    /**
+     * @param id        The id of the node, from 0 upwards without gaps.
+     * @param longitude The longitude in degrees.
+     * @param latitude  The latitude in degrees.
+     * @throws IOException if the node cannot be written.
+     */
+    void node(int id, double longitude, double latitude) throws IOException;
+
+    /**
+     * @param from   The id of the node the edge starts at.
+     * @param to     The id of the node the edge ends at.
+     * @param weight The weight of the edge.
+     * @throws IOException if the edge cannot be written.
+     */
+    void edge(int from, int to, double weight) throws IOException;
+
+    @Override
+    default void close() throws IOException {
+    }
+
+    /**
+     * @param id A node id.
+     * @return The name a generated node gets, {@code N<id>}.
+     */
+    static String nameOf(int id) {
+        return "N" + id;
+    }
+}
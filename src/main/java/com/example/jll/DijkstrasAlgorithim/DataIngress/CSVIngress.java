@@ -1,14 +1,18 @@
 package com.example.jll.DijkstrasAlgorithim.DataIngress;
 
 import com.example.jll.DijkstrasAlgorithim.Visualization.ForceDiagram;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import com.example.jll.DijkstrasAlgorithim.DataStructures.Dijkstra;
+import com.example.jll.DijkstrasAlgorithim.DataStructures.DistanceMatrix;
 import com.example.jll.DijkstrasAlgorithim.DataStructures.Graph;
 import com.example.jll.DijkstrasAlgorithim.DataStructures.Node;
+import com.example.jll.Instrumentation.IngestEvent;
 
 import java.io.*;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -40,30 +44,61 @@ public class CSVIngress {
      */
     private List<List<Integer>> distanceMatrix;
 
+    /**
+     * The parsed distances as a flat matrix for the dense solvers. Zero entries off the diagonal
+     * mean no edge, like in the graph, and are stored as {@link Double#POSITIVE_INFINITY}.
+     */
+    @Setter(AccessLevel.NONE)
+    private DistanceMatrix denseMatrix;
+
     /**
      * The generated graph output based on the CSV data.
      */
     private Graph output;
 
+    /**
+     * The graph of all parsed nodes, used to look nodes up by name.
+     */
+    @Setter(AccessLevel.NONE)
+    private Graph graph;
+
     /**
      * Constructs a {@code CSVIngress} instance and initializes the node list.
      *
      * @param path The CSV file path containing node and distance data.
+     * @throws IllegalArgumentException If two nodes share a name, since the graph looks nodes up by name.
      */
     public CSVIngress(File path) {
         this.path = path;
         createNodes();
     }
 
+    /**
+     * Replaces the nodes and rebuilds the graph and the dense matrix from their edges, so that the
+     * searches and visualizations run on the new nodes.
+     *
+     * @param nodes The new nodes.
+     * @throws IllegalArgumentException If two nodes share a name.
+     */
+    public void setNodes(List<Node> nodes) {
+        this.graph = new Graph(nodes);
+        this.denseMatrix = new DistanceMatrix(nodes);
+        this.nodes = nodes;
+    }
+
     /**
      * Reads a distance matrix and node names from a CSV file and parses nodes
      * and creates a distance matrix.
      *
      * @throws RuntimeException If there's an error reading the file.
+     * @throws IllegalArgumentException If two nodes share a name.
      */
     private void createNodes() {
         this.nodes = new ArrayList<>();
         this.distanceMatrix = new ArrayList<>();
+        IngestEvent event = new IngestEvent();
+        event.begin();
+        boolean success = false;
 
         try (BufferedReader br = new BufferedReader(new FileReader(this.path))) {
             String line;
@@ -89,19 +124,30 @@ public class CSVIngress {
                 }
             }
 
+            int size = nodes.size();
+            double[] weights = new double[DistanceMatrix.cellCount(size)];
+            Arrays.fill(weights, Double.POSITIVE_INFINITY);
             for (int i = 0; i < distanceMatrix.size(); i++) {
                 Node currentNode = nodes.get(i);
+                weights[i * size + i] = 0.0;
 
                 for (int j = 0; j < distanceMatrix.get(i).size(); j++) {
                     if (i != j && distanceMatrix.get(i).get(j) > 0) { // Avoid self-loops and zero distances
                         Node adjacentNode = nodes.get(j);
                         currentNode.addDestination(adjacentNode, distanceMatrix.get(i).get(j));
+                        weights[i * size + j] = distanceMatrix.get(i).get(j);
                     }
                 }
             }
+            this.denseMatrix = new DistanceMatrix(nodes, weights);
+
+            this.graph = new Graph(nodes);
+            success = true;
 
         } catch (IOException e) {
             throw new RuntimeException(e);
+        } finally {
+            event.complete(IngestEvent.DISTANCE_MATRIX, this.path, distanceMatrix.size(), success);
         }
     }
 
@@ -117,8 +163,10 @@ public class CSVIngress {
      * NodeC,-122.4269,37.7597
      * </pre>
      *
-     * Each row represents a node with its name, longitude, and latitude. The first row is treated as
-     * a header and is skipped during processing. If any field in a row is blank, or if the file
+     * Each row represents a node with its name, longitude, and latitude. Rows may carry four more
+     * columns for the routing solvers, {@code demand,readyTime,dueTime,serviceTime}, as written by
+     * {@link com.example.jll.DijkstrasAlgorithim.DataGeneration.GraphGenerator#writeInstance(int, File)}.
+     * The first row is treated as a header and is skipped during processing. If any field in a row is blank, or if the file
      * cannot be read, an appropriate exception will be thrown.
      *
      * @param file the CSV file to read
@@ -129,6 +177,9 @@ public class CSVIngress {
      */
     public static List<Node> createNodesFromCsv(File file) {
         List<Node> nodes = new ArrayList<>();
+        IngestEvent event = new IngestEvent();
+        event.begin();
+        boolean success = false;
 
         try (BufferedReader br = new BufferedReader(new FileReader(file))) {
             String line;
@@ -155,17 +206,79 @@ public class CSVIngress {
                 double latitude = Double.parseDouble(values[2].trim());
 
                 // Create and add the Node
-                nodes.add(new Node(nodeName, longitude, latitude));
+                Node node = new Node(nodeName, longitude, latitude);
+                if (values.length >= 7) {
+                    node.setDemand(Double.parseDouble(values[3].trim()));
+                    node.setReadyTime(Double.parseDouble(values[4].trim()));
+                    node.setDueTime(Double.parseDouble(values[5].trim()));
+                    node.setServiceTime(Double.parseDouble(values[6].trim()));
+                }
+                nodes.add(node);
             }
+            success = true;
         } catch (IOException e) {
             throw new RuntimeException("Error reading CSV file: " + file.getPath(), e);
         } catch (NumberFormatException e) {
             throw new IllegalArgumentException("Invalid number format in CSV file", e);
+        } finally {
+            event.complete(IngestEvent.NODES, file, nodes.size(), success);
         }
 
         return nodes;
     }
 
+    /**
+     * Builds a graph from a node file and an edge list, e.g. as written by
+     * {@link com.example.jll.DijkstrasAlgorithim.DataGeneration.CsvGraphWriter}. The nodes are read with
+     * {@link #createNodesFromCsv(File)}, the edge list has a header row and one directed edge per row:
+     *
+     * <pre>
+     * from,to,weight
+     * NodeA,NodeB,120
+     * NodeB,NodeA,120
+     * </pre>
+     *
+     * The edges are read one line at a time, so only the graph itself has to fit in memory.
+     *
+     * @param nodesFile the CSV file with the nodes
+     * @param edgesFile the CSV file with the edges
+     * @return the graph of all nodes and edges
+     * @throws IllegalArgumentException if a row has blank fields, an unknown node or an invalid weight
+     * @throws RuntimeException if an error occurs while reading a file
+     */
+    public static Graph createGraphFromEdgeList(File nodesFile, File edgesFile) {
+        Graph graph = new Graph(createNodesFromCsv(nodesFile));
+        IngestEvent event = new IngestEvent();
+        event.begin();
+        long rows = 0;
+        boolean success = false;
+
+        try (BufferedReader br = new BufferedReader(new FileReader(edgesFile), 1 << 16)) {
+            String line = br.readLine(); // Skip the header row
+            while ((line = br.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                String[] values = line.split(",");
+                if (values.length < 3 || values[0].trim().isEmpty() || values[1].trim().isEmpty() || values[2].trim().isEmpty()) {
+                    throw new IllegalArgumentException("CSV row contains blank fields: " + line);
+                }
+                Node from = graph.getNode(values[0].trim());
+                Node to = graph.getNode(values[1].trim());
+                from.addDestination(to, Double.parseDouble(values[2].trim()));
+                rows++;
+            }
+            success = true;
+        } catch (IOException e) {
+            throw new RuntimeException("Error reading CSV file: " + edgesFile.getPath(), e);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number format in CSV file", e);
+        } finally {
+            event.complete(IngestEvent.EDGE_LIST, edgesFile, rows, success);
+        }
+        return graph;
+    }
+
     /**
      * Reads a distance matrix and node names from a CSV file runs Djikstra's
      * Algorithim to find the shortest path.
@@ -174,30 +287,18 @@ public class CSVIngress {
      * @throws NullPointerException If the specified source node does not exist.
      */
     public Graph runDijkstrasAlgorithm(String source) {
-        Graph graph = new Graph();
-
-        for (Node node : this.nodes) {
-            graph.addNode(node);
-        }
-
-        try {
-            Node sourceNode = nodes.stream().filter(node -> node.getName().equals(source)).findFirst().orElse(null);
-            assert sourceNode != null;
-            return Dijkstra.calculateShortestPathFromSource(sourceNode);
-
-        } catch (NullPointerException e) {
+        if (!graph.containsNode(source)) {
             throw new NullPointerException("The source node " + source + " does not exist.");
         }
+        return Dijkstra.calculateShortestPathFromSource(graph.getNode(source));
     }
 
 
     public void visualizeGraph(String title){
-        Graph graph = new Graph(nodes);
         ForceDiagram visual = new ForceDiagram(graph, title);
     }
 
     public void visualizeShortestPath(String title, String soruceNode){
-        Graph graph = new Graph(nodes);
         ForceDiagram visual = new ForceDiagram(graph, title, soruceNode);
     }
 }
@@ -0,0 +1,261 @@
+package com.example.jll.DijkstrasAlgorithim.DataIngress;
+
+import com.example.jll.DijkstrasAlgorithim.DataStructures.DistanceMatrix;
+import com.example.jll.DijkstrasAlgorithim.DataStructures.GeoDistance;
+import com.example.jll.DijkstrasAlgorithim.DataStructures.Graph;
+import com.example.jll.DijkstrasAlgorithim.DataStructures.Node;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * The {@code GeoMatrix} class computes a complete distance matrix from the latitude and longitude
+ * of nodes, without a network connection or an API key.
+ * <p>
+ * It is the offline counterpart of {@link MapboxMatrix}: a fast first pass before asking the API
+ * for road distances, or a fallback when the API is unavailable. Distances are straight lines on
+ * the earth, in meters, either exact great-circle distances or the cheaper equirectangular
+ * approximation, which is accurate for the short distances within a city. Durations are estimated
+ * from an average speed and a circuity factor for the detour of roads over straight lines.
+ * </p>
+ * <p>
+ * The matrix is symmetric, so only its upper triangle is computed, in square tiles that keep the
+ * coordinates of both the rows and the columns of a tile in cache. The tiles are spread over all
+ * cores, and each row of a tile is computed with SIMD instructions when the JVM was started with
+ * {@code --add-modules jdk.incubator.vector}.
+ * </p>
+ *
+ * @author Ani Thyagarajan
+ */
+public class GeoMatrix {
+
+    /**
+     * The number of rows and columns of a tile.
+     */
+    static final int TILE = 256;
+
+    /**
+     * The SIMD row computations, or {@code null} if the Vector API is not available at runtime.
+     */
+    private static final GeoRows VECTOR = loadVector();
+
+    /**
+     * How the distance between two coordinates is computed.
+     */
+    public enum Formula {
+        /**
+         * The great-circle distance on a spherical earth, see {@link GeoDistance#haversine(Node, Node)}.
+         */
+        HAVERSINE,
+
+        /**
+         * The distance on a plane through both points, scaled by the cosine of their mean latitude.
+         * Cheaper, and within a fraction of a percent of the great-circle distance below a few
+         * hundred kilometers.
+         */
+        EQUIRECTANGULAR
+    }
+
+    /**
+     * List of nodes representing locations, in the order of the matrix rows.
+     */
+    private final List<Node> nodes;
+
+    private final Formula formula;
+
+    /**
+     * The distances in meters.
+     */
+    private final DistanceMatrix distanceMatrix;
+
+    /**
+     * Computes the distance matrix of the given nodes.
+     *
+     * @param nodes   The nodes with their coordinates in degrees.
+     * @param formula How to compute distances.
+     */
+    public GeoMatrix(List<Node> nodes, Formula formula) {
+        this.nodes = new ArrayList<>(nodes);
+        this.formula = formula;
+        this.distanceMatrix = new DistanceMatrix(this.nodes, compute());
+    }
+
+    /**
+     * Computes the distance matrix of the nodes read from a CSV file, see
+     * {@link CSVIngress#createNodesFromCsv(File)}.
+     *
+     * @param csvDataSource The CSV file containing node data.
+     * @param formula       How to compute distances.
+     */
+    public GeoMatrix(File csvDataSource, Formula formula) {
+        this(CSVIngress.createNodesFromCsv(csvDataSource), formula);
+    }
+
+    /**
+     * Returns the distances for the dense solvers, e.g.
+     * {@link com.example.jll.DijkstrasAlgorithim.DataStructures.DenseMatrixSearch}, or for
+     * {@link com.example.jll.TSP.TourImprovement}.
+     *
+     * @return The straight-line distances in meters, in the order of {@link #getNodes()}.
+     */
+    public DistanceMatrix getDistanceMatrix() {
+        return distanceMatrix;
+    }
+
+    /**
+     * Estimates travel durations from the distances.
+     *
+     * @param kilometersPerHour The average travel speed.
+     * @param circuity          The ratio of travel distance to straight-line distance, e.g. about
+     *                          1.3 for roads, at least 1.
+     * @return The estimated durations in seconds, in the order of {@link #getNodes()}.
+     * @throws IllegalArgumentException if the speed is not positive or the circuity below 1.
+     */
+    public DistanceMatrix getDurationMatrix(double kilometersPerHour, double circuity) {
+        if (!(kilometersPerHour > 0.0) || !(circuity >= 1.0)) {
+            throw new IllegalArgumentException("The speed must be positive and the circuity at least 1");
+        }
+        double secondsPerMeter = circuity * 3.6 / kilometersPerHour;
+        int size = nodes.size();
+        double[] durations = new double[DistanceMatrix.cellCount(size)];
+        IntStream.range(0, size).parallel().forEach(i -> {
+            for (int j = 0, index = i * size; j < size; j++, index++) {
+                durations[index] = distanceMatrix.get(i, j) * secondsPerMeter;
+            }
+        });
+        return new DistanceMatrix(nodes, durations);
+    }
+
+    /**
+     * Adds an edge between every pair of nodes with their distance, like {@link MapboxMatrix} does,
+     * so the node-based algorithms, e.g. {@link com.example.jll.DijkstrasAlgorithim.DataStructures.Dijkstra#calculateShortestPathFromSource(Node)},
+     * can run on it. This stores {@code n * n} map entries, for large inputs prefer the matrix.
+     *
+     * @return The graph of the nodes.
+     */
+    public Graph toGraph() {
+        int size = nodes.size();
+        for (int i = 0; i < size; i++) {
+            Node node = nodes.get(i);
+            for (int j = 0; j < size; j++) {
+                node.addDestination(nodes.get(j), distanceMatrix.get(i, j));
+            }
+        }
+        return new Graph(nodes);
+    }
+
+    /**
+     * @return The nodes in the order of the matrix rows.
+     */
+    public List<Node> getNodes() {
+        return nodes;
+    }
+
+    /**
+     * @return The formula the distances were computed with.
+     */
+    public Formula getFormula() {
+        return formula;
+    }
+
+    /**
+     * @return Whether the rows are computed with SIMD instructions.
+     */
+    public static boolean isVectorized() {
+        return VECTOR != null;
+    }
+
+    /**
+     * Loads {@code VectorGeoDistance} from the {@code vector} source set by name, so that this class
+     * compiles and runs without the incubator module.
+     */
+    private static GeoRows loadVector() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return null;
+        }
+        try {
+            return (GeoRows) Class.forName(GeoMatrix.class.getPackageName() + ".VectorGeoDistance")
+                    .getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+    private double[] compute() {
+        int size = nodes.size();
+        // Haversine works on points on the unit sphere, the equirectangular formula on radians
+        double[] a = new double[size];
+        double[] b = new double[size];
+        double[] c = new double[size];
+        for (int i = 0; i < size; i++) {
+            double latitude = Math.toRadians(nodes.get(i).getLatitude());
+            double longitude = Math.toRadians(nodes.get(i).getLongitude());
+            if (formula == Formula.HAVERSINE) {
+                a[i] = Math.cos(latitude) * Math.cos(longitude);
+                b[i] = Math.cos(latitude) * Math.sin(longitude);
+                c[i] = Math.sin(latitude);
+            } else {
+                a[i] = latitude;
+                b[i] = longitude;
+            }
+        }
+
+        double[] weights = new double[DistanceMatrix.cellCount(size)];
+        int tiles = (size + TILE - 1) / TILE;
+        IntStream.range(0, tiles * tiles).parallel()
+                .filter(tile -> tile / tiles <= tile % tiles)
+                .forEach(tile -> computeTile(tile / tiles * TILE, tile % tiles * TILE, size, a, b, c, weights));
+        return weights;
+    }
+
+    /**
+     * Computes the rows {@code [rowStart, rowStart + TILE)} of the columns {@code [columnStart, columnStart + TILE)}
+     * above the diagonal and mirrors them below it.
+     */
+    private void computeTile(int rowStart, int columnStart, int size, double[] a, double[] b, double[] c, double[] weights) {
+        int rowEnd = Math.min(size, rowStart + TILE);
+        int columnEnd = Math.min(size, columnStart + TILE);
+        for (int i = rowStart; i < rowEnd; i++) {
+            int from = Math.max(columnStart, i + 1);
+            if (from >= columnEnd) {
+                continue;
+            }
+            if (VECTOR != null) {
+                if (formula == Formula.HAVERSINE) {
+                    VECTOR.haversineRow(a, b, c, i, from, columnEnd, weights, i * size);
+                } else {
+                    VECTOR.equirectangularRow(a, b, i, from, columnEnd, weights, i * size);
+                }
+            } else if (formula == Formula.HAVERSINE) {
+                for (int j = from; j < columnEnd; j++) {
+                    weights[i * size + j] = chordToArc(a[i] - a[j], b[i] - b[j], c[i] - c[j]);
+                }
+            } else {
+                for (int j = from; j < columnEnd; j++) {
+                    weights[i * size + j] = equirectangular(a[i], b[i], a[j], b[j]);
+                }
+            }
+            for (int j = from; j < columnEnd; j++) {
+                weights[j * size + i] = weights[i * size + j];
+            }
+        }
+    }
+
+    /**
+     * Converts the straight line between two points on the unit sphere into the arc between them.
+     */
+    static double chordToArc(double dx, double dy, double dz) {
+        double chord = Math.sqrt(dx * dx + dy * dy + dz * dz);
+        return 2.0 * GeoDistance.EARTH_RADIUS * Math.asin(Math.min(1.0, 0.5 * chord));
+    }
+
+    static double equirectangular(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double longitude = Math.abs(longitude2 - longitude1);
+        longitude = Math.min(longitude, 2 * Math.PI - longitude);
+        double x = longitude * Math.cos(0.5 * (latitude1 + latitude2));
+        double y = latitude2 - latitude1;
+        return GeoDistance.EARTH_RADIUS * Math.sqrt(x * x + y * y);
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.jll.DijkstrasAlgorithim.DataIngress;
+
+/**
+ * The row computations of {@link GeoMatrix} that have a SIMD implementation. The scalar loops
+ * stay in {@code GeoMatrix}, the Vector API version is {@code VectorGeoDistance} in the
+ * {@code vector} source set.
+ *
+ * @author Ani Thyagarajan
+ */
+interface GeoRows {
+
+    /**
+     * Writes the great-circle distances from point {@code i} to the points {@code [from, to)},
+     * given as unit vectors {@code (x, y, z)}, to {@code weights[row + j]}.
+     */
+    void haversineRow(double[] x, double[] y, double[] z, int i, int from, int to, double[] weights, int row);
+
+    /**
+     * Writes the equirectangular distances from point {@code i} to the points {@code [from, to)},
+     * given in radians, to {@code weights[row + j]}.
+     */
+    void equirectangularRow(double[] latitudes, double[] longitudes, int i, int from, int to,
+                            double[] weights, int row);
+}
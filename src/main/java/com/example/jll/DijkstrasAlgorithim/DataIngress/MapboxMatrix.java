@@ -1,11 +1,13 @@
 package com.example.jll.DijkstrasAlgorithim.DataIngress;
 
 import com.example.jll.DijkstrasAlgorithim.DataStructures.Dijkstra;
+import com.example.jll.DijkstrasAlgorithim.DataStructures.DistanceMatrix;
 import com.example.jll.DijkstrasAlgorithim.DataStructures.Graph;
 import com.example.jll.DijkstrasAlgorithim.DataStructures.Node;
 import com.example.jll.DijkstrasAlgorithim.Visualization.ForceDiagram;
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.example.jll.DijkstrasAlgorithim.Visualization.JsonExport;
+import com.example.jll.Instrumentation.Instrumentation;
+import com.example.jll.Instrumentation.MatrixFetchEvent;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
@@ -17,6 +19,7 @@ import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.net.URI;
+import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
 
@@ -42,6 +45,11 @@ public class MapboxMatrix {
      */
     private final List<Node> nodes;
 
+    /**
+     * The graph of the nodes, used to look nodes up by name.
+     */
+    private final Graph graph;
+
     /**
      * API key for authenticating requests to the Mapbox API.
      */
@@ -57,6 +65,13 @@ public class MapboxMatrix {
      */
     private final MapboxUnits units;
 
+    /**
+     * The retrieved matrix as a flat array for the dense solvers, filled by {@code generateGraph()}.
+     * Pairs the API could not route are stored as {@link Double#POSITIVE_INFINITY} and get no edge
+     * in the graph.
+     */
+    private DistanceMatrix distanceMatrix;
+
     /**
      * Constructs a {@code MapboxMatrix} instance using a predefined list of nodes.
      * This constructor initializes the graph by calling {@code generateGraph()}.
@@ -65,10 +80,12 @@ public class MapboxMatrix {
      * @param nodes   A list of nodes representing locations.
      * @param profile The Mapbox profile defining the mode of transportation.
      * @param units   The unit system for distances (metric or imperial).
+     * @throws IllegalArgumentException if the node list is null, empty, exceeds 25 items or a node has no coordinates.
      */
     public MapboxMatrix(String apiKey, List<Node> nodes, MapboxProfile profile, MapboxUnits units) {
         this.apiKey = apiKey;
-        this.nodes = nodes;
+        this.nodes = validateNodes(nodes);
+        this.graph = new Graph(nodes);
         this.profile = profile;
         this.units = units;
         this.generateGraph();
@@ -82,37 +99,51 @@ public class MapboxMatrix {
      * @param csvDataSource The CSV file containing node data.
      * @param profile       The Mapbox profile defining the mode of transportation.
      * @param units         The unit system for distances (metric or imperial).
+     * @throws IllegalArgumentException if the file holds no nodes, more than 25 or a node without coordinates.
      */
     public MapboxMatrix(String apiKey, File csvDataSource, MapboxProfile profile, MapboxUnits units) {
         this.apiKey = apiKey;
-        this.nodes = CSVIngress.createNodesFromCsv(csvDataSource);
+        this.nodes = validateNodes(CSVIngress.createNodesFromCsv(csvDataSource));
+        this.graph = new Graph(nodes);
         this.profile = profile;
         this.units = units;
         this.generateGraph();
     }
 
+    /**
+     * Checks the nodes before they are indexed into a {@link Graph} or sent to the API.
+     *
+     * @throws IllegalArgumentException if the list is empty, null or exceeds 25 items, which is a
+     *                                  Mapbox Matrix API limitation, or a node has no coordinates.
+     */
+    private static List<Node> validateNodes(List<Node> nodes) {
+        if (nodes == null || nodes.isEmpty() || nodes.size() > 25) {
+            throw new IllegalArgumentException("Node list is null or empty or > 25 items");
+        }
+        for (Node i : nodes) {
+            if (i.getLongitude() == 0 && i.getLatitude() == 0) {
+                throw new IllegalArgumentException("Node does not contain coordinates, Node name: " + i.getName());
+            }
+        }
+        return nodes;
+    }
 
     /**
      * Retrieves a duration matrix from the Mapbox Matrix API using the driving profile
      * @throws RuntimeException if there is an issue executing the API Request
-     * @throws IllegalArgumentException if the coordinate list is empty, null or exceeds 25 items
-     * This is a Mapbox Matrix API limitation.
      */
     private void generateGraph() {
+        MatrixFetchEvent event = new MatrixFetchEvent();
+        event.begin();
+        long responseBytes = 0;
+        long roundTrip = 0;
+        boolean success = false;
         try {
-            if (nodes == null || nodes.isEmpty() || nodes.size() > 25) {
-                throw new IllegalArgumentException("Node list is null or empty or > 25 items");
-            }
-
             StringBuilder coordinateStringBuilder = new StringBuilder();
 
             for (Node i : nodes) {
-                if (i.getLongitude() != 0 || i.getLatitude() != 0) {
-                    String coordinate = i.getLongitude() + "," + i.getLatitude();
-                    coordinateStringBuilder.append(coordinate).append(";");
-                } else {
-                    throw new IllegalArgumentException("Node does not contain coordinates, Node name: " + i.getName());
-                }
+                String coordinate = i.getLongitude() + "," + i.getLatitude();
+                coordinateStringBuilder.append(coordinate).append(";");
             }
 
             coordinateStringBuilder.setLength(coordinateStringBuilder.length() - 1);
@@ -126,9 +157,12 @@ public class MapboxMatrix {
 
 
             RestTemplate template = new RestTemplate();
-            String response = template.getForObject(uriBuilder.toUriString(), String.class);
+            long requested = System.nanoTime();
+            byte[] response = template.getForObject(uriBuilder.toUriString(), byte[].class);
+            roundTrip = System.nanoTime() - requested;
+            responseBytes = response == null ? 0 : response.length;
 
-            // Parse the response
+            // Parse the response, the raw body lets Jackson detect its encoding
             ObjectMapper mapper = new ObjectMapper();
             JsonNode root = mapper.readTree(response);
 
@@ -140,24 +174,43 @@ public class MapboxMatrix {
 
             int size = durationsNode.size();
 
-            System.out.println("Start Matrix API Distance Matrix");
-            System.out.println("___________________________");
-
-
+            boolean reporting = Instrumentation.isReporting();
+            if (reporting) {
+                Instrumentation.report("Start Matrix API Distance Matrix");
+                Instrumentation.report("___________________________");
+            }
 
+            double[] weights = new double[DistanceMatrix.cellCount(nodes.size())];
+            Arrays.fill(weights, Double.POSITIVE_INFINITY);
             for (int i = 0; i < size; i++) {
                 JsonNode row = durationsNode.get(i);
-                System.out.println(row);
+                if (reporting) {
+                    Instrumentation.report(row.toString());
+                }
                 for (int j = 0; j < row.size(); j++) {
-                    nodes.get(i).addDestination(nodes.get(j), row.get(j).asInt());
+                    // A null cell is a pair the API could not route, neither the graph nor the matrix gets an edge
+                    if (row.get(j).isNull()) {
+                        nodes.get(i).removeDestination(nodes.get(j));
+                        weights[i * nodes.size() + j] = Double.POSITIVE_INFINITY;
+                    } else {
+                        nodes.get(i).addDestination(nodes.get(j), row.get(j).asInt());
+                        weights[i * nodes.size() + j] = row.get(j).asInt();
+                    }
                 }
             }
+            this.distanceMatrix = new DistanceMatrix(nodes, weights);
 
-            System.out.println("___________________________");
-            System.out.println("End Matrix API Distance Matrix");
+            if (reporting) {
+                Instrumentation.report("___________________________");
+                Instrumentation.report("End Matrix API Distance Matrix");
+            }
+            success = true;
 
         } catch (Exception e) {
             throw new RuntimeException(e);
+        } finally {
+            event.complete(String.valueOf(profile), String.valueOf(units), nodes.size(),
+                    responseBytes, roundTrip, success);
         }
     }
 
@@ -173,25 +226,54 @@ public class MapboxMatrix {
      * Ensure that the graph and its nodes are properly initialized with valid weights before invoking this method.</p>
      */
     public Graph runDijkstrasAlgorithm(String sourceName) {
-        Graph graph = new Graph();
-        nodes.iterator().forEachRemaining(graph::addNode);
-        try {
-            Node sourceNode = nodes.stream().filter(node -> node.getName().equals(sourceName)).findFirst().orElse(null);
-            assert sourceNode != null;
-            return Dijkstra.calculateShortestPathFromSource(sourceNode);
-
-        } catch (NullPointerException e) {
+        if (!graph.containsNode(sourceName)) {
             throw new NullPointerException("The source node " + sourceName + " does not exist.");
         }
+        return Dijkstra.calculateShortestPathFromSource(graph.getNode(sourceName));
+    }
+
+    /**
+     * Returns the nodes of the matrix, whose adjacency maps hold the retrieved distances or durations.
+     *
+     * @return the nodes in the order they were sent to the Matrix API
+     */
+    public List<Node> getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Returns the graph of the nodes of the matrix.
+     *
+     * @return the graph indexing the nodes by name
+     */
+    public Graph getGraph() {
+        return graph;
+    }
+
+    /**
+     * Returns the retrieved matrix for the dense solvers, e.g.
+     * {@link com.example.jll.DijkstrasAlgorithim.DataStructures.DenseMatrixSearch}.
+     *
+     * @return the distances or durations in the order of {@link #getNodes()}
+     */
+    public DistanceMatrix getDistanceMatrix() {
+        return distanceMatrix;
+    }
+
+    /**
+     * Returns whether the edge weights of the nodes are distances or durations.
+     *
+     * @return the unit of the retrieved matrix
+     */
+    public MapboxUnits getUnits() {
+        return units;
     }
 
     public void visualizeGraph(String title){
-        Graph graph = new Graph(nodes);
         ForceDiagram visual = new ForceDiagram(graph, title);
     }
 
     public void visualizeShortestPath(String title, String soruceNode){
-        Graph graph = new Graph(nodes);
         ForceDiagram visual = new ForceDiagram(graph, title, soruceNode);
     }
 
@@ -237,59 +319,10 @@ public class MapboxMatrix {
         String jsonFileName = "mapData_" + uuid + ".json";
         File jsonFile = new File(outDir, jsonFileName);
 
-        // JSON creation using Jackson
-        ObjectMapper mapper = new ObjectMapper();
-        ObjectNode graphJson = mapper.createObjectNode();
-
-        // Arrays for nodes and edges
-        ArrayNode nodesArray = mapper.createArrayNode();
-        ArrayNode linksArray = mapper.createArrayNode();
-
-        // Add nodes to the JSON array
-        for (Node node : nodes) {
-            ObjectNode nodeJson = mapper.createObjectNode();
-            nodeJson.put("id", node.getName());
-            nodeJson.put("latitude", node.getLatitude());
-            nodeJson.put("longitude", node.getLongitude());
-            nodesArray.add(nodeJson);
-        }
-
-        // Add edges based on the shortest paths
-        for (Node node : nodes) {
-            if (!node.getName().equals(sourceNodeName)) { // Skip the source node
-                if (node.getShortestPath().size() > 1) {
-                    for (int i = 0; i < node.getShortestPath().size() - 1; i++) {
-                        Node fromNode = node.getShortestPath().get(i);
-                        Node toNode = node.getShortestPath().get(i + 1);
-                        Double distance = fromNode.getAdjacentNodes().get(toNode);
-
-                        ObjectNode linkJson = mapper.createObjectNode();
-                        linkJson.put("source", fromNode.getName());
-                        linkJson.put("target", toNode.getName());
-                        linkJson.put("value", distance);
-                        linksArray.add(linkJson);
-                    }
-                } else if (!node.getShortestPath().isEmpty()) {
-                    Node fromNode = node.getShortestPath().get(0);
-                    Double distance = fromNode.getAdjacentNodes().get(node);
-
-                    ObjectNode linkJson = mapper.createObjectNode();
-                    linkJson.put("source", fromNode.getName());
-                    linkJson.put("target", node.getName());
-                    linkJson.put("value", distance);
-                    linksArray.add(linkJson);
-                }
-            }
-        }
-
-        // Add nodes and links to the main JSON object
-        graphJson.set("nodes", nodesArray);
-        graphJson.set("links", linksArray);
-
-        // Write JSON to file
-        mapper.writerWithDefaultPrettyPrinter().writeValue(jsonFile, graphJson);
+        // Stream the nodes and every shortest path tree edge once
+        JsonExport.pretty().writeMap(nodes, graph.getNode(sourceNodeName), jsonFile);
 
-        System.out.println("Dijkstra JSON file created at: " + jsonFile.getAbsolutePath());
+        Instrumentation.report("Dijkstra JSON file created at: " + jsonFile.getAbsolutePath());
         return jsonFile;
     }
 
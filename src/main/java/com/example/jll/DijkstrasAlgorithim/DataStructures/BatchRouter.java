@@ -0,0 +1,136 @@
+package com.example.jll.DijkstrasAlgorithim.DataStructures;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Answers bursts of shortest path queries against a shared, read-only {@link GraphStore}.
+ * <p>
+ * The queries of a batch are grouped by source, and a single search per source answers all of
+ * its targets, stopping as soon as the last of them is settled. The groups run concurrently. By
+ * default every group gets its own virtual thread when the JVM supports them (Java 21 and later),
+ * otherwise a thread pool with one thread per core is used. The graph is only read, so all
+ * searches share it without locking.
+ * </p>
+ *
+ * @author Ani Thyagarajan
+ */
+public class BatchRouter {
+
+    private final GraphStore graph;
+    private final Dijkstra.QueueType queueType;
+
+    /**
+     * Creates a router that picks the priority queue from the edge weights.
+     *
+     * @param graph The graph to route on.
+     */
+    public BatchRouter(GraphStore graph) {
+        this(graph, Dijkstra.QueueType.AUTOMATIC);
+    }
+
+    /**
+     * @param graph     The graph to route on.
+     * @param queueType The priority queue of the searches.
+     */
+    public BatchRouter(GraphStore graph, Dijkstra.QueueType queueType) {
+        this.graph = graph;
+        this.queueType = queueType;
+    }
+
+    /**
+     * Answers a batch of queries on a new executor, which is shut down before returning.
+     *
+     * @param queries The queries to answer.
+     * @return One result per query, in the order of the queries.
+     * @throws IllegalArgumentException if a query refers to a node id outside the graph.
+     */
+    public List<RouteResult> route(List<RouteQuery> queries) {
+        ExecutorService executor = newExecutor();
+        try {
+            return route(queries, executor);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Answers a batch of queries on the given executor.
+     *
+     * @param queries  The queries to answer.
+     * @param executor The executor running one task per distinct source.
+     * @return One result per query, in the order of the queries.
+     * @throws IllegalArgumentException if a query refers to a node id outside the graph.
+     */
+    public List<RouteResult> route(List<RouteQuery> queries, ExecutorService executor) {
+        Map<Integer, List<Integer>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < queries.size(); i++) {
+            RouteQuery query = queries.get(i);
+            checkNode(query.getSource(), query);
+            checkNode(query.getTarget(), query);
+            groups.computeIfAbsent(query.getSource(), source -> new ArrayList<>()).add(i);
+        }
+
+        RouteResult[] results = new RouteResult[queries.size()];
+        List<Future<?>> futures = new ArrayList<>(groups.size());
+        for (Map.Entry<Integer, List<Integer>> group : groups.entrySet()) {
+            futures.add(executor.submit(() -> answer(group.getKey(), group.getValue(), queries, results)));
+        }
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw new RuntimeException(e.getCause());
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Runs one search for all queries sharing a source. Every task writes distinct slots of the
+     * result array, and {@code Future.get} publishes them to the calling thread.
+     */
+    private void answer(int source, List<Integer> indices, List<RouteQuery> queries, RouteResult[] results) {
+        long start = System.nanoTime();
+        int[] targets = new int[indices.size()];
+        for (int i = 0; i < targets.length; i++) {
+            targets[i] = queries.get(indices.get(i)).getTarget();
+        }
+        ShortestPathTree tree = Dijkstra.calculateShortestPathTree(graph, source, targets, queueType);
+        long searchNanos = System.nanoTime() - start;
+
+        for (int index : indices) {
+            RouteQuery query = queries.get(index);
+            int[] path = tree.getPath(query.getTarget());
+            results[index] = new RouteResult(query, tree.getDistance(query.getTarget()), path,
+                    indices.size(), searchNanos, System.nanoTime() - start);
+        }
+    }
+
+    private void checkNode(int node, RouteQuery query) {
+        if (node < 0 || node >= graph.nodeCount()) {
+            throw new IllegalArgumentException("The query " + query + " refers to node " + node
+                    + ", which is not part of the graph");
+        }
+    }
+
+    /**
+     * Creates a virtual thread per task executor on Java 21 and later. The library targets
+     * Java 17, so the factory is looked up reflectively and a fixed pool is used where it is missing.
+     */
+    private static ExecutorService newExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        }
+    }
+}
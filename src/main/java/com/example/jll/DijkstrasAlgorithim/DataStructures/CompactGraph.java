@@ -0,0 +1,134 @@
+package com.example.jll.DijkstrasAlgorithim.DataStructures;
+
+import java.util.Arrays;
+
+/**
+ * An immutable on-heap snapshot of a {@link Graph} stored in five primitive arrays.
+ * <p>
+ * Compared to the {@code HashMap} adjacency of every {@link Node}, the snapshot needs 12 bytes per
+ * edge, no object per edge and no hashing during a search.
+ * </p>
+ *
+ * @author Ani Thyagarajan
+ */
+public final class CompactGraph implements GraphStore {
+
+    private final int[] edgeStart;
+    private final int[] edgeTarget;
+    private final double[] edgeWeight;
+    private final double[] latitude;
+    private final double[] longitude;
+
+    /**
+     * The cached result of {@link #integerWeightBound()}, -2 until it is first computed.
+     */
+    private int integerWeightBound = -2;
+
+    /**
+     * Wraps already built CSR arrays. The arrays are used as is, not copied.
+     *
+     * @param edgeStart  The first edge of every node, with {@code nodeCount + 1} entries.
+     * @param edgeTarget The target node of every edge.
+     * @param edgeWeight The weight of every edge.
+     * @param latitude   The latitude of every node in degrees.
+     * @param longitude  The longitude of every node in degrees.
+     * @throws IllegalArgumentException if the array lengths do not match.
+     */
+    public CompactGraph(int[] edgeStart, int[] edgeTarget, double[] edgeWeight, double[] latitude, double[] longitude) {
+        int nodes = edgeStart.length - 1;
+        if (nodes < 0 || edgeTarget.length != edgeWeight.length || edgeStart[nodes] != edgeTarget.length
+                || latitude.length != nodes || longitude.length != nodes) {
+            throw new IllegalArgumentException("Inconsistent compressed sparse row arrays");
+        }
+        this.edgeStart = edgeStart;
+        this.edgeTarget = edgeTarget;
+        this.edgeWeight = edgeWeight;
+        this.latitude = latitude;
+        this.longitude = longitude;
+    }
+
+    /**
+     * Takes a snapshot of a graph. Node ids are the graph's ids, edges to nodes outside the graph
+     * are dropped. Later changes to the graph are not reflected in the snapshot.
+     *
+     * @param graph The graph to copy.
+     * @return The snapshot.
+     */
+    public static CompactGraph of(Graph graph) {
+        int size = graph.size();
+        int[] edgeStart = new int[size + 1];
+        int edges = 0;
+        for (int v = 0; v < size; v++) {
+            edges += graph.getNode(v).getAdjacentNodes().size();
+        }
+        int[] edgeTarget = new int[edges];
+        double[] edgeWeight = new double[edges];
+        double[] latitude = new double[size];
+        double[] longitude = new double[size];
+
+        int e = 0;
+        for (int v = 0; v < size; v++) {
+            Node node = graph.getNode(v);
+            edgeStart[v] = e;
+            latitude[v] = node.getLatitude();
+            longitude[v] = node.getLongitude();
+            PrimitiveAdjacency adjacency = node.getAdjacentNodes();
+            for (int i = 0; i < adjacency.size(); i++) {
+                int target = graph.findId(adjacency.getTarget(i));
+                if (target != -1) {
+                    edgeTarget[e] = target;
+                    edgeWeight[e++] = adjacency.getWeight(i);
+                }
+            }
+        }
+        edgeStart[size] = e;
+        if (e != edges) {
+            edgeTarget = Arrays.copyOf(edgeTarget, e);
+            edgeWeight = Arrays.copyOf(edgeWeight, e);
+        }
+        return new CompactGraph(edgeStart, edgeTarget, edgeWeight, latitude, longitude);
+    }
+
+    @Override
+    public int nodeCount() {
+        return latitude.length;
+    }
+
+    @Override
+    public int edgeCount() {
+        return edgeTarget.length;
+    }
+
+    @Override
+    public int firstEdge(int node) {
+        return edgeStart[node];
+    }
+
+    @Override
+    public int edgeTarget(int edge) {
+        return edgeTarget[edge];
+    }
+
+    @Override
+    public double edgeWeight(int edge) {
+        return edgeWeight[edge];
+    }
+
+    @Override
+    public double latitude(int node) {
+        return latitude[node];
+    }
+
+    @Override
+    public double longitude(int node) {
+        return longitude[node];
+    }
+
+    @Override
+    public int integerWeightBound() {
+        if (integerWeightBound == -2) {
+            integerWeightBound = GraphStore.super.integerWeightBound();
+        }
+        return integerWeightBound;
+    }
+}
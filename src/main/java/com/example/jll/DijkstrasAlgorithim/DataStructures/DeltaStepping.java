@@ -0,0 +1,412 @@
+package com.example.jll.DijkstrasAlgorithim.DataStructures;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Parallel single-source shortest paths with Meyer and Sanders' delta-stepping algorithm.
+ * <p>
+ * Tentative distances are grouped into buckets of width {@code delta}. The lowest non-empty bucket
+ * is emptied in rounds: all of its nodes relax their light edges (weight up to {@code delta}) in
+ * parallel, which may refill the same bucket, until it stays empty. Then all nodes removed from the
+ * bucket relax their heavy edges in parallel, which can only reach later buckets. With a small
+ * delta this behaves like Dijkstra's algorithm, with a large one like Bellman-Ford; in between every
+ * bucket holds enough nodes to keep all cores busy.
+ * </p>
+ * <p>
+ * Distances are kept in an {@link AtomicLongArray} as the bits of non-negative doubles, whose order
+ * matches the order of the longs, and are lowered with compare-and-set, so concurrent relaxations
+ * need no locks. The predecessors are derived once all distances are final, so the result is the same
+ * as that of {@link Dijkstra}, only computed on many cores. Intended for single, very large
+ * one-to-all searches; for many small queries the sequential search is cheaper.
+ * </p>
+ *
+ * @author Ani Thyagarajan
+ */
+public final class DeltaStepping {
+
+    /**
+     * The number of nodes or edges below which a parallel step is not split any further.
+     */
+    private static final int SPLIT_THRESHOLD = 512;
+
+    /**
+     * The largest number of buckets kept at the same time, {@code maxWeight / delta} must stay below it.
+     */
+    private static final int MAX_BUCKETS = 1 << 24;
+
+    private static final long INFINITY = Double.doubleToRawLongBits(Double.POSITIVE_INFINITY);
+
+    private final GraphStore graph;
+    private final double delta;
+    private final ForkJoinPool pool;
+
+    private final AtomicLongArray distances;
+
+    /**
+     * The distance at which each node last relaxed its light edges, to skip duplicate bucket entries.
+     */
+    private final double[] relaxedAt;
+
+    /**
+     * The bucket number in which each node was last added to the heavy relaxation set.
+     */
+    private final long[] settledIn;
+
+    /**
+     * The buckets used as a ring, all tentative distances lie less than {@code buckets.length}
+     * buckets ahead of the current one.
+     */
+    private final IntList[] buckets;
+    private long pending;
+
+    private DeltaStepping(GraphStore graph, double delta, ForkJoinPool pool, double maxWeight) {
+        this.graph = graph;
+        this.delta = delta;
+        this.pool = pool;
+        int size = graph.nodeCount();
+        this.distances = new AtomicLongArray(size);
+        for (int v = 0; v < size; v++) {
+            distances.set(v, INFINITY);
+        }
+        this.relaxedAt = new double[size];
+        Arrays.fill(relaxedAt, Double.NaN);
+        this.settledIn = new long[size];
+        Arrays.fill(settledIn, -1);
+        this.buckets = new IntList[(int) (maxWeight / delta) + 2];
+        for (int b = 0; b < buckets.length; b++) {
+            buckets[b] = new IntList();
+        }
+    }
+
+    /**
+     * Computes the shortest paths from a source with the default delta on the common pool.
+     *
+     * @param graph  The graph to search, all weights must be non-negative.
+     * @param source The node id the paths start at.
+     * @return The distances and shortest path predecessors of all nodes.
+     */
+    public static ShortestPathTree shortestPathTree(GraphStore graph, int source) {
+        return shortestPathTree(graph, source, defaultDelta(graph), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes the shortest paths from a source with the given delta on the common pool.
+     *
+     * @param graph  The graph to search, all weights must be non-negative.
+     * @param source The node id the paths start at.
+     * @param delta  The bucket width.
+     * @return The distances and shortest path predecessors of all nodes.
+     */
+    public static ShortestPathTree shortestPathTree(GraphStore graph, int source, double delta) {
+        return shortestPathTree(graph, source, delta, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes the shortest paths from a source.
+     *
+     * @param graph  The graph to search, all weights must be non-negative.
+     * @param source The node id the paths start at.
+     * @param delta  The bucket width. Smaller values do less redundant work, larger values expose
+     *               more parallelism; the mean edge weight from {@link #defaultDelta(GraphStore)}
+     *               is a good starting point.
+     * @param pool   The pool running the parallel relaxations.
+     * @return The distances and shortest path predecessors of all nodes.
+     * @throws IllegalArgumentException if delta is not positive, the graph has a negative or NaN
+     *                                  weight, or delta is so small that more than 2^24 buckets are needed.
+     */
+    public static ShortestPathTree shortestPathTree(GraphStore graph, int source, double delta, ForkJoinPool pool) {
+        if (!(delta > 0.0) || Double.isInfinite(delta)) {
+            throw new IllegalArgumentException("Delta must be positive and finite, got " + delta);
+        }
+        double maxWeight = 0.0;
+        for (int e = 0; e < graph.edgeCount(); e++) {
+            double weight = graph.edgeWeight(e);
+            if (!(weight >= 0.0)) {
+                throw new IllegalArgumentException("Delta-stepping requires non-negative edge weights, edge "
+                        + e + " has weight " + weight);
+            }
+            if (weight != Double.POSITIVE_INFINITY) {
+                maxWeight = Math.max(maxWeight, weight);
+            }
+        }
+        if (maxWeight / delta >= MAX_BUCKETS) {
+            throw new IllegalArgumentException("Delta " + delta + " is too small for the largest edge weight "
+                    + maxWeight + ", use a delta of at least " + maxWeight / MAX_BUCKETS);
+        }
+        return new DeltaStepping(graph, delta, pool, maxWeight).run(source);
+    }
+
+    /**
+     * Returns the mean finite edge weight, which keeps the buckets small while giving each of them
+     * enough nodes to relax in parallel on typical road graphs.
+     *
+     * @param graph The graph to search.
+     * @return A delta for the graph, 1 if it has no positive edge weights.
+     */
+    public static double defaultDelta(GraphStore graph) {
+        double sum = 0.0;
+        long count = 0;
+        for (int e = 0; e < graph.edgeCount(); e++) {
+            double weight = graph.edgeWeight(e);
+            if (weight > 0.0 && weight != Double.POSITIVE_INFINITY) {
+                sum += weight;
+                count++;
+            }
+        }
+        return count == 0 ? 1.0 : sum / count;
+    }
+
+    private ShortestPathTree run(int source) {
+        distances.set(source, Double.doubleToRawLongBits(0.0));
+        addToBucket(source, 0.0);
+
+        IntList settled = new IntList();
+        for (long bucket = 0; pending > 0; bucket++) {
+            IntList entries = buckets[(int) (bucket % buckets.length)];
+            if (entries.size == 0) {
+                continue;
+            }
+            settled.size = 0;
+            IntList frontier = takeFrontier(bucket);
+            while (frontier.size > 0) {
+                for (int i = 0; i < frontier.size; i++) {
+                    int node = frontier.values[i];
+                    if (settledIn[node] != bucket) {
+                        settledIn[node] = bucket;
+                        settled.add(node);
+                    }
+                }
+                relax(frontier, true);
+                frontier = takeFrontier(bucket);
+            }
+            relax(settled, false);
+        }
+
+        int size = graph.nodeCount();
+        double[] result = new double[size];
+        for (int v = 0; v < size; v++) {
+            result[v] = Double.longBitsToDouble(distances.get(v));
+        }
+        return new ShortestPathTree(source, result, findParents(source, result));
+    }
+
+    /**
+     * Removes the entries of a bucket whose distance still falls into it and that have not been
+     * relaxed at their current distance yet.
+     */
+    private IntList takeFrontier(long bucket) {
+        IntList entries = buckets[(int) (bucket % buckets.length)];
+        IntList frontier = new IntList();
+        for (int i = 0; i < entries.size; i++) {
+            int node = entries.values[i];
+            double distance = distance(node);
+            if ((long) (distance / delta) == bucket && distance != relaxedAt[node]) {
+                relaxedAt[node] = distance;
+                frontier.add(node);
+            }
+        }
+        pending -= entries.size;
+        entries.size = 0;
+        return frontier;
+    }
+
+    /**
+     * Relaxes the light or heavy edges of all given nodes in parallel and files every node whose
+     * distance was lowered into its new bucket.
+     */
+    private void relax(IntList nodes, boolean light) {
+        ConcurrentLinkedQueue<IntList> improved = new ConcurrentLinkedQueue<>();
+        if (nodes.size <= SPLIT_THRESHOLD) {
+            new Relaxation(nodes.values, 0, nodes.size, light, improved).compute();
+        } else {
+            pool.invoke(new Relaxation(nodes.values, 0, nodes.size, light, improved));
+        }
+        for (IntList list : improved) {
+            for (int i = 0; i < list.size; i++) {
+                int node = list.values[i];
+                addToBucket(node, distance(node));
+            }
+        }
+    }
+
+    private void addToBucket(int node, double distance) {
+        buckets[(int) ((long) (distance / delta) % buckets.length)].add(node);
+        pending++;
+    }
+
+    private double distance(int node) {
+        return Double.longBitsToDouble(distances.get(node));
+    }
+
+    /**
+     * Lowers the distance of a node with compare-and-set.
+     *
+     * @return {@code true} if this call lowered the distance.
+     */
+    private boolean lowerDistance(int node, double candidate) {
+        long bits = Double.doubleToRawLongBits(candidate);
+        long current = distances.get(node);
+        while (bits < current) {
+            if (distances.compareAndSet(node, current, bits)) {
+                return true;
+            }
+            current = distances.get(node);
+        }
+        return false;
+    }
+
+    /**
+     * Relaxes the light or heavy edges of a range of nodes, splitting the range across the pool.
+     */
+    private final class Relaxation extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] nodes;
+        private final int from;
+        private final int to;
+        private final boolean light;
+        private final ConcurrentLinkedQueue<IntList> improved;
+
+        private Relaxation(int[] nodes, int from, int to, boolean light, ConcurrentLinkedQueue<IntList> improved) {
+            this.nodes = nodes;
+            this.from = from;
+            this.to = to;
+            this.light = light;
+            this.improved = improved;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > SPLIT_THRESHOLD) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Relaxation(nodes, from, middle, light, improved),
+                        new Relaxation(nodes, middle, to, light, improved));
+                return;
+            }
+            IntList lowered = new IntList();
+            for (int i = from; i < to; i++) {
+                int node = nodes[i];
+                double distance = distance(node);
+                int end = graph.firstEdge(node + 1);
+                for (int e = graph.firstEdge(node); e < end; e++) {
+                    double weight = graph.edgeWeight(e);
+                    if ((weight <= delta) == light) {
+                        int adjacent = graph.edgeTarget(e);
+                        if (lowerDistance(adjacent, distance + weight)) {
+                            lowered.add(adjacent);
+                        }
+                    }
+                }
+            }
+            if (lowered.size > 0) {
+                improved.add(lowered);
+            }
+        }
+    }
+
+    /**
+     * Picks a predecessor for every reached node among the edges that are tight under the final
+     * distances. Positive tight edges always point to a larger distance, so they are assigned in
+     * parallel without creating cycles. Nodes only reachable over zero-weight edges from nodes at
+     * the same distance are connected afterwards by a search along tight zero-weight edges, which
+     * keeps every parent chain leading back to the source.
+     */
+    private int[] findParents(int source, double[] result) {
+        int size = result.length;
+        int[] parents = new int[size];
+        Arrays.fill(parents, -1);
+        pool.invoke(new ParentAssignment(result, parents, 0, size));
+        parents[source] = -1;
+
+        int[] queue = new int[size];
+        int head = 0;
+        int tail = 0;
+        boolean unresolved = false;
+        for (int v = 0; v < size; v++) {
+            if (v == source || parents[v] != -1) {
+                queue[tail++] = v;
+            } else if (result[v] != Double.POSITIVE_INFINITY) {
+                unresolved = true;
+            }
+        }
+        if (!unresolved) {
+            return parents;
+        }
+        while (head < tail) {
+            int node = queue[head++];
+            int end = graph.firstEdge(node + 1);
+            for (int e = graph.firstEdge(node); e < end; e++) {
+                int adjacent = graph.edgeTarget(e);
+                if (graph.edgeWeight(e) == 0.0 && adjacent != source && parents[adjacent] == -1
+                        && result[adjacent] == result[node]) {
+                    parents[adjacent] = node;
+                    queue[tail++] = adjacent;
+                }
+            }
+        }
+        return parents;
+    }
+
+    /**
+     * Assigns parents along positive tight edges for a range of nodes, splitting the range across the pool.
+     */
+    private final class ParentAssignment extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final double[] result;
+        private final int[] parents;
+        private final int from;
+        private final int to;
+
+        private ParentAssignment(double[] result, int[] parents, int from, int to) {
+            this.result = result;
+            this.parents = parents;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > SPLIT_THRESHOLD * 8) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new ParentAssignment(result, parents, from, middle),
+                        new ParentAssignment(result, parents, middle, to));
+                return;
+            }
+            for (int node = from; node < to; node++) {
+                double distance = result[node];
+                if (distance == Double.POSITIVE_INFINITY) {
+                    continue;
+                }
+                int end = graph.firstEdge(node + 1);
+                for (int e = graph.firstEdge(node); e < end; e++) {
+                    double weight = graph.edgeWeight(e);
+                    int adjacent = graph.edgeTarget(e);
+                    // Any tight edge is a valid predecessor, so racing writes need no ordering
+                    if (weight > 0.0 && distance + weight == result[adjacent]) {
+                        parents[adjacent] = node;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * A growable list of node ids.
+     */
+    private static final class IntList {
+        private int[] values = new int[8];
+        private int size;
+
+        private void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
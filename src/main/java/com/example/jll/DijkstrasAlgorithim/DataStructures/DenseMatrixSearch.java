@@ -0,0 +1,237 @@
+package com.example.jll.DijkstrasAlgorithim.DataStructures;
+
+import java.util.Arrays;
+
+/**
+ * Dijkstra's algorithm and Prim's algorithm specialised for complete or nearly complete graphs
+ * stored in a {@link DistanceMatrix}, such as the matrices returned by the Mapbox Matrix API.
+ * <p>
+ * On a dense graph a priority queue does not pay off: every settled node relaxes almost every
+ * other node anyway. Both algorithms therefore select the next node with a plain scan over an
+ * array and relax a whole matrix row at a time, for {@code O(V^2)} work on contiguous memory
+ * without any hashing or boxing. When the JVM runs with
+ * {@code --add-modules jdk.incubator.vector}, the row relaxation uses SIMD instructions through
+ * the Vector API, otherwise an equivalent scalar loop is used.
+ * </p>
+ * <p>
+ * All weights must be non-negative, missing edges are {@code Double.POSITIVE_INFINITY}.
+ * </p>
+ *
+ * @author Ani Thyagarajan
+ */
+public final class DenseMatrixSearch {
+
+    /**
+     * The SIMD relaxations, or {@code null} if the Vector API is not available at runtime.
+     */
+    private static final RowRelaxation VECTOR = loadVector();
+
+    private DenseMatrixSearch() {
+    }
+
+    /**
+     * @return {@code true} if the row relaxations run on the Vector API.
+     */
+    public static boolean isVectorized() {
+        return VECTOR != null;
+    }
+
+    /**
+     * Loads {@code VectorRelaxation} from the {@code vector} source set by name, so that this class
+     * compiles and runs without the incubator module.
+     */
+    private static RowRelaxation loadVector() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return null;
+        }
+        try {
+            return (RowRelaxation) Class.forName(DenseMatrixSearch.class.getPackageName() + ".VectorRelaxation")
+                    .getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+    /**
+     * Computes the shortest paths from a source to all indices of a matrix.
+     *
+     * @param matrix The edge weights, row {@code i} holds the edges leaving index {@code i}.
+     * @param source The index the paths start at.
+     * @return The distances and shortest path predecessors, indexed like the matrix.
+     */
+    public static ShortestPathTree shortestPathTree(DistanceMatrix matrix, int source) {
+        int size = matrix.getSize();
+        double[] weights = matrix.getWeights();
+        double[] distances = new double[size];
+        double[] parents = new double[size];
+        boolean[] settled = new boolean[size];
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        Arrays.fill(parents, -1);
+        distances[source] = 0.0;
+
+        for (int round = 0; round < size; round++) {
+            int current = closest(distances, settled);
+            if (current == -1) {
+                break;
+            }
+            settled[current] = true;
+            // Settled nodes are never lowered again, their distance is at most the current one
+            if (VECTOR != null) {
+                VECTOR.relaxDistances(weights, current * size, size, distances[current], current, distances, parents);
+            } else {
+                relaxDistances(weights, current * size, size, distances[current], current, distances, parents);
+            }
+        }
+        return new ShortestPathTree(source, distances, toIds(parents));
+    }
+
+    /**
+     * Computes a minimum spanning tree of a matrix with Prim's algorithm. Asymmetric matrices are
+     * treated as undirected with the lighter of the two directions as the edge weight.
+     *
+     * @param matrix The edge weights.
+     * @return The minimum spanning tree rooted at index 0.
+     */
+    public static SpanningTree minimumSpanningTree(DistanceMatrix matrix) {
+        return prim(undirectedWeights(matrix), matrix.getSize(), -1);
+    }
+
+    /**
+     * Computes the 1-tree lower bound on the length of any tour through all indices of a matrix:
+     * a minimum spanning tree of all other indices plus the two lightest edges of {@code special}.
+     * Every tour is a 1-tree, so no tour can be shorter. The bound is valid for asymmetric
+     * matrices too, it is computed on the lighter direction of every edge.
+     *
+     * @param matrix  The edge weights.
+     * @param special The index left out of the spanning tree.
+     * @return The lower bound, {@code Double.POSITIVE_INFINITY} if no tour exists.
+     */
+    public static double oneTreeBound(DistanceMatrix matrix, int special) {
+        int size = matrix.getSize();
+        if (size < 3) {
+            return size < 2 ? 0.0 : matrix.get(0, 1) + matrix.get(1, 0);
+        }
+        double[] weights = undirectedWeights(matrix);
+        double lightest = Double.POSITIVE_INFINITY;
+        double second = Double.POSITIVE_INFINITY;
+        for (int v = 0; v < size; v++) {
+            double weight = weights[special * size + v];
+            if (v == special) {
+                continue;
+            }
+            if (weight < lightest) {
+                second = lightest;
+                lightest = weight;
+            } else if (weight < second) {
+                second = weight;
+            }
+        }
+        return prim(weights, size, special).getWeight() + lightest + second;
+    }
+
+    /**
+     * Prim's algorithm with an array scan, optionally leaving one index out of the tree.
+     */
+    private static SpanningTree prim(double[] weights, int size, int excluded) {
+        double[] keys = new double[size];
+        double[] parents = new double[size];
+        boolean[] settled = new boolean[size];
+        Arrays.fill(keys, Double.POSITIVE_INFINITY);
+        Arrays.fill(parents, -1);
+        int root = excluded == 0 ? Math.min(1, size - 1) : 0;
+        if (excluded >= 0) {
+            settled[excluded] = true;
+            keys[excluded] = Double.NEGATIVE_INFINITY;
+        }
+        if (size > 0) {
+            keys[root] = 0.0;
+        }
+
+        double total = 0.0;
+        int remaining = excluded >= 0 ? size - 1 : size;
+        for (int round = 0; round < remaining; round++) {
+            int current = closest(keys, settled);
+            if (current == -1) {
+                total = Double.POSITIVE_INFINITY;
+                break;
+            }
+            settled[current] = true;
+            total += keys[current];
+            // A key of minus infinity keeps settled nodes from being relaxed again
+            keys[current] = Double.NEGATIVE_INFINITY;
+            if (VECTOR != null) {
+                VECTOR.relaxKeys(weights, current * size, size, current, keys, parents);
+            } else {
+                relaxKeys(weights, current * size, size, current, keys, parents);
+            }
+        }
+        if (excluded >= 0) {
+            parents[excluded] = -1;
+        }
+        return new SpanningTree(root, toIds(parents), total);
+    }
+
+    /**
+     * Returns the unsettled index with the lowest finite value, or -1 if there is none.
+     */
+    private static int closest(double[] values, boolean[] settled) {
+        int best = -1;
+        double bestValue = Double.POSITIVE_INFINITY;
+        for (int v = 0; v < values.length; v++) {
+            if (values[v] < bestValue && !settled[v]) {
+                bestValue = values[v];
+                best = v;
+            }
+        }
+        return best;
+    }
+
+    private static void relaxDistances(double[] weights, int row, int size, double distance, int node,
+                                       double[] distances, double[] parents) {
+        for (int v = 0; v < size; v++) {
+            double candidate = distance + weights[row + v];
+            if (candidate < distances[v]) {
+                distances[v] = candidate;
+                parents[v] = node;
+            }
+        }
+    }
+
+    private static void relaxKeys(double[] weights, int row, int size, int node, double[] keys, double[] parents) {
+        for (int v = 0; v < size; v++) {
+            if (weights[row + v] < keys[v]) {
+                keys[v] = weights[row + v];
+                parents[v] = node;
+            }
+        }
+    }
+
+    /**
+     * Returns the matrix entries if the matrix is symmetric, otherwise a symmetric copy holding
+     * the lighter direction of every edge.
+     */
+    private static double[] undirectedWeights(DistanceMatrix matrix) {
+        double[] weights = matrix.getWeights();
+        if (matrix.isSymmetric()) {
+            return weights;
+        }
+        int size = matrix.getSize();
+        double[] undirected = new double[weights.length];
+        for (int i = 0; i < size; i++) {
+            for (int j = i; j < size; j++) {
+                double weight = Math.min(weights[i * size + j], weights[j * size + i]);
+                undirected[i * size + j] = weight;
+                undirected[j * size + i] = weight;
+            }
+        }
+        return undirected;
+    }
+
+    private static int[] toIds(double[] parents) {
+        int[] ids = new int[parents.length];
+        for (int v = 0; v < parents.length; v++) {
+            ids[v] = (int) parents[v];
+        }
+        return ids;
+    }
+}
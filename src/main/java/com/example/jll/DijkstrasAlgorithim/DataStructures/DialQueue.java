@@ -0,0 +1,88 @@
+package com.example.jll.DijkstrasAlgorithim.DataStructures;
+
+import java.util.Arrays;
+
+/**
+ * Dial's bucket queue for integer edge weights between 0 and {@code maxWeight}.
+ * <p>
+ * While Dijkstra's algorithm runs, all queued keys lie between the last polled key and that key
+ * plus {@code maxWeight}, so {@code maxWeight + 1} buckets used as a ring suffice. Every bucket is
+ * a doubly linked list threaded through arrays indexed by node id, so both {@link #push} and the
+ * removal it implies for a decrease-key are constant time. {@link #poll()} scans forward to the
+ * next non-empty bucket, which costs at most {@code maxWeight} steps.
+ * </p>
+ *
+ * @author Ani Thyagarajan
+ */
+final class DialQueue implements IntegerQueue {
+
+    private final int[] head;
+    private final int[] next;
+    private final int[] previous;
+    private final long[] keys;
+    private final boolean[] queued;
+    private long current;
+    private int size;
+
+    /**
+     * @param capacity  The number of node ids.
+     * @param maxWeight The largest edge weight.
+     */
+    DialQueue(int capacity, int maxWeight) {
+        head = new int[maxWeight + 1];
+        Arrays.fill(head, -1);
+        next = new int[capacity];
+        previous = new int[capacity];
+        keys = new long[capacity];
+        queued = new boolean[capacity];
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void push(int node, long key) {
+        if (queued[node]) {
+            unlink(node);
+        } else {
+            queued[node] = true;
+            size++;
+        }
+        keys[node] = key;
+        int bucket = (int) (key % head.length);
+        previous[node] = -1;
+        next[node] = head[bucket];
+        if (head[bucket] != -1) {
+            previous[head[bucket]] = node;
+        }
+        head[bucket] = node;
+    }
+
+    @Override
+    public int poll() {
+        int bucket = (int) (current % head.length);
+        while (head[bucket] == -1) {
+            current++;
+            bucket = bucket + 1 == head.length ? 0 : bucket + 1;
+        }
+        int node = head[bucket];
+        unlink(node);
+        queued[node] = false;
+        size--;
+        return node;
+    }
+
+    private void unlink(int node) {
+        int bucket = (int) (keys[node] % head.length);
+        if (previous[node] != -1) {
+            next[previous[node]] = next[node];
+        } else {
+            head[bucket] = next[node];
+        }
+        if (next[node] != -1) {
+            previous[next[node]] = previous[node];
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package com.example.jll.DijkstrasAlgorithim.DataStructures;
 
+import com.example.jll.Instrumentation.Instrumentation;
+import com.example.jll.Instrumentation.Probe;
+
 import java.util.*;
 
 /**
@@ -14,6 +17,35 @@ import java.util.*;
  */
 public class Dijkstra {
 
+    /**
+     * The largest edge weight for which {@link QueueType#AUTOMATIC} picks Dial's buckets over
+     * the radix heap. Larger weights make the bucket ring too sparse to scan.
+     */
+    public static final int DIAL_WEIGHT_LIMIT = 1 << 16;
+
+    /**
+     * The priority queue used by the searches on a {@link GraphStore}.
+     */
+    public enum QueueType {
+        /**
+         * Dial's buckets for weights up to {@link #DIAL_WEIGHT_LIMIT}, a radix heap for larger
+         * integer weights and a binary heap otherwise.
+         */
+        AUTOMATIC,
+        /**
+         * An indexed binary heap, works for all non-negative weights.
+         */
+        BINARY_HEAP,
+        /**
+         * Dial's bucket queue, requires non-negative integer weights.
+         */
+        DIAL,
+        /**
+         * A radix heap, requires non-negative integer weights.
+         */
+        RADIX_HEAP
+    }
+
     /**
      * Computes the shortest paths from the given source node to all other nodes in the graph
      * using Dijkstra's algorithm.
@@ -26,9 +58,11 @@ public class Dijkstra {
      * @return A {@code Graph} object containing the shortest paths from the source node.
      */
     public static Graph calculateShortestPathFromSource(Node source) {
+        Probe probe = Instrumentation.start("dijkstra.nodes");
+        long relaxed = 0;
         source.setDistance(0.0);
 
-        Graph output = new Graph();
+        Graph output = new Graph(false);
 
         Set<Node> settledNodes = new HashSet<>(); // A set is a Java collection that does not have duplicate objects. Can also use a Java List.
         Set<Node> unsettledNodes = new HashSet<>();
@@ -38,6 +72,7 @@ public class Dijkstra {
         while (!unsettledNodes.isEmpty()) {
             Node currentNode = getLowestDistanceNode(unsettledNodes);
             unsettledNodes.remove(currentNode);
+            relaxed += currentNode.getAdjacentNodes().size();
             for (Map.Entry<Node, Double> adjacencyPair:
                     currentNode.getAdjacentNodes().entrySet()) {
                 Node adjacentNode = adjacencyPair.getKey();
@@ -50,15 +85,425 @@ public class Dijkstra {
             settledNodes.add(currentNode);
             output.addNode(currentNode);
         }
-        printOutput(settledNodes);
+        if (probe != null) {
+            probe.finish(settledNodes.size(), relaxed, 0, 0);
+        }
+        if (Instrumentation.isReporting()) {
+            printOutput(settledNodes);
+        }
 
         return output;
     }
 
+    /**
+     * Computes the shortest path between two nodes of a graph, stopping as soon as the target is settled.
+     * <p>
+     * The graph's {@link ReachabilityIndex} is consulted first, so a target that cannot be reached
+     * from the source is reported immediately instead of after exploring the source's whole component.
+     * The index is rebuilt after the edges change, and a target the search never settles also yields an
+     * empty path.
+     * </p>
+     *
+     * @param graph  The graph containing both nodes.
+     * @param source The node the path starts at.
+     * @param target The node the path ends at.
+     * @return The nodes of the shortest path from {@code source} to {@code target}, both included,
+     *         or an empty list if the target is not reachable.
+     */
+    public static List<Node> calculateShortestPath(Graph graph, Node source, Node target) {
+        if (!graph.getReachabilityIndex().isReachable(source, target)) {
+            return Collections.emptyList();
+        }
+        for (Node node : graph.getNodes()) {
+            node.setDistance(Double.MAX_VALUE);
+            node.setShortestPath(new LinkedList<>());
+        }
+        source.setDistance(0.0);
+        Probe probe = Instrumentation.start("dijkstra.path");
+        long relaxed = 0;
+
+        Set<Node> settledNodes = new HashSet<>();
+        Set<Node> unsettledNodes = new HashSet<>();
+        unsettledNodes.add(source);
+        boolean reached = false;
+
+        while (!unsettledNodes.isEmpty()) {
+            Node currentNode = getLowestDistanceNode(unsettledNodes);
+            if (currentNode == target) {
+                reached = true;
+                break;
+            }
+            unsettledNodes.remove(currentNode);
+            relaxed += currentNode.getAdjacentNodes().size();
+            for (Map.Entry<Node, Double> adjacencyPair:
+                    currentNode.getAdjacentNodes().entrySet()) {
+                Node adjacentNode = adjacencyPair.getKey();
+                if (!settledNodes.contains(adjacentNode)) {
+                    calculateMinimumDistance(adjacentNode, adjacencyPair.getValue(), currentNode);
+                    unsettledNodes.add(adjacentNode);
+                }
+            }
+            settledNodes.add(currentNode);
+        }
+        if (probe != null) {
+            probe.finish(settledNodes.size(), relaxed, 0, 0);
+        }
+        if (!reached) {
+            return Collections.emptyList();
+        }
+
+        List<Node> path = new ArrayList<>(target.getShortestPath());
+        path.add(target);
+        return path;
+    }
+
+    /**
+     * Computes the shortest paths from a source to all nodes of a {@link GraphStore}.
+     * <p>
+     * The search only works on node ids and primitive arrays, so it runs on both on-heap and
+     * off-heap graphs without creating an object per node or per edge.
+     * </p>
+     *
+     * @param graph  The graph to search.
+     * @param source The node id the paths start at.
+     * @return The distances and shortest path predecessors of all nodes.
+     */
+    public static ShortestPathTree calculateShortestPathTree(GraphStore graph, int source) {
+        return calculateShortestPathTree(graph, source, -1);
+    }
+
+    /**
+     * Computes the shortest paths from a source on a {@link GraphStore}, stopping as soon as the
+     * target is settled. Nodes that were not settled before the target may hold tentative distances.
+     *
+     * @param graph  The graph to search.
+     * @param source The node id the paths start at.
+     * @param target The node id to stop at, or {@code -1} to search the whole graph.
+     * @return The distances and shortest path predecessors found by the search.
+     */
+    public static ShortestPathTree calculateShortestPathTree(GraphStore graph, int source, int target) {
+        return calculateShortestPathTree(graph, source, target, QueueType.AUTOMATIC);
+    }
+
+    /**
+     * Computes the shortest paths from a source on a {@link GraphStore} with a chosen priority queue.
+     * <p>
+     * Most road graphs have integer weights, e.g. meters or seconds. For those, Dial's buckets and
+     * the radix heap exploit that Dijkstra's algorithm polls keys in increasing order and replace
+     * the comparisons of the binary heap by a few array operations. {@link QueueType#AUTOMATIC}
+     * checks the weights with {@link GraphStore#integerWeightBound()} and picks the fastest queue.
+     * </p>
+     *
+     * @param graph     The graph to search.
+     * @param source    The node id the paths start at.
+     * @param target    The node id to stop at, or {@code -1} to search the whole graph.
+     * @param queueType The priority queue to use.
+     * @return The distances and shortest path predecessors found by the search.
+     * @throws IllegalArgumentException if an integer queue is requested but the graph has weights
+     *                                  that are not non-negative integers.
+     */
+    public static ShortestPathTree calculateShortestPathTree(GraphStore graph, int source, int target, QueueType queueType) {
+        return calculateShortestPathTree(graph, source, target == -1 ? null : new int[]{target}, queueType);
+    }
+
+    /**
+     * Computes the shortest paths from a source to several targets with one search, stopping as
+     * soon as all targets are settled. Nodes that were not settled by then may hold tentative
+     * distances.
+     *
+     * @param graph     The graph to search.
+     * @param source    The node id the paths start at.
+     * @param targets   The node ids to stop at, or {@code null} to search the whole graph.
+     * @param queueType The priority queue to use.
+     * @return The distances and shortest path predecessors found by the search.
+     * @throws IllegalArgumentException if an integer queue is requested but the graph has weights
+     *                                  that are not non-negative integers.
+     */
+    public static ShortestPathTree calculateShortestPathTree(GraphStore graph, int source, int[] targets, QueueType queueType) {
+        int bound = queueType == QueueType.BINARY_HEAP ? -1 : graph.integerWeightBound();
+        if (bound < 0 && (queueType == QueueType.DIAL || queueType == QueueType.RADIX_HEAP)) {
+            throw new IllegalArgumentException(queueType + " requires non-negative integer edge weights");
+        }
+        if (queueType == QueueType.AUTOMATIC) {
+            queueType = bound < 0 ? QueueType.BINARY_HEAP : bound <= DIAL_WEIGHT_LIMIT ? QueueType.DIAL : QueueType.RADIX_HEAP;
+        }
+        Targets stop = targets == null ? null : new Targets(graph.nodeCount(), targets);
+        return switch (queueType) {
+            case DIAL -> integerSearch(graph, source, stop, new DialQueue(graph.nodeCount(), bound));
+            case RADIX_HEAP -> integerSearch(graph, source, stop, new RadixHeap(graph.nodeCount()));
+            default -> heapSearch(graph, source, stop);
+        };
+    }
+
+    /**
+     * Labels every node of a {@link GraphStore} with its nearest source and the distance to it,
+     * e.g. to assign every store to its closest depot.
+     * <p>
+     * All sources are seeded at distance zero and a single search runs from all of them at once,
+     * which partitions the graph into the Voronoi regions of the sources in
+     * {@code O((V + E) log V)}, instead of one search per source. Ties are broken towards the
+     * source listed first.
+     * </p>
+     *
+     * @param graph   The graph to search.
+     * @param sources The node ids of the sources.
+     * @return The nearest source, distance and predecessor of every node.
+     */
+    public static VoronoiPartition calculateNearestSources(GraphStore graph, int[] sources) {
+        return calculateNearestSources(null, graph, sources);
+    }
+
+    static VoronoiPartition calculateNearestSources(Graph owner, GraphStore graph, int[] sources) {
+        int size = graph.nodeCount();
+        double[] distances = new double[size];
+        int[] labels = new int[size];
+        int[] parents = new int[size];
+        boolean[] settled = new boolean[size];
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        Arrays.fill(labels, -1);
+        Arrays.fill(parents, -1);
+
+        Probe probe = Instrumentation.start("dijkstra.nearestSources");
+        long settledCount = 0;
+        long relaxed = 0;
+        long heapOperations = 0;
+
+        DistanceHeap heap = new DistanceHeap(size);
+        for (int index = 0; index < sources.length; index++) {
+            int source = sources[index];
+            if (labels[source] == -1) {
+                distances[source] = 0.0;
+                labels[source] = index;
+                heap.decreaseKey(source, 0.0);
+                heapOperations++;
+            }
+        }
+        while (!heap.isEmpty()) {
+            int current = heap.poll();
+            settled[current] = true;
+            settledCount++;
+            double distance = distances[current];
+            int label = labels[current];
+            int end = graph.firstEdge(current + 1);
+            relaxed += end - graph.firstEdge(current);
+            for (int e = graph.firstEdge(current); e < end; e++) {
+                int adjacent = graph.edgeTarget(e);
+                double candidate = distance + graph.edgeWeight(e);
+                if (candidate < distances[adjacent]) {
+                    distances[adjacent] = candidate;
+                    labels[adjacent] = label;
+                    parents[adjacent] = current;
+                    heap.decreaseKey(adjacent, candidate);
+                    heapOperations++;
+                } else if (candidate == distances[adjacent] && label < labels[adjacent] && !settled[adjacent]) {
+                    labels[adjacent] = label;
+                    parents[adjacent] = current;
+                }
+            }
+        }
+        if (probe != null) {
+            probe.finish(settledCount, relaxed, heapOperations + settledCount, 0);
+        }
+        return new VoronoiPartition(owner, sources.clone(), distances, labels, parents);
+    }
+
+    /**
+     * Finds every node reachable from a source within one or more distance or duration budgets,
+     * e.g. the service area of a depot within 10, 20 and 30 minutes.
+     * <p>
+     * All budgets are answered by one search that stops as soon as the next node to settle lies
+     * beyond the largest budget, so the work is proportional to the size of the largest isochrone
+     * rather than to the size of the graph.
+     * </p>
+     *
+     * @param graph   The graph to search.
+     * @param source  The node id the search starts at.
+     * @param budgets The largest distances to report, in the unit of the edge weights. An infinite
+     *                budget reports everything reachable.
+     * @return The reached nodes with their distances and bands.
+     * @throws IllegalArgumentException if no budget is given or a budget is negative or NaN.
+     */
+    public static Isochrone calculateIsochrone(GraphStore graph, int source, double... budgets) {
+        return calculateIsochrone(null, graph, source, budgets);
+    }
+
+    static Isochrone calculateIsochrone(Graph owner, GraphStore graph, int source, double... budgets) {
+        if (budgets.length == 0) {
+            throw new IllegalArgumentException("At least one budget is required");
+        }
+        // Checked before sorting, which would move a NaN behind every valid budget
+        for (double budget : budgets) {
+            if (!(budget >= 0.0)) {
+                throw new IllegalArgumentException("Budgets must not be negative or NaN, got " + budget);
+            }
+        }
+        double[] sorted = budgets.clone();
+        Arrays.sort(sorted);
+        double limit = sorted[sorted.length - 1];
+
+        int size = graph.nodeCount();
+        double[] distances = new double[size];
+        int[] parents = new int[size];
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        Arrays.fill(parents, -1);
+        int[] settled = new int[16];
+        int count = 0;
+        Probe probe = Instrumentation.start("dijkstra.isochrone");
+        long relaxed = 0;
+        long heapOperations = 1;
+
+        DistanceHeap heap = new DistanceHeap(size);
+        distances[source] = 0.0;
+        heap.decreaseKey(source, 0.0);
+        while (!heap.isEmpty()) {
+            int current = heap.poll();
+            if (count == settled.length) {
+                settled = Arrays.copyOf(settled, 2 * count);
+            }
+            settled[count++] = current;
+            double distance = distances[current];
+            int end = graph.firstEdge(current + 1);
+            relaxed += end - graph.firstEdge(current);
+            for (int e = graph.firstEdge(current); e < end; e++) {
+                int adjacent = graph.edgeTarget(e);
+                double candidate = distance + graph.edgeWeight(e);
+                // Labels beyond the largest budget can never be settled, keep them out of the heap
+                if (candidate < distances[adjacent] && candidate <= limit) {
+                    distances[adjacent] = candidate;
+                    parents[adjacent] = current;
+                    heap.decreaseKey(adjacent, candidate);
+                    heapOperations++;
+                }
+            }
+        }
+        if (probe != null) {
+            probe.finish(count, relaxed, heapOperations + count, 0);
+        }
+        return new Isochrone(owner, source, sorted, distances, parents, Arrays.copyOf(settled, count));
+    }
+
+    /**
+     * The targets of a search that have not been settled yet.
+     */
+    private static final class Targets {
+        private final boolean[] open;
+        private int remaining;
+
+        private Targets(int size, int[] targets) {
+            open = new boolean[size];
+            for (int target : targets) {
+                if (!open[target]) {
+                    open[target] = true;
+                    remaining++;
+                }
+            }
+        }
+
+        /**
+         * Marks a node as settled and returns whether every target is settled now.
+         */
+        private boolean settle(int node) {
+            if (open[node]) {
+                open[node] = false;
+                remaining--;
+            }
+            return remaining == 0;
+        }
+    }
+
+    private static ShortestPathTree heapSearch(GraphStore graph, int source, Targets targets) {
+        int size = graph.nodeCount();
+        double[] distances = new double[size];
+        int[] parents = new int[size];
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        Arrays.fill(parents, -1);
+
+        Probe probe = Instrumentation.start("dijkstra.tree");
+        long settled = 0;
+        long relaxed = 0;
+        long heapOperations = 1;
+
+        DistanceHeap heap = new DistanceHeap(size);
+        distances[source] = 0.0;
+        heap.decreaseKey(source, 0.0);
+        while (!heap.isEmpty()) {
+            int current = heap.poll();
+            settled++;
+            if (targets != null && targets.settle(current)) {
+                break;
+            }
+            double distance = distances[current];
+            int end = graph.firstEdge(current + 1);
+            relaxed += end - graph.firstEdge(current);
+            for (int e = graph.firstEdge(current); e < end; e++) {
+                int adjacent = graph.edgeTarget(e);
+                double candidate = distance + graph.edgeWeight(e);
+                if (candidate < distances[adjacent]) {
+                    distances[adjacent] = candidate;
+                    parents[adjacent] = current;
+                    heap.decreaseKey(adjacent, candidate);
+                    heapOperations++;
+                }
+            }
+        }
+        if (probe != null) {
+            probe.finish(settled, relaxed, heapOperations + settled, 0);
+        }
+        return new ShortestPathTree(source, distances, parents);
+    }
+
+    /**
+     * Dijkstra's algorithm with exact long distances on a graph with integer weights.
+     */
+    private static ShortestPathTree integerSearch(GraphStore graph, int source, Targets targets, IntegerQueue queue) {
+        int size = graph.nodeCount();
+        long[] distances = new long[size];
+        int[] parents = new int[size];
+        Arrays.fill(distances, Long.MAX_VALUE);
+        Arrays.fill(parents, -1);
+
+        Probe probe = Instrumentation.start("dijkstra.tree");
+        long settled = 0;
+        long relaxed = 0;
+        long queueOperations = 1;
+
+        distances[source] = 0;
+        queue.push(source, 0);
+        while (!queue.isEmpty()) {
+            int current = queue.poll();
+            settled++;
+            if (targets != null && targets.settle(current)) {
+                break;
+            }
+            long distance = distances[current];
+            int end = graph.firstEdge(current + 1);
+            relaxed += end - graph.firstEdge(current);
+            for (int e = graph.firstEdge(current); e < end; e++) {
+                int adjacent = graph.edgeTarget(e);
+                long candidate = distance + (long) graph.edgeWeight(e);
+                if (candidate < distances[adjacent]) {
+                    distances[adjacent] = candidate;
+                    parents[adjacent] = current;
+                    queue.push(adjacent, candidate);
+                    queueOperations++;
+                }
+            }
+        }
+        if (probe != null) {
+            probe.finish(settled, relaxed, queueOperations + settled, 0);
+        }
+
+        double[] result = new double[size];
+        for (int v = 0; v < size; v++) {
+            result[v] = distances[v] == Long.MAX_VALUE ? Double.POSITIVE_INFINITY : distances[v];
+        }
+        return new ShortestPathTree(source, result, parents);
+    }
+
     private static void printOutput(Set<Node> settled){
         List<Node> permanent = new ArrayList<>(settled.stream().sorted(Comparator.comparingDouble(Node::getDistance)).toList());
-        System.out.println("Node    |   Distance/Duration   |   Path    |   Dijkstra's Label    ");
-        System.out.println("____________________________________________________________________");
+        Instrumentation.report("Node    |   Distance/Duration   |   Path    |   Dijkstra's Label    ");
+        Instrumentation.report("____________________________________________________________________");
         for (Node i : permanent){
             List<String> shortestPath = i.getShortestPath().stream().map(Node::getName).toList();
 
@@ -69,7 +514,7 @@ public class Dijkstra {
                 dikstraNotation = "0[0]";
             }
 
-            System.out.println(i.getName() +  "     |     " +  i.getDistance() + "     |     " +  shortestPath + "     |     "
+            Instrumentation.report(i.getName() +  "     |     " +  i.getDistance() + "     |     " +  shortestPath + "     |     "
                     +  dikstraNotation);
         }
     }
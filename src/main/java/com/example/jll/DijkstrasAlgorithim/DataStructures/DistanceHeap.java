@@ -0,0 +1,118 @@
+package com.example.jll.DijkstrasAlgorithim.DataStructures;
+
+import java.util.Arrays;
+
+/**
+ * A binary min-heap of node ids keyed by tentative distance, with decrease-key. The position of
+ * every node in the heap is tracked in an array indexed by node id, so the heap allocates no
+ * objects while a search runs.
+ *
+ * @author Ani Thyagarajan
+ */
+final class DistanceHeap {
+
+    private final int[] heap;
+    private final double[] keys;
+    private final int[] position;
+    private int size;
+
+    /**
+     * @param capacity The number of node ids, ids range from 0 to {@code capacity - 1}.
+     */
+    DistanceHeap(int capacity) {
+        heap = new int[capacity];
+        keys = new double[capacity];
+        position = new int[capacity];
+        Arrays.fill(position, -1);
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Inserts a node or lowers its key. A key that is not lower than the current one is ignored.
+     */
+    void decreaseKey(int node, double key) {
+        int index = position[node];
+        if (index == -1) {
+            index = size++;
+            heap[index] = node;
+        } else if (key >= keys[node]) {
+            return;
+        }
+        keys[node] = key;
+        siftUp(index);
+    }
+
+    /**
+     * @return The key of the node that {@link #poll()} would return.
+     */
+    double peekKey() {
+        return keys[heap[0]];
+    }
+
+    /**
+     * Removes the node with the lowest key. Once drained the heap is back in its initial state,
+     * so it can be reused for another search without clearing the per-node arrays.
+     */
+    int poll() {
+        int top = heap[0];
+        position[top] = -1;
+        int last = heap[--size];
+        if (size > 0) {
+            heap[0] = last;
+            position[last] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    /**
+     * Removes all nodes, for searches that stop before the heap is drained.
+     */
+    void clear() {
+        for (int i = 0; i < size; i++) {
+            position[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    private void siftUp(int index) {
+        int node = heap[index];
+        double key = keys[node];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            int parentNode = heap[parent];
+            if (keys[parentNode] <= key) {
+                break;
+            }
+            heap[index] = parentNode;
+            position[parentNode] = index;
+            index = parent;
+        }
+        heap[index] = node;
+        position[node] = index;
+    }
+
+    private void siftDown(int index) {
+        int node = heap[index];
+        double key = keys[node];
+        int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            int right = child + 1;
+            if (right < size && keys[heap[right]] < keys[heap[child]]) {
+                child = right;
+            }
+            if (key <= keys[heap[child]]) {
+                break;
+            }
+            heap[index] = heap[child];
+            position[heap[index]] = index;
+            index = child;
+        }
+        heap[index] = node;
+        position[node] = index;
+    }
+}
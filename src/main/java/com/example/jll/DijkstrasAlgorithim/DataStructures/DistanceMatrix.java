@@ -0,0 +1,136 @@
+package com.example.jll.DijkstrasAlgorithim.DataStructures;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.*;
+
+/**
+ * A dense distance matrix over an ordered list of nodes, stored as a single flat
+ * row-major {@code double[]}.
+ * <p>
+ * The routing heuristics look up the distance between arbitrary pairs of nodes many millions
+ * of times, which is far cheaper on a primitive array than through the {@code HashMap}
+ * adjacency of each {@link Node}. Missing edges are stored as {@link Double#POSITIVE_INFINITY}
+ * and the diagonal is always zero.
+ * </p>
+ *
+ * @author Ani Thyagarajan
+ */
+@Getter
+public class DistanceMatrix {
+
+    /**
+     * The largest array length the common JVMs can allocate.
+     */
+    private static final int MAX_CELLS = Integer.MAX_VALUE - 8;
+
+    /**
+     * The nodes of the matrix; the position of a node in this list is its row and column index.
+     */
+    private final List<Node> nodes;
+
+    /**
+     * The number of rows (and columns) of the matrix.
+     */
+    private final int size;
+
+    /**
+     * The matrix entries in row-major order, entry {@code (i, j)} is at {@code i * size + j}.
+     * Only the dense solvers of this package read the array directly.
+     */
+    @Getter(AccessLevel.PACKAGE)
+    private final double[] weights;
+
+    /**
+     * Builds a matrix from the adjacency maps of the given nodes.
+     *
+     * @param nodes The nodes in row order.
+     * @throws IllegalArgumentException if the matrix would not fit in an array, see {@link #cellCount(int)}.
+     */
+    public DistanceMatrix(List<Node> nodes) {
+        this.nodes = List.copyOf(nodes);
+        this.size = nodes.size();
+        this.weights = new double[cellCount(size)];
+        Arrays.fill(weights, Double.POSITIVE_INFINITY);
+
+        Map<Node, Integer> index = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            index.put(this.nodes.get(i), i);
+        }
+
+        for (int i = 0; i < size; i++) {
+            int row = i * size;
+            for (Map.Entry<Node, Double> edge : this.nodes.get(i).getAdjacentNodes().entrySet()) {
+                Integer j = index.get(edge.getKey());
+                if (j != null) {
+                    weights[row + j] = edge.getValue();
+                }
+            }
+            weights[row + i] = 0.0;
+        }
+    }
+
+    /**
+     * Wraps an already computed row-major matrix. The array is used as is, not copied.
+     *
+     * @param nodes   The nodes in row order.
+     * @param weights The {@code nodes.size() * nodes.size()} matrix entries.
+     * @throws IllegalArgumentException if the array does not match the number of nodes.
+     */
+    public DistanceMatrix(List<Node> nodes, double[] weights) {
+        if (weights.length != cellCount(nodes.size())) {
+            throw new IllegalArgumentException("Matrix of length " + weights.length
+                    + " does not match " + nodes.size() + " nodes");
+        }
+        this.nodes = List.copyOf(nodes);
+        this.size = nodes.size();
+        this.weights = weights;
+    }
+
+    /**
+     * Returns the number of entries of a matrix over the given number of nodes. Every matrix fits in
+     * an array, so the row offsets {@code i * size} of its entries never overflow either.
+     *
+     * @param size The number of nodes.
+     * @return {@code size * size}.
+     * @throws IllegalArgumentException if the entries do not fit in a single array, i.e. above about
+     *                                  46340 nodes.
+     */
+    public static int cellCount(int size) {
+        long cells = (long) size * size;
+        if (cells > MAX_CELLS) {
+            throw new IllegalArgumentException("A matrix over " + size + " nodes has " + cells
+                    + " entries, more than an array can hold (" + MAX_CELLS + ")");
+        }
+        return (int) cells;
+    }
+
+    /**
+     * Returns the distance from row {@code i} to column {@code j}.
+     *
+     * @param i The index of the origin node.
+     * @param j The index of the destination node.
+     * @return The distance, or {@link Double#POSITIVE_INFINITY} if there is no edge.
+     */
+    public double get(int i, int j) {
+        return weights[i * size + j];
+    }
+
+    /**
+     * Checks whether the matrix is symmetric, i.e. whether every edge has the same weight
+     * in both directions.
+     *
+     * @return {@code true} if {@code get(i, j) == get(j, i)} for all pairs.
+     */
+    public boolean isSymmetric() {
+        for (int i = 0; i < size; i++) {
+            for (int j = i + 1; j < size; j++) {
+                if (weights[i * size + j] != weights[j * size + i]) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,364 @@
+package com.example.jll.DijkstrasAlgorithim.DataStructures;
+
+import java.util.*;
+
+/**
+ * A shortest path tree from a fixed source over a live {@link Graph} that is repaired
+ * incrementally when edge weights change, in the style of Ramalingam and Reps.
+ * <p>
+ * Changes are applied in batches through {@link #applyChanges(List)}, which updates the edges of
+ * the graph and then repairs the tree in two phases:
+ * </p>
+ * <ol>
+ *     <li>Increases and removals: only the subtrees hanging below a tree edge that got heavier can
+ *     get longer paths. Their nodes are detached, each is re-attached over its cheapest incoming
+ *     edge from the rest of the tree, and a Dijkstra search restricted to them settles the rest.</li>
+ *     <li>Decreases and new edges: every changed edge that now offers a shorter path seeds a
+ *     Dijkstra search that only follows improvements.</li>
+ * </ol>
+ * <p>
+ * The work is proportional to the nodes whose distance or parent changes and their edges, not to
+ * the size of the graph. To find the incoming edges of detached nodes, the tree keeps a reverse
+ * adjacency of the graph. All edge changes must therefore go through this class, and nodes must
+ * not be added to the graph while the tree is in use. Edge weights must be non-negative.
+ * </p>
+ *
+ * @author Ani Thyagarajan
+ */
+public class DynamicShortestPathTree {
+
+    /**
+     * A new weight for the edge between two nodes.
+     */
+    public static final class EdgeChange {
+        private final Node from;
+        private final Node to;
+        private final double weight;
+
+        /**
+         * @param from   The node the edge leaves.
+         * @param to     The node the edge enters.
+         * @param weight The new weight, {@code Double.POSITIVE_INFINITY} removes the edge. An edge
+         *               that does not exist yet is added.
+         * @throws IllegalArgumentException if a node is null or the weight is negative or NaN.
+         */
+        public EdgeChange(Node from, Node to, double weight) {
+            if (from == null || to == null) {
+                throw new IllegalArgumentException("An edge change needs both of its nodes");
+            }
+            if (!(weight >= 0.0)) {
+                throw new IllegalArgumentException("Edge weights must be non-negative, got " + weight);
+            }
+            this.from = from;
+            this.to = to;
+            this.weight = weight;
+        }
+
+        /**
+         * @param from The node the edge leaves.
+         * @param to   The node the edge enters.
+         * @return A change removing the edge.
+         */
+        public static EdgeChange removal(Node from, Node to) {
+            return new EdgeChange(from, to, Double.POSITIVE_INFINITY);
+        }
+
+        public Node getFrom() {
+            return from;
+        }
+
+        public Node getTo() {
+            return to;
+        }
+
+        public double getWeight() {
+            return weight;
+        }
+    }
+
+    private final Graph graph;
+    private final int source;
+    private final int size;
+    private final double[] distances;
+    private final int[] parents;
+
+    /**
+     * The ids of the nodes with an edge into each node.
+     */
+    private final int[][] incoming;
+    private final int[] incomingCount;
+
+    private final DistanceHeap heap;
+    private final boolean[] affected;
+    private int touched;
+
+    /**
+     * Computes the initial shortest path tree.
+     *
+     * @param graph  The live graph, its nodes must not change while the tree is used.
+     * @param source The node the paths start at.
+     * @throws IllegalArgumentException if the source is not part of the graph.
+     */
+    public DynamicShortestPathTree(Graph graph, Node source) {
+        this.graph = graph;
+        this.source = graph.getId(source);
+        this.size = graph.size();
+        this.distances = new double[size];
+        this.parents = new int[size];
+        this.incoming = new int[size][];
+        this.incomingCount = new int[size];
+        this.heap = new DistanceHeap(size);
+        this.affected = new boolean[size];
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        Arrays.fill(parents, -1);
+
+        for (int v = 0; v < size; v++) {
+            incoming[v] = new int[2];
+        }
+        for (int u = 0; u < size; u++) {
+            PrimitiveAdjacency adjacency = graph.getNode(u).getAdjacentNodes();
+            for (int i = 0; i < adjacency.size(); i++) {
+                int v = graph.findId(adjacency.getTarget(i));
+                if (v != -1) {
+                    addIncoming(v, u);
+                }
+            }
+        }
+
+        distances[this.source] = 0.0;
+        heap.decreaseKey(this.source, 0.0);
+        propagate();
+    }
+
+    /**
+     * Changes the weight of a single edge and repairs the tree.
+     *
+     * @param from   The node the edge leaves.
+     * @param to     The node the edge enters.
+     * @param weight The new weight, {@code Double.POSITIVE_INFINITY} removes the edge.
+     */
+    public void setEdgeWeight(Node from, Node to, double weight) {
+        applyChanges(List.of(new EdgeChange(from, to, weight)));
+    }
+
+    /**
+     * Applies a batch of edge changes to the graph and repairs the tree. The whole batch is checked
+     * before any edge changes, so a rejected batch leaves the graph and the tree untouched. The
+     * edges are updated through {@link Node#addDestination(Node, double)} and
+     * {@link Node#removeDestination(Node)}, which drop any {@link TravelTimeProfile} of a changed
+     * edge.
+     *
+     * @param changes The new edge weights.
+     * @throws IllegalArgumentException if a change is null or refers to a node outside the graph.
+     * @throws IllegalStateException    if nodes were added to the graph since the tree was built.
+     */
+    public void applyChanges(List<EdgeChange> changes) {
+        if (graph.size() != size) {
+            throw new IllegalStateException("Nodes were added to the graph after the shortest path tree was built");
+        }
+        int[] froms = new int[changes.size()];
+        int[] tos = new int[changes.size()];
+        for (int i = 0; i < changes.size(); i++) {
+            EdgeChange change = changes.get(i);
+            if (change == null) {
+                throw new IllegalArgumentException("The edge change at index " + i + " is null");
+            }
+            froms[i] = graph.getId(change.getFrom());
+            tos[i] = graph.getId(change.getTo());
+        }
+        touched = 0;
+
+        // Update the graph, remembering the detached subtrees of tree edges that got heavier
+        List<Integer> roots = new ArrayList<>();
+        for (int i = 0; i < changes.size(); i++) {
+            EdgeChange change = changes.get(i);
+            int u = froms[i];
+            int v = tos[i];
+            double old = change.getFrom().getAdjacentNodes().getWeight(change.getTo());
+            if (change.getWeight() == Double.POSITIVE_INFINITY) {
+                if (change.getFrom().removeDestination(change.getTo())) {
+                    removeIncoming(v, u);
+                }
+            } else {
+                if (Double.isNaN(old)) {
+                    addIncoming(v, u);
+                }
+                change.getFrom().addDestination(change.getTo(), change.getWeight());
+            }
+            if (!Double.isNaN(old) && change.getWeight() > old && parents[v] == u) {
+                roots.add(v);
+            }
+        }
+
+        repairIncreases(roots);
+
+        // Every changed edge that now shortens a path seeds the second search
+        for (int i = 0; i < changes.size(); i++) {
+            EdgeChange change = changes.get(i);
+            int u = froms[i];
+            int v = tos[i];
+            double weight = change.getFrom().getAdjacentNodes().getWeight(change.getTo());
+            if (!Double.isNaN(weight) && distances[u] + weight < distances[v]) {
+                distances[v] = distances[u] + weight;
+                parents[v] = u;
+                heap.decreaseKey(v, distances[v]);
+            }
+        }
+        propagate();
+    }
+
+    /**
+     * Detaches the subtrees below the given roots and settles their nodes again.
+     */
+    private void repairIncreases(List<Integer> roots) {
+        if (roots.isEmpty()) {
+            return;
+        }
+        int[] stack = new int[16];
+        int top = 0;
+        List<Integer> detached = new ArrayList<>();
+        for (int root : roots) {
+            if (!affected[root]) {
+                affected[root] = true;
+                stack = push(stack, top++, root);
+            }
+        }
+        while (top > 0) {
+            int v = stack[--top];
+            detached.add(v);
+            PrimitiveAdjacency adjacency = graph.getNode(v).getAdjacentNodes();
+            for (int i = 0; i < adjacency.size(); i++) {
+                int w = graph.findId(adjacency.getTarget(i));
+                if (w != -1 && parents[w] == v && !affected[w]) {
+                    affected[w] = true;
+                    stack = push(stack, top++, w);
+                }
+            }
+        }
+        touched += detached.size();
+
+        for (int v : detached) {
+            distances[v] = Double.POSITIVE_INFINITY;
+            parents[v] = -1;
+        }
+        // Re-attach every detached node over its cheapest edge from the intact part of the tree
+        for (int v : detached) {
+            Node node = graph.getNode(v);
+            for (int i = 0; i < incomingCount[v]; i++) {
+                int x = incoming[v][i];
+                if (!affected[x] && distances[x] != Double.POSITIVE_INFINITY) {
+                    double candidate = distances[x] + graph.getNode(x).getAdjacentNodes().getWeight(node);
+                    if (candidate < distances[v]) {
+                        distances[v] = candidate;
+                        parents[v] = x;
+                    }
+                }
+            }
+            if (distances[v] != Double.POSITIVE_INFINITY) {
+                heap.decreaseKey(v, distances[v]);
+            }
+        }
+        for (int v : detached) {
+            affected[v] = false;
+        }
+        propagate();
+    }
+
+    /**
+     * Runs Dijkstra's algorithm from the nodes in the heap, following only improvements.
+     */
+    private void propagate() {
+        while (!heap.isEmpty()) {
+            int current = heap.poll();
+            touched++;
+            double distance = distances[current];
+            PrimitiveAdjacency adjacency = graph.getNode(current).getAdjacentNodes();
+            for (int i = 0; i < adjacency.size(); i++) {
+                int adjacent = graph.findId(adjacency.getTarget(i));
+                if (adjacent == -1) {
+                    continue;
+                }
+                double candidate = distance + adjacency.getWeight(i);
+                if (candidate < distances[adjacent]) {
+                    distances[adjacent] = candidate;
+                    parents[adjacent] = current;
+                    heap.decreaseKey(adjacent, candidate);
+                }
+            }
+        }
+    }
+
+    private void addIncoming(int node, int from) {
+        if (incomingCount[node] == incoming[node].length) {
+            incoming[node] = Arrays.copyOf(incoming[node], incomingCount[node] * 2);
+        }
+        incoming[node][incomingCount[node]++] = from;
+    }
+
+    private void removeIncoming(int node, int from) {
+        int[] list = incoming[node];
+        for (int i = 0; i < incomingCount[node]; i++) {
+            if (list[i] == from) {
+                list[i] = list[--incomingCount[node]];
+                return;
+            }
+        }
+    }
+
+    private static int[] push(int[] stack, int top, int value) {
+        if (top == stack.length) {
+            stack = Arrays.copyOf(stack, top * 2);
+        }
+        stack[top] = value;
+        return stack;
+    }
+
+    /**
+     * @param node A node of the graph.
+     * @return The shortest distance from the source, or {@code Double.POSITIVE_INFINITY} if unreachable.
+     */
+    public double getDistance(Node node) {
+        return distances[graph.getId(node)];
+    }
+
+    /**
+     * @param node A node of the graph.
+     * @return The predecessor of the node on its shortest path, or {@code null} for the source and
+     *         unreachable nodes.
+     */
+    public Node getParent(Node node) {
+        int parent = parents[graph.getId(node)];
+        return parent == -1 ? null : graph.getNode(parent);
+    }
+
+    /**
+     * @param target A node of the graph.
+     * @return The nodes of the shortest path from the source to the target, both included, or an
+     *         empty list if the target is unreachable.
+     */
+    public List<Node> getPath(Node target) {
+        int v = graph.getId(target);
+        if (distances[v] == Double.POSITIVE_INFINITY) {
+            return Collections.emptyList();
+        }
+        LinkedList<Node> path = new LinkedList<>();
+        for (; v != -1; v = parents[v]) {
+            path.addFirst(graph.getNode(v));
+        }
+        return path;
+    }
+
+    /**
+     * @return A copy of the current tree indexed by node id.
+     */
+    public ShortestPathTree toShortestPathTree() {
+        return new ShortestPathTree(source, distances.clone(), parents.clone());
+    }
+
+    /**
+     * @return The number of nodes detached or settled by the last repair, a measure of its cost.
+     */
+    public int getTouchedNodeCount() {
+        return touched;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.jll.DijkstrasAlgorithim.DataStructures;
+
+/**
+ * Great-circle distance helpers for nodes that carry latitude and longitude in degrees.
+ * All distances are returned in meters on a spherical earth.
+ *
+ * @author Ani Thyagarajan
+ */
+public final class GeoDistance {
+
+    /**
+     * The mean earth radius in meters.
+     */
+    public static final double EARTH_RADIUS = 6_371_008.8;
+
+    private GeoDistance() {
+    }
+
+    /**
+     * Computes the haversine distance between two coordinates given in degrees.
+     *
+     * @return The great-circle distance in meters.
+     */
+    public static double haversine(double latitude1, double longitude1, double latitude2, double longitude2) {
+        return haversineRadians(Math.toRadians(latitude1), Math.toRadians(longitude1),
+                Math.toRadians(latitude2), Math.toRadians(longitude2));
+    }
+
+    /**
+     * Computes the haversine distance between two coordinates already converted to radians,
+     * which avoids the conversion in tight loops.
+     *
+     * @return The great-circle distance in meters.
+     */
+    public static double haversineRadians(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double sinLatitude = Math.sin((latitude2 - latitude1) * 0.5);
+        double sinLongitude = Math.sin((longitude2 - longitude1) * 0.5);
+        double a = sinLatitude * sinLatitude
+                + Math.cos(latitude1) * Math.cos(latitude2) * sinLongitude * sinLongitude;
+        return 2.0 * EARTH_RADIUS * Math.asin(Math.sqrt(Math.min(1.0, a)));
+    }
+
+    /**
+     * Computes the haversine distance between two nodes.
+     *
+     * @return The great-circle distance in meters.
+     */
+    public static double haversine(Node from, Node to) {
+        return haversine(from.getLatitude(), from.getLongitude(), to.getLatitude(), to.getLongitude());
+    }
+}
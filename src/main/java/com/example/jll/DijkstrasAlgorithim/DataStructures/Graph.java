@@ -2,29 +2,379 @@ package com.example.jll.DijkstrasAlgorithim.DataStructures;
 
 //import com.example.jll.DijkstrasAlgorithim.visualization.ForceDiagram;
 import com.example.jll.DijkstrasAlgorithim.Visualization.ForceDiagram;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Represents a Graph which is a collection of nodes. Uses Lombok annotations for code cleanliness
+ * <p>
+ * Every node is given a stable integer id in the order it was added, and the graph keeps a symbol
+ * table from node name to id so nodes can be looked up by name in constant time. Node names must
+ * therefore be unique within a graph and must not change once the node has been added.
+ * </p>
  */
 @Setter @Getter
 public class Graph {
 
     private Set<Node> nodes;
 
+    /**
+     * The nodes in id order.
+     */
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    private final List<Node> nodesById = new ArrayList<>();
+
+    /**
+     * The symbol table from node name to node id.
+     */
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    private final Map<String, Integer> idsByName = new HashMap<>();
+
+    /**
+     * The id of every node, used to index per-node arrays in the solvers.
+     */
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    private final Map<Node, Integer> ids = new HashMap<>();
+
+    /**
+     * The strongly connected components of the graph, built on first use.
+     */
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    private ReachabilityIndex reachabilityIndex;
+
+    /**
+     * The version of the graph the reachability index was built on.
+     */
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    private long reachabilityVersion;
+
+    /**
+     * The CSR copy of the graph used by the primitive searches, with the version it was built on.
+     */
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    private volatile Snapshot snapshot;
+
+    /**
+     * The k-d tree over the node coordinates, built on first use.
+     */
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    private SpatialIndex spatialIndex;
+
+    /**
+     * The number of times nodes were added or replaced, see {@link #getVersion()}.
+     */
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    private long structureVersion;
+
+    /**
+     * The number of edge changes made to the nodes of this graph, see {@link #getVersion()}.
+     */
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    private PrimitiveAdjacency.ModificationCounter edgeVersion = new PrimitiveAdjacency.ModificationCounter();
+
+    /**
+     * Whether {@link #edgeVersion} is registered with the adjacencies of the nodes. Graphs whose
+     * version is never asked for, like the result of
+     * {@link Dijkstra#calculateShortestPathFromSource(Node)}, never register.
+     */
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    private volatile boolean edgesTracked;
+
+    /**
+     * Whether a second node with a known name is rejected. Result graphs accept it, see
+     * {@link #Graph(boolean)}.
+     */
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    private final boolean uniqueNames;
+
+    /**
+     * Adds a node to the graph and assigns it the next free id. Adding a node that is already
+     * part of the graph has no effect.
+     *
+     * @param nodeA the node to add
+     * @throws IllegalArgumentException if a different node with the same name is already part of the graph
+     */
     public void addNode(Node nodeA) {
+        if (ids.containsKey(nodeA)) {
+            return;
+        }
+        boolean known = idsByName.containsKey(nodeA.getName());
+        if (known && uniqueNames) {
+            throw new IllegalArgumentException("Duplicate node name " + nodeA.getName()
+                    + ", node names must be unique within a graph");
+        }
+        int id = nodesById.size();
+        nodesById.add(nodeA);
+        if (!known) {
+            idsByName.put(nodeA.getName(), id);
+        }
+        ids.put(nodeA, id);
         nodes.add(nodeA);
+        if (edgesTracked) {
+            nodeA.adjacentNodes.addOwner(edgeVersion);
+        }
+        spatialIndex = null;
+        structureVersion++;
+    }
+
+    /**
+     * Replaces all nodes of the graph. Ids are reassigned in the iteration order of the given set.
+     *
+     * @param nodes the new nodes of the graph
+     * @throws IllegalArgumentException if two nodes share a name
+     */
+    public void setNodes(Set<Node> nodes) {
+        this.nodes = new LinkedHashSet<>();
+        nodesById.clear();
+        idsByName.clear();
+        ids.clear();
+        spatialIndex = null;
+        // A fresh counter lets the replaced nodes drop the old one, folding its count in keeps
+        // the version growing
+        structureVersion += edgeVersion.get() + 1;
+        edgeVersion = new PrimitiveAdjacency.ModificationCounter();
+        edgesTracked = false;
+        nodes.forEach(this::addNode);
+    }
+
+    /**
+     * Returns the nodes of the graph in id order. The set cannot be modified, use
+     * {@link #addNode(Node)} so that the node is indexed.
+     *
+     * @return a read-only view of the nodes
+     */
+    public Set<Node> getNodes() {
+        return Collections.unmodifiableSet(nodes);
+    }
+
+    /**
+     * Looks up a node by its name.
+     *
+     * @param name the name of the node
+     * @return the node with that name
+     * @throws IllegalArgumentException if no node has that name
+     */
+    public Node getNode(String name) {
+        return nodesById.get(getId(name));
+    }
+
+    /**
+     * Looks up a node by its id.
+     *
+     * @param id the id of the node, between 0 and {@code size() - 1}
+     * @return the node with that id
+     */
+    public Node getNode(int id) {
+        return nodesById.get(id);
+    }
+
+    /**
+     * Checks whether a node with the given name is part of the graph.
+     *
+     * @param name the name of the node
+     * @return {@code true} if the name is known
+     */
+    public boolean containsNode(String name) {
+        return idsByName.containsKey(name);
+    }
+
+    /**
+     * Returns the id of the node with the given name.
+     *
+     * @param name the name of the node
+     * @return the id of the node
+     * @throws IllegalArgumentException if no node has that name
+     */
+    public int getId(String name) {
+        Integer id = idsByName.get(name);
+        if (id == null) {
+            throw new IllegalArgumentException("The node " + name + " is not part of the graph");
+        }
+        return id;
+    }
+
+    /**
+     * Returns the id of a node.
+     *
+     * @param node a node of the graph
+     * @return the id of the node
+     * @throws IllegalArgumentException if the node is not part of the graph
+     */
+    public int getId(Node node) {
+        Integer id = ids.get(node);
+        if (id == null) {
+            throw new IllegalArgumentException("The node " + node.getName() + " is not part of the graph");
+        }
+        return id;
+    }
+
+    /**
+     * Returns the id of a node, or -1 for nodes outside the graph, e.g. edge targets that were
+     * never added. Lets the solvers skip such edges with a single lookup.
+     */
+    int findId(Node node) {
+        Integer id = ids.get(node);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Returns the number of nodes, which is also one more than the highest id.
+     *
+     * @return the number of nodes
+     */
+    public int size() {
+        return nodesById.size();
+    }
+
+    /**
+     * Returns a number that grows whenever the graph may have changed: when nodes are added or
+     * replaced, or when an edge of one of its nodes is added, removed or reweighted through
+     * {@link Node} or {@link PrimitiveAdjacency}.
+     * <p>
+     * Edge changes are only counted from the first call on, which registers the graph with the
+     * adjacencies of its nodes. Nothing can hold an older version at that point, so no change is
+     * missed, and graphs that are never asked for their version cost the nodes nothing.
+     * </p>
+     *
+     * @return the current version of the graph
+     */
+    public long getVersion() {
+        if (!edgesTracked) {
+            trackEdges();
+        }
+        return structureVersion + edgeVersion.get();
+    }
+
+    private synchronized void trackEdges() {
+        if (!edgesTracked) {
+            for (Node node : nodesById) {
+                node.adjacentNodes.addOwner(edgeVersion);
+            }
+            edgesTracked = true;
+        }
+    }
+
+    /**
+     * Returns the reachability index of this graph, computing it on the first call.
+     * <p>
+     * The index is rebuilt on the next call after any change that moves {@link #getVersion()},
+     * i.e. after nodes are added or any edge is added, removed or reweighted.
+     * </p>
+     *
+     * @return the strongly connected components of the graph
+     */
+    public ReachabilityIndex getReachabilityIndex() {
+        long version = getVersion();
+        if (reachabilityIndex == null || reachabilityVersion != version) {
+            reachabilityIndex = new ReachabilityIndex(this);
+            reachabilityVersion = version;
+        }
+        return reachabilityIndex;
+    }
+
+    /**
+     * Returns a {@link CompactGraph} copy of this graph for the searches on {@link GraphStore}s,
+     * building it on the first call and again only after a change that moves {@link #getVersion()}.
+     * Repeated queries on an unchanged graph therefore share one copy instead of paying
+     * {@code O(V + E)} each.
+     *
+     * @return the CSR snapshot of the current nodes and edges, do not modify
+     */
+    public CompactGraph getCompactGraph() {
+        long version = getVersion();
+        Snapshot current = snapshot;
+        if (current == null || current.version != version) {
+            current = new Snapshot(CompactGraph.of(this), version);
+            snapshot = current;
+        }
+        return current.graph;
+    }
+
+    /**
+     * Returns the spatial index over the coordinates of the nodes, computing it on the first call.
+     * Positions in the index are node ids.
+     * <p>
+     * The index is rebuilt after nodes are added, but not when existing nodes move.
+     * </p>
+     *
+     * @return the k-d tree for nearest node and radius queries
+     */
+    public SpatialIndex getSpatialIndex() {
+        if (spatialIndex == null) {
+            spatialIndex = new SpatialIndex(nodesById);
+        }
+        return spatialIndex;
+    }
+
+    /**
+     * Assigns every node of the graph to its nearest source, e.g. every store to its closest depot,
+     * with a single multi-source search. See {@link Dijkstra#calculateNearestSources(GraphStore, int[])}.
+     *
+     * @param sources the nodes to partition the graph around
+     * @return the nearest source and the distance to it for every node
+     * @throws IllegalArgumentException if a source is not part of the graph
+     */
+    public VoronoiPartition partitionByNearestSource(List<Node> sources) {
+        int[] ids = new int[sources.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = getId(sources.get(i));
+        }
+        return Dijkstra.calculateNearestSources(this, getCompactGraph(), ids);
+    }
+
+    /**
+     * Finds every node reachable from a source within one or more budgets with a single bounded
+     * search. See {@link Dijkstra#calculateIsochrone(GraphStore, int, double...)}.
+     *
+     * @param source  the node the search starts at
+     * @param budgets the largest distances to report, in the unit of the edge weights
+     * @return the reached nodes with their distances and bands
+     * @throws IllegalArgumentException if the source is not part of the graph, no budget is given
+     *                                  or a budget is negative or NaN
+     */
+    public Isochrone calculateIsochrone(Node source, double... budgets) {
+        return Dijkstra.calculateIsochrone(this, getCompactGraph(), getId(source), budgets);
+    }
+
+    /**
+     * Computes up to k shortest loopless paths between two nodes, e.g. to offer a dispatcher
+     * alternatives to the best route. See {@link KShortestPaths}.
+     *
+     * @param source the node the paths start at
+     * @param target the node the paths end at
+     * @param k      the number of paths wanted
+     * @return the paths in order of length, fewer than k if there are no more
+     * @throws IllegalArgumentException if a node is not part of the graph or k is not positive
+     */
+    public List<KShortestPaths.Path> findKShortestPaths(Node source, Node target, int k) {
+        return KShortestPaths.find(this, getCompactGraph(), getId(source), getId(target), k,
+                ForkJoinPool.commonPool());
     }
 
     public Graph(Collection<Node> nodes) {
-        this.nodes = new HashSet<>(nodes);
+        this.nodes = new LinkedHashSet<>();
+        this.uniqueNames = true;
+        nodes.forEach(this::addNode);
+    }
+
+    /**
+     * Creates an empty graph for search results, which collect nodes that were never checked for
+     * unique names. With {@code uniqueNames} off a node whose name is already taken is still
+     * added, and looking the name up finds the first node with it.
+     *
+     * @param uniqueNames whether a duplicate name is rejected
+     */
+    Graph(boolean uniqueNames) {
+        this.nodes = new LinkedHashSet<>();
+        this.uniqueNames = uniqueNames;
     }
 
     public Graph(Node... nodes) {
-        this.nodes = new HashSet<>(Arrays.asList(nodes));
+        this(Arrays.asList(nodes));
     }
 
 
@@ -57,4 +407,18 @@ public class Graph {
     public void visualizeOutput(String title, String sourceNodeName){
         ForceDiagram diagram = new ForceDiagram(this, title, sourceNodeName);
     }
+
+    /**
+     * A CSR copy together with the version of the graph it was built from, published as one
+     * object so that concurrent readers never pair a copy with the wrong version.
+     */
+    private static final class Snapshot {
+        private final CompactGraph graph;
+        private final long version;
+
+        private Snapshot(CompactGraph graph, long version) {
+            this.graph = graph;
+            this.version = version;
+        }
+    }
 }
\ No newline at end of file
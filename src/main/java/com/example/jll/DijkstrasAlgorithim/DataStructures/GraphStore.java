@@ -0,0 +1,79 @@
+package com.example.jll.DijkstrasAlgorithim.DataStructures;
+
+/**
+ * A read-only view of a weighted, directed graph in compressed sparse row (CSR) form, addressed by
+ * integer node ids instead of {@link Node} objects.
+ * <p>
+ * The outgoing edges of node {@code v} are the edge ids {@code firstEdge(v)} up to, but excluding,
+ * {@code firstEdge(v + 1)}. Node ids match the ids of the {@link Graph} the store was built from.
+ * The primitive solvers only read the graph through this interface, so they run unchanged on the
+ * on-heap {@link CompactGraph} and on the off-heap {@link OffHeapGraph}.
+ * </p>
+ *
+ * @author Ani Thyagarajan
+ */
+public interface GraphStore {
+
+    /**
+     * @return The number of nodes, node ids range from 0 to {@code nodeCount() - 1}.
+     */
+    int nodeCount();
+
+    /**
+     * @return The number of edges, edge ids range from 0 to {@code edgeCount() - 1}.
+     */
+    int edgeCount();
+
+    /**
+     * Returns the id of the first outgoing edge of a node. {@code firstEdge(nodeCount())} equals
+     * {@code edgeCount()}.
+     *
+     * @param node A node id between 0 and {@code nodeCount()}, inclusive.
+     * @return The id of the node's first outgoing edge.
+     */
+    int firstEdge(int node);
+
+    /**
+     * @param edge An edge id.
+     * @return The id of the node the edge points to.
+     */
+    int edgeTarget(int edge);
+
+    /**
+     * @param edge An edge id.
+     * @return The weight of the edge.
+     */
+    double edgeWeight(int edge);
+
+    /**
+     * @param node A node id.
+     * @return The latitude of the node in degrees.
+     */
+    double latitude(int node);
+
+    /**
+     * @param node A node id.
+     * @return The longitude of the node in degrees.
+     */
+    double longitude(int node);
+
+    /**
+     * Checks whether all edge weights are non-negative integers, which allows the shortest path
+     * search to use an integer bucket queue instead of a comparison heap. The default implementation
+     * scans all edges on every call, implementations that are immutable should cache the result.
+     *
+     * @return The largest edge weight if all weights are integers between 0 and
+     *         {@code Integer.MAX_VALUE}, otherwise {@code -1}.
+     */
+    default int integerWeightBound() {
+        int bound = 0;
+        for (int e = 0; e < edgeCount(); e++) {
+            double weight = edgeWeight(e);
+            if (!(weight >= 0.0 && weight <= Integer.MAX_VALUE) || weight != Math.rint(weight)) {
+                return -1;
+            }
+            bound = Math.max(bound, (int) weight);
+        }
+        return bound;
+    }
+}
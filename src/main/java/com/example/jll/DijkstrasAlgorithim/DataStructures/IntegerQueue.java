@@ -0,0 +1,28 @@
+package com.example.jll.DijkstrasAlgorithim.DataStructures;
+
+/**
+ * A monotone priority queue of node ids with integer keys. Keys pushed after a {@link #poll()}
+ * are never smaller than the key of the polled node, which is what Dijkstra's algorithm
+ * guarantees for non-negative edge weights and what lets the queue avoid comparisons.
+ *
+ * @author Ani Thyagarajan
+ */
+interface IntegerQueue {
+
+    boolean isEmpty();
+
+    /**
+     * Inserts a node, or lowers the key of a node that is already queued.
+     *
+     * @param node A node id that has not been polled yet.
+     * @param key  The new key, lower than the node's current key.
+     */
+    void push(int node, long key);
+
+    /**
+     * Removes a node with the lowest key.
+     *
+     * @return The node id.
+     */
+    int poll();
+}
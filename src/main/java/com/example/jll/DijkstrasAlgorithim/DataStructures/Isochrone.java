@@ -0,0 +1,189 @@
+package com.example.jll.DijkstrasAlgorithim.DataStructures;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The result of a bounded search: every node reachable from a source within one or more budgets,
+ * e.g. the stops a vehicle reaches within 10, 20 and 30 minutes of its depot.
+ * <p>
+ * The budgets are sorted in increasing order and every reached node belongs to the band of the
+ * smallest budget it is within. Since the search settles nodes in order of distance, the nodes
+ * within a budget are a prefix of the settled nodes and every band costs nothing extra. When the
+ * isochrone was computed through {@link Graph#calculateIsochrone(Node, double...)}, the results
+ * can also be queried by {@link Node} and outlined by the convex hull of their coordinates.
+ * </p>
+ *
+ * @author Ani Thyagarajan
+ */
+public class Isochrone {
+
+    private final Graph graph;
+    private final int source;
+    private final double[] budgets;
+    private final double[] distances;
+    private final int[] parents;
+    private final int[] settled;
+    private final int[] counts;
+
+    Isochrone(Graph graph, int source, double[] budgets, double[] distances, int[] parents, int[] settled) {
+        this.graph = graph;
+        this.source = source;
+        this.budgets = budgets;
+        this.distances = distances;
+        this.parents = parents;
+        this.settled = settled;
+        this.counts = new int[budgets.length];
+        int count = 0;
+        for (int band = 0; band < budgets.length; band++) {
+            while (count < settled.length && distances[settled[count]] <= budgets[band]) {
+                count++;
+            }
+            counts[band] = count;
+        }
+    }
+
+    /**
+     * @return The node id the search started at.
+     */
+    public int getSource() {
+        return source;
+    }
+
+    /**
+     * @return The number of budgets.
+     */
+    public int getBudgetCount() {
+        return budgets.length;
+    }
+
+    /**
+     * @param band The position of a budget in increasing order.
+     * @return The budget.
+     */
+    public double getBudget(int band) {
+        return budgets[band];
+    }
+
+    /**
+     * @return The number of nodes within the largest budget.
+     */
+    public int size() {
+        return settled.length;
+    }
+
+    /**
+     * @param node A node id.
+     * @return The position of the smallest budget the node is within, or {@code -1} if it is beyond all budgets.
+     */
+    public int getBand(int node) {
+        double distance = getDistance(node);
+        for (int band = 0; band < budgets.length; band++) {
+            if (distance <= budgets[band]) {
+                return band;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param node A node id.
+     * @return The distance from the source, or {@code Double.POSITIVE_INFINITY} if it is beyond all budgets.
+     */
+    public double getDistance(int node) {
+        return distances[node] <= budgets[budgets.length - 1] ? distances[node] : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * @param node A node id.
+     * @return The predecessor of the node on its shortest path, or {@code -1} for the source and
+     * nodes beyond all budgets.
+     */
+    public int getParent(int node) {
+        return getDistance(node) == Double.POSITIVE_INFINITY ? -1 : parents[node];
+    }
+
+    /**
+     * @param band The position of a budget in increasing order.
+     * @return The node ids within that budget, including the source, in order of distance.
+     */
+    public int[] getReachable(int band) {
+        return Arrays.copyOf(settled, counts[band]);
+    }
+
+    /**
+     * @param node A node of the graph.
+     * @return The distance from the source, or {@code Double.POSITIVE_INFINITY} if it is beyond all budgets.
+     * @throws IllegalStateException if the isochrone was not computed on a {@link Graph}.
+     */
+    public double getDistance(Node node) {
+        return getDistance(requireGraph().getId(node));
+    }
+
+    /**
+     * @param band The position of a budget in increasing order.
+     * @return The nodes within that budget, including the source, in order of distance.
+     * @throws IllegalStateException if the isochrone was not computed on a {@link Graph}.
+     */
+    public List<Node> getReachableNodes(int band) {
+        requireGraph();
+        List<Node> nodes = new ArrayList<>(counts[band]);
+        for (int i = 0; i < counts[band]; i++) {
+            nodes.add(graph.getNode(settled[i]));
+        }
+        return nodes;
+    }
+
+    /**
+     * Outlines the area reachable within a budget by the convex hull of the coordinates of the
+     * nodes within it, with Andrew's monotone chain in {@code O(k log k)}. Longitude and latitude
+     * are treated as plane coordinates, which is fine away from the date line.
+     *
+     * @param band The position of a budget in increasing order.
+     * @return The corners of the hull counterclockwise, starting at the westernmost node, or all
+     * nodes if there are fewer than three.
+     * @throws IllegalStateException if the isochrone was not computed on a {@link Graph}.
+     */
+    public List<Node> getHull(int band) {
+        List<Node> nodes = getReachableNodes(band);
+        nodes.sort(Comparator.comparingDouble(Node::getLongitude).thenComparingDouble(Node::getLatitude));
+        if (nodes.size() < 3) {
+            return nodes;
+        }
+        Node[] hull = new Node[2 * nodes.size()];
+        int size = 0;
+        // Lower chain from west to east, then upper chain back
+        for (Node node : nodes) {
+            while (size >= 2 && cross(hull[size - 2], hull[size - 1], node) <= 0) {
+                size--;
+            }
+            hull[size++] = node;
+        }
+        for (int i = nodes.size() - 2, lower = size + 1; i >= 0; i--) {
+            Node node = nodes.get(i);
+            while (size >= lower && cross(hull[size - 2], hull[size - 1], node) <= 0) {
+                size--;
+            }
+            hull[size++] = node;
+        }
+        // The last corner is the first one again
+        return new ArrayList<>(Arrays.asList(hull).subList(0, Math.max(1, size - 1)));
+    }
+
+    /**
+     * @return Twice the signed area of the triangle, positive if the corners turn counterclockwise.
+     */
+    private static double cross(Node a, Node b, Node c) {
+        return (b.getLongitude() - a.getLongitude()) * (c.getLatitude() - a.getLatitude())
+                - (b.getLatitude() - a.getLatitude()) * (c.getLongitude() - a.getLongitude());
+    }
+
+    private Graph requireGraph() {
+        if (graph == null) {
+            throw new IllegalStateException("The isochrone was computed on node ids, not on a Graph");
+        }
+        return graph;
+    }
+}
@@ -0,0 +1,356 @@
+package com.example.jll.DijkstrasAlgorithim.DataStructures;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * The k shortest loopless paths between two nodes with Yen's algorithm, e.g. to offer a
+ * dispatcher alternatives to the best route.
+ * <p>
+ * Every accepted path is split at each of its nodes into a root path, which is kept, and a spur
+ * path, which is searched again from the split node with the root path's nodes and the next edges
+ * of all accepted paths sharing the root blocked. The candidates go into a heap and the shortest
+ * one becomes the next path. Three things keep this fast enough for interactive use:
+ * </p>
+ * <ul>
+ *     <li>Following Lawler, a path is only split at and after the node where it deviates from the
+ *     path it was derived from, since the splits before it repeat the parent's.</li>
+ *     <li>The shortest distances to the target are computed once on the reversed graph and guide
+ *     every spur search as an A* potential. They remain lower bounds when nodes and edges are
+ *     blocked, so each spur search runs almost straight to the target.</li>
+ *     <li>The spur searches of a path are independent and run in parallel on a {@link ForkJoinPool},
+ *     each reusing a scratch search whose arrays are reset through version stamps.</li>
+ * </ul>
+ *
+ * @author Ani Thyagarajan
+ */
+public final class KShortestPaths {
+
+    /**
+     * One of the k shortest paths.
+     */
+    public static final class Path {
+        private final Graph graph;
+        private final int[] nodes;
+        private final double length;
+        private final int deviation;
+
+        Path(Graph graph, int[] nodes, double length, int deviation) {
+            this.graph = graph;
+            this.nodes = nodes;
+            this.length = length;
+            this.deviation = deviation;
+        }
+
+        /**
+         * @return The node ids of the path, both ends included.
+         */
+        public int[] getNodeIds() {
+            return nodes.clone();
+        }
+
+        /**
+         * @return The nodes of the path, both ends included.
+         * @throws IllegalStateException if the paths were not computed on a {@link Graph}.
+         */
+        public List<Node> getNodes() {
+            if (graph == null) {
+                throw new IllegalStateException("The paths were computed on node ids, not on a Graph");
+            }
+            List<Node> path = new ArrayList<>(nodes.length);
+            for (int node : nodes) {
+                path.add(graph.getNode(node));
+            }
+            return path;
+        }
+
+        /**
+         * @return The sum of the edge weights along the path.
+         */
+        public double getLength() {
+            return length;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Path && Arrays.equals(nodes, ((Path) other).nodes);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(nodes);
+        }
+
+        @Override
+        public String toString() {
+            return "Path(" + Arrays.toString(nodes) + ", " + length + ")";
+        }
+    }
+
+    private final Graph owner;
+    private final GraphStore graph;
+    private final int target;
+    private final double[] toTarget;
+
+    /**
+     * Scratch searches not in use by a task.
+     */
+    private final Queue<SpurSearch> idle = new ConcurrentLinkedQueue<>();
+
+    private KShortestPaths(Graph owner, GraphStore graph, int target) {
+        this.owner = owner;
+        this.graph = graph;
+        this.target = target;
+        this.toTarget = distancesToTarget();
+    }
+
+    /**
+     * Computes the k shortest loopless paths on the common fork join pool.
+     *
+     * @param graph  The graph to search.
+     * @param source The node id the paths start at.
+     * @param target The node id the paths end at.
+     * @param k      The number of paths wanted.
+     * @return Up to k paths in order of length, fewer if the graph has no more loopless paths.
+     * @throws IllegalArgumentException if a node id is outside the graph or k is not positive.
+     */
+    public static List<Path> find(GraphStore graph, int source, int target, int k) {
+        return find(graph, source, target, k, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes the k shortest loopless paths.
+     *
+     * @param graph  The graph to search.
+     * @param source The node id the paths start at.
+     * @param target The node id the paths end at.
+     * @param k      The number of paths wanted.
+     * @param pool   The pool running the spur searches.
+     * @return Up to k paths in order of length, fewer if the graph has no more loopless paths.
+     * @throws IllegalArgumentException if a node id is outside the graph or k is not positive.
+     */
+    public static List<Path> find(GraphStore graph, int source, int target, int k, ForkJoinPool pool) {
+        return find(null, graph, source, target, k, pool);
+    }
+
+    static List<Path> find(Graph owner, GraphStore graph, int source, int target, int k, ForkJoinPool pool) {
+        if (k < 1) {
+            throw new IllegalArgumentException("k must be positive, got " + k);
+        }
+        if (source < 0 || source >= graph.nodeCount() || target < 0 || target >= graph.nodeCount()) {
+            throw new IllegalArgumentException("The nodes " + source + " and " + target + " must be part of the graph");
+        }
+        return new KShortestPaths(owner, graph, target).enumerate(source, k, pool);
+    }
+
+    private List<Path> enumerate(int source, int k, ForkJoinPool pool) {
+        List<Path> accepted = new ArrayList<>();
+        if (toTarget[source] == Double.POSITIVE_INFINITY) {
+            return accepted;
+        }
+        SpurSearch initial = take();
+        Path first = initial.search(source, new int[0], 0, new int[0], 0.0, 0);
+        idle.add(initial);
+        accepted.add(first);
+
+        PriorityQueue<Path> candidates = new PriorityQueue<>(Comparator.comparingDouble(Path::getLength));
+        Set<Path> seen = new HashSet<>();
+        seen.add(first);
+        while (accepted.size() < k) {
+            Path last = accepted.get(accepted.size() - 1);
+            List<Path> snapshot = List.copyOf(accepted);
+            List<Path> spurs;
+            try {
+                spurs = pool.submit(() -> IntStream.range(last.deviation, last.nodes.length - 1)
+                        .parallel()
+                        .mapToObj(i -> spur(last, i, snapshot))
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toList())).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            } catch (ExecutionException e) {
+                throw new RuntimeException(e.getCause());
+            }
+            for (Path candidate : spurs) {
+                if (seen.add(candidate)) {
+                    candidates.add(candidate);
+                }
+            }
+            if (candidates.isEmpty()) {
+                break;
+            }
+            accepted.add(candidates.poll());
+        }
+        return accepted;
+    }
+
+    /**
+     * Searches the spur path leaving {@code path} at position {@code index}.
+     */
+    private Path spur(Path path, int index, List<Path> accepted) {
+        int[] nodes = path.nodes;
+        int[] blockedTargets = new int[accepted.size()];
+        int blocked = 0;
+        for (Path other : accepted) {
+            if (other.nodes.length > index + 1 && Arrays.equals(other.nodes, 0, index + 1, nodes, 0, index + 1)) {
+                blockedTargets[blocked++] = other.nodes[index + 1];
+            }
+        }
+        double rootLength = 0.0;
+        for (int i = 0; i < index; i++) {
+            rootLength += weight(nodes[i], nodes[i + 1]);
+        }
+        SpurSearch search = take();
+        try {
+            return search.search(nodes[index], Arrays.copyOf(nodes, index), index,
+                    Arrays.copyOf(blockedTargets, blocked), rootLength, index);
+        } finally {
+            idle.add(search);
+        }
+    }
+
+    private double weight(int from, int to) {
+        double weight = Double.POSITIVE_INFINITY;
+        for (int e = graph.firstEdge(from); e < graph.firstEdge(from + 1); e++) {
+            if (graph.edgeTarget(e) == to) {
+                weight = Math.min(weight, graph.edgeWeight(e));
+            }
+        }
+        return weight;
+    }
+
+    private SpurSearch take() {
+        SpurSearch search = idle.poll();
+        return search == null ? new SpurSearch() : search;
+    }
+
+    /**
+     * Runs Dijkstra's algorithm from the target over the reversed edges.
+     */
+    private double[] distancesToTarget() {
+        int n = graph.nodeCount();
+        int[] reverseStart = new int[n + 1];
+        for (int e = 0; e < graph.edgeCount(); e++) {
+            reverseStart[graph.edgeTarget(e) + 1]++;
+        }
+        for (int v = 0; v < n; v++) {
+            reverseStart[v + 1] += reverseStart[v];
+        }
+        int[] reverseSource = new int[graph.edgeCount()];
+        double[] reverseWeight = new double[graph.edgeCount()];
+        int[] fill = Arrays.copyOf(reverseStart, n);
+        for (int u = 0; u < n; u++) {
+            for (int e = graph.firstEdge(u); e < graph.firstEdge(u + 1); e++) {
+                int slot = fill[graph.edgeTarget(e)]++;
+                reverseSource[slot] = u;
+                reverseWeight[slot] = graph.edgeWeight(e);
+            }
+        }
+
+        double[] distances = new double[n];
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        DistanceHeap heap = new DistanceHeap(n);
+        distances[target] = 0.0;
+        heap.decreaseKey(target, 0.0);
+        while (!heap.isEmpty()) {
+            int current = heap.poll();
+            for (int e = reverseStart[current]; e < reverseStart[current + 1]; e++) {
+                double candidate = distances[current] + reverseWeight[e];
+                if (candidate < distances[reverseSource[e]]) {
+                    distances[reverseSource[e]] = candidate;
+                    heap.decreaseKey(reverseSource[e], candidate);
+                }
+            }
+        }
+        return distances;
+    }
+
+    /**
+     * The per-thread state of an A* search towards the target. Arrays are only valid for nodes whose
+     * stamp equals the current version, so starting a new search costs nothing.
+     */
+    private final class SpurSearch {
+        private final double[] distances = new double[graph.nodeCount()];
+        private final int[] parents = new int[graph.nodeCount()];
+        private final int[] stamps = new int[graph.nodeCount()];
+        private final boolean[] blocked = new boolean[graph.nodeCount()];
+        private final DistanceHeap heap = new DistanceHeap(graph.nodeCount());
+        private int version;
+
+        /**
+         * @param start          The spur node.
+         * @param root           The nodes before the spur node, which the spur path must avoid.
+         * @param rootSize       The number of nodes in the root.
+         * @param blockedTargets The nodes the spur node must not continue to.
+         * @param rootLength     The length of the root path.
+         * @param deviation      The position of the spur node in the resulting path.
+         * @return The root path joined with the spur path, or {@code null} if the target is unreachable.
+         */
+        Path search(int start, int[] root, int rootSize, int[] blockedTargets, double rootLength, int deviation) {
+            version++;
+            for (int node : root) {
+                blocked[node] = true;
+            }
+            try {
+                visit(start, 0.0, -1);
+                heap.decreaseKey(start, toTarget[start]);
+                while (!heap.isEmpty()) {
+                    int current = heap.poll();
+                    if (current == target) {
+                        heap.clear();
+                        return join(root, rootSize, start, rootLength, deviation);
+                    }
+                    for (int e = graph.firstEdge(current); e < graph.firstEdge(current + 1); e++) {
+                        int adjacent = graph.edgeTarget(e);
+                        if (blocked[adjacent] || toTarget[adjacent] == Double.POSITIVE_INFINITY
+                                || (current == start && contains(blockedTargets, adjacent))) {
+                            continue;
+                        }
+                        double candidate = distances[current] + graph.edgeWeight(e);
+                        if (stamps[adjacent] != version || candidate < distances[adjacent]) {
+                            visit(adjacent, candidate, current);
+                            heap.decreaseKey(adjacent, candidate + toTarget[adjacent]);
+                        }
+                    }
+                }
+                return null;
+            } finally {
+                for (int node : root) {
+                    blocked[node] = false;
+                }
+            }
+        }
+
+        private void visit(int node, double distance, int parent) {
+            stamps[node] = version;
+            distances[node] = distance;
+            parents[node] = parent;
+        }
+
+        private Path join(int[] root, int rootSize, int start, double rootLength, int deviation) {
+            int spurSize = 0;
+            for (int v = target; v != -1; v = parents[v]) {
+                spurSize++;
+            }
+            int[] nodes = Arrays.copyOf(root, rootSize + spurSize);
+            for (int v = target, i = nodes.length - 1; v != -1; v = parents[v], i--) {
+                nodes[i] = v;
+            }
+            return new Path(owner, nodes, rootLength + distances[target], deviation);
+        }
+    }
+
+    private static boolean contains(int[] values, int value) {
+        for (int v : values) {
+            if (v == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
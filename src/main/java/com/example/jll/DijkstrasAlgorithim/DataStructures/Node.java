@@ -1,5 +1,6 @@
 package com.example.jll.DijkstrasAlgorithim.DataStructures;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -13,13 +14,35 @@ import java.util.*;
 public class Node {
 
     /**
-     * The name of the node, used for identification.
+     * The name of the node, used for identification. It is fixed at construction since a
+     * {@link Graph} indexes its nodes by name.
      */
-    private String name;
+    private final String name;
 
     private double latitude;
     private double longitude;
 
+    /**
+     * The quantity that has to be delivered to this node, used by the vehicle routing solvers.
+     * Defaults to zero, so plain shortest path and TSP graphs are unaffected.
+     */
+    private double demand;
+
+    /**
+     * The earliest time at which service may start at this node. A vehicle arriving earlier waits.
+     */
+    private double readyTime;
+
+    /**
+     * The latest time at which service may start at this node. Defaults to no deadline.
+     */
+    private double dueTime = Double.MAX_VALUE;
+
+    /**
+     * The time spent at this node before the vehicle can continue to the next stop.
+     */
+    private double serviceTime;
+
     /**
      * The shortest path from the source node to this node.
      */
@@ -35,17 +58,68 @@ public class Node {
      * A map of adjacent nodes used to associate immediate neighbors with edge length.
      * This is a simplified implementation of an adjacency list,
      * which is more suitable for the Dijkstra algorithm than the adjacency matrix.
+     * The weights are stored unboxed, see {@link PrimitiveAdjacency}. It is never replaced, since
+     * the graphs holding the node track their versions through it.
+     */
+    @Setter(AccessLevel.NONE)
+    final PrimitiveAdjacency adjacentNodes = new PrimitiveAdjacency();
+
+    /**
+     * The time-dependent travel times of the edges that have one, created on first use so that
+     * static graphs pay nothing for it.
      */
-    Map<Node, Double> adjacentNodes = new HashMap<>();
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    private Map<Node, TravelTimeProfile> travelTimeProfiles;
 
     /**
-     * Adds an adjacent node with a specified distance to this node.
+     * Adds an adjacent node with a specified distance to this node, or updates the distance
+     * if the node is already adjacent.
      *
      * @param destination The adjacent node to connect to.
      * @param distance    The distance to the adjacent node.
      */
     public void addDestination(Node destination, double distance) {
-        adjacentNodes.put(destination, distance);
+        adjacentNodes.setWeight(destination, distance);
+        if (travelTimeProfiles != null) {
+            travelTimeProfiles.remove(destination);
+        }
+    }
+
+    /**
+     * Adds an adjacent node whose travel time depends on the departure time, or replaces the
+     * weight of an existing edge. The static weight of the edge is set to the lowest travel time of
+     * the profile, so the static algorithms still see a valid lower bound.
+     *
+     * @param destination The adjacent node to connect to.
+     * @param profile     The travel time of the edge over the day.
+     */
+    public void addDestination(Node destination, TravelTimeProfile profile) {
+        adjacentNodes.setWeight(destination, profile.getMinimumTravelTime());
+        if (travelTimeProfiles == null) {
+            travelTimeProfiles = new HashMap<>();
+        }
+        travelTimeProfiles.put(destination, profile);
+    }
+
+    /**
+     * @param destination An adjacent node.
+     * @return The travel time profile of the edge, or {@code null} if the edge has a static weight.
+     */
+    public TravelTimeProfile getTravelTimeProfile(Node destination) {
+        return travelTimeProfiles == null ? null : travelTimeProfiles.get(destination);
+    }
+
+    /**
+     * Removes the edge from this node to an adjacent node.
+     *
+     * @param destination The adjacent node to disconnect.
+     * @return {@code true} if the edge existed.
+     */
+    public boolean removeDestination(Node destination) {
+        if (travelTimeProfiles != null) {
+            travelTimeProfiles.remove(destination);
+        }
+        return adjacentNodes.removeEdge(destination);
     }
 
     /**
@@ -0,0 +1,279 @@
+package com.example.jll.DijkstrasAlgorithim.DataStructures;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A {@link GraphStore} that keeps adjacency, weights and coordinates outside the Java heap.
+ * <p>
+ * The graph is held in compressed sparse row form in native memory, so the garbage collector
+ * never scans or copies it and the heap only has to fit the search state. Two backings exist:
+ * </p>
+ * <ul>
+ *     <li>{@link #copyOf(GraphStore)} copies a graph into direct buffers. The memory is released
+ *     once the {@code OffHeapGraph} becomes unreachable and counts against
+ *     {@code -XX:MaxDirectMemorySize}.</li>
+ *     <li>{@link #write(GraphStore, Path)} and {@link #map(Path)} store the graph in a file and map
+ *     it read-only into memory. The operating system pages the file in on demand, so the graph
+ *     may be larger than both the heap and the physical memory.</li>
+ * </ul>
+ * <p>
+ * Each section is split into chunks of {@value #CHUNK_SIZE} elements, as a single buffer cannot
+ * address more than 2 GB. All values are stored little-endian.
+ * </p>
+ *
+ * @author Ani Thyagarajan
+ */
+public final class OffHeapGraph implements GraphStore {
+
+    private static final int MAGIC = 0x4A4C4C47; // "JLLG"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+
+    private static final int CHUNK_SHIFT = 27;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private final int nodeCount;
+    private final int edgeCount;
+    private final IntBuffer[] edgeStart;
+    private final IntBuffer[] edgeTarget;
+    private final DoubleBuffer[] edgeWeight;
+    private final DoubleBuffer[] latitude;
+    private final DoubleBuffer[] longitude;
+
+    /**
+     * The cached result of {@link #integerWeightBound()}, -2 until it is first computed.
+     */
+    private int integerWeightBound = -2;
+
+    private OffHeapGraph(int nodeCount, int edgeCount, IntBuffer[] edgeStart, IntBuffer[] edgeTarget,
+                         DoubleBuffer[] edgeWeight, DoubleBuffer[] latitude, DoubleBuffer[] longitude) {
+        this.nodeCount = nodeCount;
+        this.edgeCount = edgeCount;
+        this.edgeStart = edgeStart;
+        this.edgeTarget = edgeTarget;
+        this.edgeWeight = edgeWeight;
+        this.latitude = latitude;
+        this.longitude = longitude;
+    }
+
+    /**
+     * Copies a graph into direct, native memory.
+     *
+     * @param source The graph to copy, e.g. a {@link CompactGraph}.
+     * @return The off-heap copy.
+     */
+    public static OffHeapGraph copyOf(GraphStore source) {
+        int nodes = source.nodeCount();
+        int edges = source.edgeCount();
+        IntBuffer[] edgeStart = intChunks(allocate(nodes + 1L, Integer.BYTES));
+        IntBuffer[] edgeTarget = intChunks(allocate(edges, Integer.BYTES));
+        DoubleBuffer[] edgeWeight = doubleChunks(allocate(edges, Double.BYTES));
+        DoubleBuffer[] latitude = doubleChunks(allocate(nodes, Double.BYTES));
+        DoubleBuffer[] longitude = doubleChunks(allocate(nodes, Double.BYTES));
+
+        for (int v = 0; v <= nodes; v++) {
+            edgeStart[v >>> CHUNK_SHIFT].put(v & CHUNK_MASK, source.firstEdge(v));
+        }
+        for (int e = 0; e < edges; e++) {
+            edgeTarget[e >>> CHUNK_SHIFT].put(e & CHUNK_MASK, source.edgeTarget(e));
+            edgeWeight[e >>> CHUNK_SHIFT].put(e & CHUNK_MASK, source.edgeWeight(e));
+        }
+        for (int v = 0; v < nodes; v++) {
+            latitude[v >>> CHUNK_SHIFT].put(v & CHUNK_MASK, source.latitude(v));
+            longitude[v >>> CHUNK_SHIFT].put(v & CHUNK_MASK, source.longitude(v));
+        }
+        return new OffHeapGraph(nodes, edges, edgeStart, edgeTarget, edgeWeight, latitude, longitude);
+    }
+
+    /**
+     * Writes a graph to a file that can later be opened with {@link #map(Path)}. The source is read
+     * sequentially, one section at a time, so it may itself compute its edges on the fly.
+     *
+     * @param source The graph to write.
+     * @param file   The file to create or overwrite.
+     * @throws IOException if the file cannot be written.
+     */
+    public static void write(GraphStore source, Path file) throws IOException {
+        int nodes = source.nodeCount();
+        int edges = source.edgeCount();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(nodes).putInt(edges);
+            while (buffer.position() < HEADER_BYTES) {
+                buffer.put((byte) 0);
+            }
+            for (int v = 0; v <= nodes; v++) {
+                buffer = flushIfFull(channel, buffer, Integer.BYTES).putInt(source.firstEdge(v));
+            }
+            for (int e = 0; e < edges; e++) {
+                buffer = flushIfFull(channel, buffer, Integer.BYTES).putInt(source.edgeTarget(e));
+            }
+            for (long pad = paddingAfterInts(nodes, edges); pad > 0; pad--) {
+                buffer = flushIfFull(channel, buffer, 1).put((byte) 0);
+            }
+            for (int e = 0; e < edges; e++) {
+                buffer = flushIfFull(channel, buffer, Double.BYTES).putDouble(source.edgeWeight(e));
+            }
+            for (int v = 0; v < nodes; v++) {
+                buffer = flushIfFull(channel, buffer, Double.BYTES).putDouble(source.latitude(v));
+            }
+            for (int v = 0; v < nodes; v++) {
+                buffer = flushIfFull(channel, buffer, Double.BYTES).putDouble(source.longitude(v));
+            }
+            flushIfFull(channel, buffer, buffer.capacity());
+        }
+    }
+
+    /**
+     * Maps a file written by {@link #write(GraphStore, Path)} read-only into memory. The mapping
+     * stays valid after the file channel is closed and is released once the graph becomes unreachable.
+     *
+     * @param file The graph file.
+     * @return The memory-mapped graph.
+     * @throws IOException              if the file cannot be read.
+     * @throws IllegalArgumentException if the file is not a graph file or is truncated.
+     */
+    public static OffHeapGraph map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES) {
+                throw new IllegalArgumentException("The file " + file + " is not a graph file");
+            }
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IllegalArgumentException("The file " + file + " is not a graph file");
+            }
+            int nodes = header.getInt();
+            int edges = header.getInt();
+
+            long padding = paddingAfterInts(nodes, edges);
+            long expected = HEADER_BYTES + (nodes + 1L + edges) * Integer.BYTES + padding
+                    + ((long) edges + 2L * nodes) * Double.BYTES;
+            if (nodes < 0 || edges < 0 || channel.size() < expected) {
+                throw new IllegalArgumentException("The graph file " + file + " is truncated");
+            }
+
+            long position = HEADER_BYTES;
+            ByteBuffer[] edgeStart = map(channel, position, nodes + 1L, Integer.BYTES);
+            position += (nodes + 1L) * Integer.BYTES;
+            ByteBuffer[] edgeTarget = map(channel, position, edges, Integer.BYTES);
+            position += (long) edges * Integer.BYTES + padding;
+            ByteBuffer[] edgeWeight = map(channel, position, edges, Double.BYTES);
+            position += (long) edges * Double.BYTES;
+            ByteBuffer[] latitude = map(channel, position, nodes, Double.BYTES);
+            position += (long) nodes * Double.BYTES;
+            ByteBuffer[] longitude = map(channel, position, nodes, Double.BYTES);
+            return new OffHeapGraph(nodes, edges, intChunks(edgeStart), intChunks(edgeTarget),
+                    doubleChunks(edgeWeight), doubleChunks(latitude), doubleChunks(longitude));
+        }
+    }
+
+    @Override
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    @Override
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    @Override
+    public int firstEdge(int node) {
+        return edgeStart[node >>> CHUNK_SHIFT].get(node & CHUNK_MASK);
+    }
+
+    @Override
+    public int edgeTarget(int edge) {
+        return edgeTarget[edge >>> CHUNK_SHIFT].get(edge & CHUNK_MASK);
+    }
+
+    @Override
+    public double edgeWeight(int edge) {
+        return edgeWeight[edge >>> CHUNK_SHIFT].get(edge & CHUNK_MASK);
+    }
+
+    @Override
+    public double latitude(int node) {
+        return latitude[node >>> CHUNK_SHIFT].get(node & CHUNK_MASK);
+    }
+
+    @Override
+    public double longitude(int node) {
+        return longitude[node >>> CHUNK_SHIFT].get(node & CHUNK_MASK);
+    }
+
+    @Override
+    public int integerWeightBound() {
+        if (integerWeightBound == -2) {
+            integerWeightBound = GraphStore.super.integerWeightBound();
+        }
+        return integerWeightBound;
+    }
+
+    /**
+     * The number of padding bytes that align the double sections of a graph file to 8 bytes.
+     */
+    private static long paddingAfterInts(int nodes, int edges) {
+        return ((nodes + 1L + edges) * Integer.BYTES) % Double.BYTES;
+    }
+
+    private static ByteBuffer flushIfFull(FileChannel channel, ByteBuffer buffer, int needed) throws IOException {
+        if (buffer.remaining() < needed) {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+        return buffer;
+    }
+
+    private static ByteBuffer[] allocate(long elements, int elementBytes) {
+        ByteBuffer[] chunks = new ByteBuffer[chunkCount(elements)];
+        for (int c = 0; c < chunks.length; c++) {
+            long length = Math.min(CHUNK_SIZE, elements - ((long) c << CHUNK_SHIFT));
+            chunks[c] = ByteBuffer.allocateDirect((int) (length * elementBytes)).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        return chunks;
+    }
+
+    private static ByteBuffer[] map(FileChannel channel, long position, long elements, int elementBytes) throws IOException {
+        ByteBuffer[] chunks = new ByteBuffer[chunkCount(elements)];
+        for (int c = 0; c < chunks.length; c++) {
+            long first = (long) c << CHUNK_SHIFT;
+            long length = Math.min(CHUNK_SIZE, elements - first);
+            chunks[c] = channel.map(FileChannel.MapMode.READ_ONLY, position + first * elementBytes, length * elementBytes)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+        }
+        return chunks;
+    }
+
+    private static int chunkCount(long elements) {
+        return (int) Math.max(1, (elements + CHUNK_SIZE - 1) >>> CHUNK_SHIFT);
+    }
+
+    private static IntBuffer[] intChunks(ByteBuffer[] chunks) {
+        IntBuffer[] views = new IntBuffer[chunks.length];
+        for (int c = 0; c < chunks.length; c++) {
+            views[c] = chunks[c].asIntBuffer();
+        }
+        return views;
+    }
+
+    private static DoubleBuffer[] doubleChunks(ByteBuffer[] chunks) {
+        DoubleBuffer[] views = new DoubleBuffer[chunks.length];
+        for (int c = 0; c < chunks.length; c++) {
+            views[c] = chunks[c].asDoubleBuffer();
+        }
+        return views;
+    }
+}
@@ -0,0 +1,458 @@
+package com.example.jll.DijkstrasAlgorithim.DataStructures;
+
+import java.lang.ref.WeakReference;
+import java.util.*;
+
+/**
+ * The outgoing edges of a {@link Node}, stored in two growable parallel arrays of targets and
+ * unboxed weights.
+ * <p>
+ * The class is a {@code Map<Node, Double>}, so code written against the adjacency map keeps
+ * working, but the primitive methods {@link #getWeight(Node)}, {@link #setWeight(Node, double)},
+ * {@link #removeEdge(Node)}, {@link #reweight(WeightUpdate)} and the index based accessors never
+ * box a weight. An edge costs 12 to 16 bytes instead of the roughly 60 bytes of a
+ * {@code HashMap} entry with its {@code Double}.
+ * </p>
+ * <p>
+ * Nodes with few edges are searched linearly, which is faster than hashing at that size. Once a
+ * node has more than {@value #INDEX_THRESHOLD} edges an open addressing index from target to
+ * position is built, keeping lookups constant time for high-degree nodes. Targets are compared by
+ * identity, like the {@code HashMap} it replaces, since {@code Node} does not override
+ * {@code equals}. Removing an edge moves the last edge into its place, so positions and iteration
+ * order are not stable across removals.
+ * </p>
+ * <p>
+ * Every change bumps the modification counter of every {@link Graph} the node belongs to, which
+ * lets caches of search results, e.g. {@link ShortestPathCache}, notice that edges changed without
+ * scanning the graph. The graphs are only weakly referenced, so a node outlives the temporary
+ * graphs it was added to.
+ * </p>
+ *
+ * @author Ani Thyagarajan
+ */
+public class PrimitiveAdjacency extends AbstractMap<Node, Double> {
+
+    /**
+     * The number of edges above which lookups go through the hash index.
+     */
+    public static final int INDEX_THRESHOLD = 8;
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    private static final WeakReference<?>[] NO_OWNERS = new WeakReference<?>[0];
+
+    /**
+     * The number of edge changes made to the nodes of one graph. Like the graph itself it is not
+     * thread-safe, the graph must not change while it is queried.
+     */
+    static final class ModificationCounter {
+        private long count;
+
+        long get() {
+            return count;
+        }
+    }
+
+    /**
+     * Recomputes the weight of an edge, e.g. from a live traffic feed.
+     */
+    @FunctionalInterface
+    public interface WeightUpdate {
+        double apply(Node target, double weight);
+    }
+
+    private Node[] targets = new Node[0];
+    private double[] weights = new double[0];
+    private int size;
+
+    /**
+     * Open addressing index holding position + 1 of every target, 0 marks a free slot. Only
+     * present above {@link #INDEX_THRESHOLD} edges.
+     */
+    private int[] index;
+
+    /**
+     * The counters of the graphs this node belongs to, see {@link ModificationCounter}.
+     */
+    private WeakReference<?>[] owners = NO_OWNERS;
+    private int ownerCount;
+
+    /**
+     * Registers the counter of a graph the node was added to. The counters of graphs that were
+     * garbage collected are only dropped when the array is full, so registering is amortized
+     * constant time. A graph registers each of its counters at most once per node.
+     */
+    synchronized void addOwner(ModificationCounter counter) {
+        if (ownerCount == owners.length) {
+            int live = 0;
+            for (int i = 0; i < ownerCount; i++) {
+                if (owners[i].get() != null) {
+                    owners[live++] = owners[i];
+                }
+            }
+            Arrays.fill(owners, live, ownerCount, null);
+            ownerCount = live;
+            if (ownerCount == owners.length) {
+                owners = Arrays.copyOf(owners, Math.max(2, ownerCount * 2));
+            }
+        }
+        owners[ownerCount++] = new WeakReference<>(counter);
+    }
+
+    private void modified() {
+        WeakReference<?>[] current = owners;
+        for (int i = 0; i < Math.min(ownerCount, current.length); i++) {
+            ModificationCounter counter = current[i] == null ? null : (ModificationCounter) current[i].get();
+            if (counter != null) {
+                counter.count++;
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param position An edge position between 0 and {@code size() - 1}.
+     * @return The target of the edge at that position.
+     */
+    public Node getTarget(int position) {
+        Objects.checkIndex(position, size);
+        return targets[position];
+    }
+
+    /**
+     * @param position An edge position between 0 and {@code size() - 1}.
+     * @return The weight of the edge at that position.
+     */
+    public double getWeight(int position) {
+        Objects.checkIndex(position, size);
+        return weights[position];
+    }
+
+    /**
+     * Returns the weight of the edge to a target.
+     *
+     * @param target The target node.
+     * @return The weight, or {@code Double.NaN} if there is no edge to the target.
+     */
+    public double getWeight(Node target) {
+        int position = indexOf(target);
+        return position < 0 ? Double.NaN : weights[position];
+    }
+
+    /**
+     * Adds an edge or updates the weight of the existing edge to the same target.
+     *
+     * @param target The target node.
+     * @param weight The new weight.
+     */
+    public void setWeight(Node target, double weight) {
+        modified();
+        int position = indexOf(target);
+        if (position >= 0) {
+            weights[position] = weight;
+            return;
+        }
+        if (target == null) {
+            throw new NullPointerException("The target node must not be null");
+        }
+        if (size == targets.length) {
+            int capacity = Math.max(INITIAL_CAPACITY, size + (size >> 1));
+            targets = Arrays.copyOf(targets, capacity);
+            weights = Arrays.copyOf(weights, capacity);
+        }
+        targets[size] = target;
+        weights[size] = weight;
+        size++;
+        if (index != null) {
+            if (size * 2 > index.length) {
+                buildIndex();
+            } else {
+                insertIntoIndex(size - 1);
+            }
+        } else if (size > INDEX_THRESHOLD) {
+            buildIndex();
+        }
+    }
+
+    /**
+     * Removes the edge to a target.
+     *
+     * @param target The target node.
+     * @return {@code true} if an edge was removed.
+     */
+    public boolean removeEdge(Node target) {
+        int position = indexOf(target);
+        if (position < 0) {
+            return false;
+        }
+        removeAt(position);
+        return true;
+    }
+
+    /**
+     * Recomputes the weight of every edge in one pass.
+     *
+     * @param update The function returning the new weight of an edge.
+     */
+    public void reweight(WeightUpdate update) {
+        modified();
+        for (int i = 0; i < size; i++) {
+            weights[i] = update.apply(targets[i], weights[i]);
+        }
+    }
+
+    /**
+     * Updates the weights of several edges. Targets without an edge are added.
+     *
+     * @param updates The new weight per target.
+     */
+    public void setWeights(Map<Node, Double> updates) {
+        updates.forEach(this::setWeight);
+    }
+
+    /**
+     * Releases unused capacity, e.g. before a graph is kept around for querying only.
+     */
+    public void trimToSize() {
+        if (targets.length != size) {
+            targets = Arrays.copyOf(targets, size);
+            weights = Arrays.copyOf(weights, size);
+        }
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof Node && indexOf((Node) key) >= 0;
+    }
+
+    @Override
+    public Double get(Object key) {
+        if (!(key instanceof Node)) {
+            return null;
+        }
+        int position = indexOf((Node) key);
+        return position < 0 ? null : weights[position];
+    }
+
+    @Override
+    public Double put(Node key, Double value) {
+        int position = indexOf(key);
+        Double previous = position < 0 ? null : weights[position];
+        setWeight(key, value);
+        return previous;
+    }
+
+    @Override
+    public Double remove(Object key) {
+        if (!(key instanceof Node)) {
+            return null;
+        }
+        int position = indexOf((Node) key);
+        if (position < 0) {
+            return null;
+        }
+        double previous = weights[position];
+        removeAt(position);
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        modified();
+        Arrays.fill(targets, 0, size, null);
+        size = 0;
+        index = null;
+    }
+
+    @Override
+    public Set<Entry<Node, Double>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public void clear() {
+                PrimitiveAdjacency.this.clear();
+            }
+
+            @Override
+            public Iterator<Entry<Node, Double>> iterator() {
+                return new Iterator<>() {
+                    private int next;
+                    private int last = -1;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < size;
+                    }
+
+                    @Override
+                    public Entry<Node, Double> next() {
+                        if (next >= size) {
+                            throw new NoSuchElementException();
+                        }
+                        last = next++;
+                        return new EdgeEntry(last);
+                    }
+
+                    @Override
+                    public void remove() {
+                        if (last < 0) {
+                            throw new IllegalStateException();
+                        }
+                        // The last edge moves into the removed position and still has to be visited
+                        removeAt(last);
+                        next = last;
+                        last = -1;
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * A map entry that reads and writes through to the arrays.
+     */
+    private final class EdgeEntry implements Entry<Node, Double> {
+        private final int position;
+        private final Node target;
+
+        private EdgeEntry(int position) {
+            this.position = position;
+            this.target = targets[position];
+        }
+
+        @Override
+        public Node getKey() {
+            return target;
+        }
+
+        @Override
+        public Double getValue() {
+            return position < size && targets[position] == target ? weights[position] : getWeight(target);
+        }
+
+        @Override
+        public Double setValue(Double value) {
+            Double previous = getValue();
+            setWeight(target, value);
+            return previous;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Entry<?, ?> e && e.getKey() == target && Objects.equals(e.getValue(), getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(target) ^ Objects.hashCode(getValue());
+        }
+
+        @Override
+        public String toString() {
+            return target + "=" + getValue();
+        }
+    }
+
+    private int indexOf(Node target) {
+        if (index == null) {
+            for (int i = 0; i < size; i++) {
+                if (targets[i] == target) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        int mask = index.length - 1;
+        for (int slot = hash(target) & mask; index[slot] != 0; slot = (slot + 1) & mask) {
+            if (targets[index[slot] - 1] == target) {
+                return index[slot] - 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Removes the edge at a position by moving the last edge into its place.
+     */
+    private void removeAt(int position) {
+        modified();
+        int last = size - 1;
+        if (index != null) {
+            removeFromIndex(position);
+            if (position != last) {
+                // Point the moved edge's slot at its new position
+                index[slotOf(last)] = position + 1;
+            }
+        }
+        targets[position] = targets[last];
+        weights[position] = weights[last];
+        targets[last] = null;
+        size--;
+        if (index != null && size <= INDEX_THRESHOLD / 2) {
+            index = null;
+        }
+    }
+
+    private void buildIndex() {
+        int capacity = Integer.highestOneBit(Math.max(INDEX_THRESHOLD, size) * 4 - 1);
+        index = new int[capacity];
+        for (int i = 0; i < size; i++) {
+            insertIntoIndex(i);
+        }
+    }
+
+    private void insertIntoIndex(int position) {
+        int mask = index.length - 1;
+        int slot = hash(targets[position]) & mask;
+        while (index[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        index[slot] = position + 1;
+    }
+
+    private int slotOf(int position) {
+        int mask = index.length - 1;
+        int slot = hash(targets[position]) & mask;
+        while (index[slot] != position + 1) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Deletes the slot of a position and shifts later entries of the probe sequence back, so that
+     * no tombstones are needed.
+     */
+    private void removeFromIndex(int position) {
+        int mask = index.length - 1;
+        int free = slotOf(position);
+        int slot = free;
+        while (true) {
+            slot = (slot + 1) & mask;
+            if (index[slot] == 0) {
+                break;
+            }
+            int home = hash(targets[index[slot] - 1]) & mask;
+            // Move the entry back unless its home lies cyclically in (free, slot]
+            boolean stays = free <= slot ? (free < home && home <= slot) : (free < home || home <= slot);
+            if (!stays) {
+                index[free] = index[slot];
+                free = slot;
+            }
+        }
+        index[free] = 0;
+    }
+
+    private static int hash(Node node) {
+        int h = System.identityHashCode(node) * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.jll.DijkstrasAlgorithim.DataStructures;
+
+import java.util.Arrays;
+
+/**
+ * A radix heap for non-negative integer keys of any size.
+ * <p>
+ * Bucket {@code i} holds the entries whose key first differs from the last polled key in bit
+ * {@code i - 1}, bucket 0 the entries equal to it. When bucket 0 runs empty, the lowest non-empty
+ * bucket is scanned for its minimum, which becomes the new last key, and its entries are
+ * redistributed into lower buckets. Every entry moves down at most 64 times, so the amortised
+ * cost per operation is logarithmic in the largest key, independent of the number of nodes.
+ * </p>
+ * <p>
+ * A decrease-key pushes a second entry for the node, the outdated entry is skipped when it
+ * surfaces.
+ * </p>
+ *
+ * @author Ani Thyagarajan
+ */
+final class RadixHeap implements IntegerQueue {
+
+    private static final int BUCKETS = 65;
+
+    private final int[][] nodes = new int[BUCKETS][];
+    private final long[][] entryKeys = new long[BUCKETS][];
+    private final int[] sizes = new int[BUCKETS];
+
+    /**
+     * The current key of every queued node, used to recognise outdated entries.
+     */
+    private final long[] keys;
+    private final boolean[] queued;
+    private long last;
+    private int size;
+
+    /**
+     * @param capacity The number of node ids.
+     */
+    RadixHeap(int capacity) {
+        keys = new long[capacity];
+        queued = new boolean[capacity];
+        for (int b = 0; b < BUCKETS; b++) {
+            nodes[b] = new int[4];
+            entryKeys[b] = new long[4];
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void push(int node, long key) {
+        if (!queued[node]) {
+            queued[node] = true;
+            size++;
+        }
+        keys[node] = key;
+        add(bucketOf(key), node, key);
+    }
+
+    @Override
+    public int poll() {
+        while (true) {
+            if (sizes[0] == 0) {
+                refill();
+            }
+            int node = nodes[0][--sizes[0]];
+            if (isCurrent(node, last)) {
+                queued[node] = false;
+                size--;
+                return node;
+            }
+        }
+    }
+
+    /**
+     * Moves the entries of the lowest non-empty bucket down, at least one of them into bucket 0.
+     * Outdated entries are dropped on the way instead of being moved.
+     */
+    private void refill() {
+        for (int b = 1; ; b++) {
+            int count = sizes[b];
+            if (count == 0) {
+                continue;
+            }
+            int[] bucketNodes = nodes[b];
+            long[] bucketKeys = entryKeys[b];
+            long min = Long.MAX_VALUE;
+            for (int i = 0; i < count; i++) {
+                if (isCurrent(bucketNodes[i], bucketKeys[i])) {
+                    min = Math.min(min, bucketKeys[i]);
+                }
+            }
+            sizes[b] = 0;
+            if (min == Long.MAX_VALUE) {
+                continue;
+            }
+            last = min;
+            for (int i = 0; i < count; i++) {
+                if (isCurrent(bucketNodes[i], bucketKeys[i])) {
+                    add(bucketOf(bucketKeys[i]), bucketNodes[i], bucketKeys[i]);
+                }
+            }
+            return;
+        }
+    }
+
+    private boolean isCurrent(int node, long key) {
+        return queued[node] && keys[node] == key;
+    }
+
+    private int bucketOf(long key) {
+        return key == last ? 0 : 64 - Long.numberOfLeadingZeros(key ^ last);
+    }
+
+    private void add(int bucket, int node, long key) {
+        int count = sizes[bucket];
+        if (count == nodes[bucket].length) {
+            nodes[bucket] = Arrays.copyOf(nodes[bucket], count * 2);
+            entryKeys[bucket] = Arrays.copyOf(entryKeys[bucket], count * 2);
+        }
+        nodes[bucket][count] = node;
+        entryKeys[bucket][count] = key;
+        sizes[bucket] = count + 1;
+    }
+}
@@ -0,0 +1,256 @@
+package com.example.jll.DijkstrasAlgorithim.DataStructures;
+
+import java.util.*;
+
+/**
+ * Answers "is node t reachable from node s" for a {@link Graph} in constant time.
+ * <p>
+ * The strongly connected components (SCCs) of the graph are computed once with an iterative
+ * version of Tarjan's algorithm, so deep graphs cannot overflow the call stack. Tarjan numbers
+ * the components in reverse topological order: an edge between two different components always
+ * points from a higher to a lower component number. A query is therefore answered as follows:
+ * </p>
+ * <ul>
+ *     <li>Both nodes in the same component: reachable.</li>
+ *     <li>The target's component has a higher number than the source's: not reachable.</li>
+ *     <li>Otherwise the precomputed transitive closure of the component graph decides. For graphs
+ *     with more than {@value #CLOSURE_LIMIT} components the closure would not fit in memory, so
+ *     the component graph is searched instead, pruned by the component numbers.</li>
+ * </ul>
+ * <p>
+ * Edges to nodes that are not part of the graph are ignored. The index reflects the edges at the
+ * time it was built.
+ * </p>
+ *
+ * @author Ani Thyagarajan
+ */
+public class ReachabilityIndex {
+
+    /**
+     * The maximum number of components for which the transitive closure is materialised as bit sets.
+     */
+    public static final int CLOSURE_LIMIT = 4096;
+
+    private final Graph graph;
+    private final int[] component;
+    private final int componentCount;
+
+    /**
+     * The component graph in compressed sparse row form.
+     */
+    private final int[] successorStart;
+    private final int[] successors;
+
+    /**
+     * One bit set per component of all components reachable from it, or null above {@link #CLOSURE_LIMIT}.
+     */
+    private final long[][] closure;
+
+    /**
+     * Computes the strongly connected components of the graph.
+     *
+     * @param graph The graph to index.
+     */
+    public ReachabilityIndex(Graph graph) {
+        this.graph = graph;
+        int size = graph.size();
+
+        // Adjacency of the graph in compressed sparse row form, indexed by node id
+        int[] edgeStart = new int[size + 1];
+        int[] edgeTarget = new int[graph.getNodes().stream().mapToInt(node -> node.getAdjacentNodes().size()).sum()];
+        int edges = 0;
+        for (int i = 0; i < size; i++) {
+            edgeStart[i] = edges;
+            PrimitiveAdjacency adjacency = graph.getNode(i).getAdjacentNodes();
+            for (int j = 0; j < adjacency.size(); j++) {
+                int adjacent = graph.findId(adjacency.getTarget(j));
+                if (adjacent != -1) {
+                    edgeTarget[edges++] = adjacent;
+                }
+            }
+        }
+        edgeStart[size] = edges;
+
+        component = new int[size];
+        componentCount = findComponents(size, edgeStart, edgeTarget);
+
+        // Condense the graph, keeping only edges between different components
+        int[] count = new int[componentCount + 1];
+        for (int v = 0; v < size; v++) {
+            for (int e = edgeStart[v]; e < edgeStart[v + 1]; e++) {
+                if (component[edgeTarget[e]] != component[v]) {
+                    count[component[v]]++;
+                }
+            }
+        }
+        successorStart = new int[componentCount + 1];
+        for (int c = 0; c < componentCount; c++) {
+            successorStart[c + 1] = successorStart[c] + count[c];
+        }
+        successors = new int[successorStart[componentCount]];
+        int[] fill = Arrays.copyOf(successorStart, componentCount);
+        for (int v = 0; v < size; v++) {
+            for (int e = edgeStart[v]; e < edgeStart[v + 1]; e++) {
+                int to = component[edgeTarget[e]];
+                if (to != component[v]) {
+                    successors[fill[component[v]]++] = to;
+                }
+            }
+        }
+
+        closure = componentCount <= CLOSURE_LIMIT ? buildClosure() : null;
+    }
+
+    /**
+     * Iterative Tarjan. Assigns every node its component number and returns the number of components.
+     */
+    private int findComponents(int size, int[] edgeStart, int[] edgeTarget) {
+        int[] order = new int[size];
+        int[] lowLink = new int[size];
+        int[] nextEdge = new int[size];
+        boolean[] onStack = new boolean[size];
+        int[] sccStack = new int[size];
+        int[] callStack = new int[size];
+        Arrays.fill(order, -1);
+
+        int counter = 0;
+        int sccTop = 0;
+        int components = 0;
+        for (int root = 0; root < size; root++) {
+            if (order[root] != -1) {
+                continue;
+            }
+            int callTop = 0;
+            callStack[callTop++] = root;
+            order[root] = lowLink[root] = counter++;
+            nextEdge[root] = edgeStart[root];
+            sccStack[sccTop++] = root;
+            onStack[root] = true;
+
+            while (callTop > 0) {
+                int v = callStack[callTop - 1];
+                if (nextEdge[v] < edgeStart[v + 1]) {
+                    int w = edgeTarget[nextEdge[v]++];
+                    if (order[w] == -1) {
+                        order[w] = lowLink[w] = counter++;
+                        nextEdge[w] = edgeStart[w];
+                        sccStack[sccTop++] = w;
+                        onStack[w] = true;
+                        callStack[callTop++] = w;
+                    } else if (onStack[w]) {
+                        lowLink[v] = Math.min(lowLink[v], order[w]);
+                    }
+                } else {
+                    callTop--;
+                    if (lowLink[v] == order[v]) {
+                        int w;
+                        do {
+                            w = sccStack[--sccTop];
+                            onStack[w] = false;
+                            component[w] = components;
+                        } while (w != v);
+                        components++;
+                    }
+                    if (callTop > 0) {
+                        int parent = callStack[callTop - 1];
+                        lowLink[parent] = Math.min(lowLink[parent], lowLink[v]);
+                    }
+                }
+            }
+        }
+        return components;
+    }
+
+    /**
+     * Builds the transitive closure of the component graph. Successors always have lower numbers,
+     * so processing components in increasing order sees every successor's closure completed.
+     */
+    private long[][] buildClosure() {
+        int words = (componentCount + 63) >>> 6;
+        long[][] reach = new long[componentCount][];
+        for (int c = 0; c < componentCount; c++) {
+            long[] bits = new long[words];
+            bits[c >>> 6] |= 1L << c;
+            for (int e = successorStart[c]; e < successorStart[c + 1]; e++) {
+                long[] successor = reach[successors[e]];
+                for (int w = 0; w < words; w++) {
+                    bits[w] |= successor[w];
+                }
+            }
+            reach[c] = bits;
+        }
+        return reach;
+    }
+
+    /**
+     * Checks whether a path from {@code source} to {@code target} exists.
+     *
+     * @param source The node the path starts at.
+     * @param target The node the path ends at.
+     * @return {@code true} if {@code target} is reachable from {@code source}.
+     * @throws IllegalArgumentException if either node is not part of the indexed graph.
+     */
+    public boolean isReachable(Node source, Node target) {
+        int from = getComponent(source);
+        int to = getComponent(target);
+        if (from == to) {
+            return true;
+        }
+        if (to > from) {
+            return false;
+        }
+        if (closure != null) {
+            return (closure[from][to >>> 6] & (1L << to)) != 0;
+        }
+
+        // Search the component graph, components numbered below the target cannot lead to it
+        boolean[] seen = new boolean[componentCount];
+        int[] stack = new int[componentCount];
+        int top = 0;
+        stack[top++] = from;
+        seen[from] = true;
+        while (top > 0) {
+            int c = stack[--top];
+            for (int e = successorStart[c]; e < successorStart[c + 1]; e++) {
+                int next = successors[e];
+                if (next == to) {
+                    return true;
+                }
+                if (next > to && !seen[next]) {
+                    seen[next] = true;
+                    stack[top++] = next;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether every node can reach every other node, which is required for a tour to exist.
+     *
+     * @return {@code true} if the graph consists of a single strongly connected component.
+     */
+    public boolean isStronglyConnected() {
+        return componentCount <= 1;
+    }
+
+    /**
+     * Returns the number of the strongly connected component a node belongs to.
+     *
+     * @param node A node of the indexed graph.
+     * @return The component number, components are numbered in reverse topological order.
+     * @throws IllegalArgumentException if the node is not part of the indexed graph.
+     */
+    public int getComponent(Node node) {
+        return component[graph.getId(node)];
+    }
+
+    /**
+     * Returns the number of strongly connected components of the graph.
+     *
+     * @return The number of components.
+     */
+    public int getComponentCount() {
+        return componentCount;
+    }
+}
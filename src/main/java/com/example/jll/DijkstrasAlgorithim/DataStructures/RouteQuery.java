@@ -0,0 +1,50 @@
+package com.example.jll.DijkstrasAlgorithim.DataStructures;
+
+import lombok.Getter;
+
+/**
+ * A single shortest path request between two node ids of a {@link GraphStore}.
+ *
+ * @author Ani Thyagarajan
+ */
+@Getter
+public class RouteQuery {
+
+    /**
+     * The node id the route starts at.
+     */
+    private final int source;
+
+    /**
+     * The node id the route ends at.
+     */
+    private final int target;
+
+    /**
+     * @param source The node id the route starts at.
+     * @param target The node id the route ends at.
+     */
+    public RouteQuery(int source, int target) {
+        this.source = source;
+        this.target = target;
+    }
+
+    /**
+     * Creates a query between two named nodes, using the ids the graph assigned to them. The ids
+     * match a {@link CompactGraph} or {@link OffHeapGraph} built from the same graph.
+     *
+     * @param graph  The graph the nodes belong to.
+     * @param source The name of the node the route starts at.
+     * @param target The name of the node the route ends at.
+     * @return The query.
+     * @throws IllegalArgumentException if either node is not part of the graph.
+     */
+    public static RouteQuery between(Graph graph, String source, String target) {
+        return new RouteQuery(graph.getId(source), graph.getId(target));
+    }
+
+    @Override
+    public String toString() {
+        return source + " -> " + target;
+    }
+}
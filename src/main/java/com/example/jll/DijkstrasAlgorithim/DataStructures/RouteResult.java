@@ -0,0 +1,59 @@
+package com.example.jll.DijkstrasAlgorithim.DataStructures;
+
+import lombok.Getter;
+
+/**
+ * The answer to a {@link RouteQuery} from a {@link BatchRouter}, with the timings of the search
+ * that produced it.
+ *
+ * @author Ani Thyagarajan
+ */
+@Getter
+public class RouteResult {
+
+    /**
+     * The query this result answers.
+     */
+    private final RouteQuery query;
+
+    /**
+     * The length of the shortest route, or {@code Double.POSITIVE_INFINITY} if the target is unreachable.
+     */
+    private final double distance;
+
+    /**
+     * The node ids of the shortest route including both endpoints, empty if the target is unreachable.
+     */
+    private final int[] path;
+
+    /**
+     * The number of queries answered by the same search, i.e. the queries sharing this source.
+     */
+    private final int groupSize;
+
+    /**
+     * The wall clock time of the search shared by the group, in nanoseconds.
+     */
+    private final long searchNanos;
+
+    /**
+     * The time from the start of the group's search until this result was ready, in nanoseconds.
+     */
+    private final long elapsedNanos;
+
+    RouteResult(RouteQuery query, double distance, int[] path, int groupSize, long searchNanos, long elapsedNanos) {
+        this.query = query;
+        this.distance = distance;
+        this.path = path;
+        this.groupSize = groupSize;
+        this.searchNanos = searchNanos;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * @return {@code true} if a route from the source to the target exists.
+     */
+    public boolean isReachable() {
+        return distance != Double.POSITIVE_INFINITY;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.jll.DijkstrasAlgorithim.DataStructures;
+
+/**
+ * The row relaxations of {@link DenseMatrixSearch} that have a SIMD implementation. The scalar
+ * loops stay in {@code DenseMatrixSearch}, the Vector API version is {@code VectorRelaxation} in
+ * the {@code vector} source set.
+ *
+ * @author Ani Thyagarajan
+ */
+interface RowRelaxation {
+
+    /**
+     * Lowers {@code distances[v]} to {@code distance + weights[row + v]} wherever that is shorter.
+     */
+    void relaxDistances(double[] weights, int row, int size, double distance, int node,
+                        double[] distances, double[] parents);
+
+    /**
+     * Lowers {@code keys[v]} to {@code weights[row + v]} wherever that is lighter.
+     */
+    void relaxKeys(double[] weights, int row, int size, int node, double[] keys, double[] parents);
+}
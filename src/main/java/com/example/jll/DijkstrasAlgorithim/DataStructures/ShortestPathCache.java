@@ -0,0 +1,336 @@
+package com.example.jll.DijkstrasAlgorithim.DataStructures;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * A size-bounded cache of shortest path trees in front of
+ * {@link Dijkstra#calculateShortestPathTree(GraphStore, int)}, for workloads where a few sources,
+ * e.g. the depots, ask most of the queries.
+ * <p>
+ * Trees are kept per source, as the two primitive arrays of a {@link ShortestPathTree}. Once the
+ * cache is full, a tree that was not used since the last sweep is evicted, with the CLOCK
+ * approximation of least recently used. A repeated query from a cached source is a lock-free
+ * hash lookup followed by array reads, only misses take the lock. Every lookup compares the version of the graph,
+ * see {@link Graph#getVersion()}, with the version the trees were computed on, and drops all trees
+ * as soon as any node or edge changed. The graph itself is searched through a
+ * {@link CompactGraph} snapshot that is rebuilt only after such a change.
+ * </p>
+ * <p>
+ * The cache is safe for concurrent queries. Threads asking for the same uncached source wait for a
+ * single search instead of all running it. The graph must not change while queries are running.
+ * </p>
+ *
+ * @author Ani Thyagarajan
+ */
+public class ShortestPathCache {
+
+    private final Graph graph;
+    private final GraphStore fixedStore;
+    private final LongSupplier version;
+    private final int capacity;
+
+    private final ConcurrentHashMap<Integer, Entry> trees = new ConcurrentHashMap<>();
+
+    // Guarded by the lock: the clock of cached entries, free slots are null
+    private final Object lock = new Object();
+    private final Entry[] clock;
+    private int hand;
+    private FutureTask<GraphStore> snapshot;
+    private long cachedVersion;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * Creates a cache over a graph whose nodes and edges may change between queries.
+     *
+     * @param graph    The graph to search.
+     * @param capacity The largest number of trees kept.
+     * @throws IllegalArgumentException if the capacity is not positive.
+     */
+    public ShortestPathCache(Graph graph, int capacity) {
+        this(graph, null, graph::getVersion, capacity);
+    }
+
+    /**
+     * Creates a cache over a graph that never changes, e.g. an {@link OffHeapGraph}.
+     *
+     * @param store    The graph to search.
+     * @param capacity The largest number of trees kept.
+     * @throws IllegalArgumentException if the capacity is not positive.
+     */
+    public ShortestPathCache(GraphStore store, int capacity) {
+        this(null, store, () -> 0L, capacity);
+    }
+
+    private ShortestPathCache(Graph graph, GraphStore store, LongSupplier version, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The capacity must be positive, got " + capacity);
+        }
+        this.graph = graph;
+        this.fixedStore = store;
+        this.version = version;
+        this.capacity = capacity;
+        this.cachedVersion = version.getAsLong();
+        this.clock = new Entry[capacity];
+    }
+
+    /**
+     * The tree of one source, computed on the given version of the graph.
+     */
+    private static final class Entry {
+        private final int source;
+        private final long version;
+        private final FutureTask<ShortestPathTree> task;
+        private int slot;
+
+        /**
+         * Set on every hit and cleared by the clock hand, a set entry survives one more sweep.
+         */
+        private volatile boolean referenced;
+
+        private Entry(int source, long version, FutureTask<ShortestPathTree> task) {
+            this.source = source;
+            this.version = version;
+            this.task = task;
+        }
+    }
+
+    /**
+     * Returns the shortest path tree of a source, computing it on a miss.
+     *
+     * @param source The node id the paths start at.
+     * @return The distances and predecessors of all nodes, shared between callers, do not modify.
+     */
+    public ShortestPathTree getTree(int source) {
+        long current = version.getAsLong();
+        Entry entry = trees.get(source);
+        FutureTask<GraphStore> store = null;
+        if (entry == null || entry.version != current) {
+            synchronized (lock) {
+                validate(version.getAsLong());
+                entry = trees.get(source);
+                if (entry == null) {
+                    if (snapshot == null) {
+                        snapshot = new FutureTask<>(() -> fixedStore != null ? fixedStore : CompactGraph.of(graph));
+                    }
+                    FutureTask<GraphStore> search = snapshot;
+                    entry = new Entry(source, cachedVersion,
+                            new FutureTask<>(() -> Dijkstra.calculateShortestPathTree(await(search), source)));
+                    insert(entry);
+                    store = search;
+                }
+            }
+        }
+        if (store == null) {
+            hits.increment();
+            // Only write when needed, so that hot entries are not written by every reader
+            if (!entry.referenced) {
+                entry.referenced = true;
+            }
+        } else {
+            misses.increment();
+            // Only the first caller builds the snapshot, the others wait for it inside the search
+            store.run();
+            entry.task.run();
+        }
+        try {
+            return await(entry.task);
+        } catch (RuntimeException | Error e) {
+            // Let the next query retry instead of failing forever
+            synchronized (lock) {
+                if (trees.remove(source, entry) && clock[entry.slot] == entry) {
+                    clock[entry.slot] = null;
+                }
+                if (store != null && snapshot == store && failed(store)) {
+                    snapshot = null;
+                }
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * @param source A node of the graph.
+     * @return The shortest path tree of the source by node id.
+     * @throws IllegalStateException    if the cache was created on a {@link GraphStore}.
+     * @throws IllegalArgumentException if the node is not part of the graph.
+     */
+    public ShortestPathTree getTree(Node source) {
+        return getTree(requireGraph().getId(source));
+    }
+
+    /**
+     * @return The distance between two nodes, or {@code Double.POSITIVE_INFINITY} if the target is unreachable.
+     * @throws IllegalStateException    if the cache was created on a {@link GraphStore}.
+     * @throws IllegalArgumentException if a node is not part of the graph.
+     */
+    public double getDistance(Node source, Node target) {
+        return getTree(source).getDistance(graph.getId(target));
+    }
+
+    /**
+     * @return The nodes of the shortest path from source to target, both included, or an empty
+     * list if the target is unreachable.
+     * @throws IllegalStateException    if the cache was created on a {@link GraphStore}.
+     * @throws IllegalArgumentException if a node is not part of the graph.
+     */
+    public List<Node> getPath(Node source, Node target) {
+        int[] ids = getTree(source).getPath(graph.getId(target));
+        if (ids.length == 0) {
+            return Collections.emptyList();
+        }
+        List<Node> path = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            path.add(graph.getNode(id));
+        }
+        return path;
+    }
+
+    /**
+     * @return The number of queries answered from the cache.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return The number of queries that ran a search.
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return The number of trees dropped because the cache was full.
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return The number of times all trees were dropped because the graph changed.
+     */
+    public long getInvalidations() {
+        return invalidations.sum();
+    }
+
+    /**
+     * @return The share of queries answered from the cache, 0 before the first query.
+     */
+    public double getHitRate() {
+        long hit = getHits();
+        long total = hit + getMisses();
+        return total == 0 ? 0.0 : (double) hit / total;
+    }
+
+    /**
+     * @return The largest number of trees kept.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return The number of trees currently kept.
+     */
+    public int size() {
+        return trees.size();
+    }
+
+    /**
+     * Drops all trees, e.g. after changing the graph in a way the version does not track.
+     */
+    public void clear() {
+        synchronized (lock) {
+            trees.clear();
+            Arrays.fill(clock, null);
+            snapshot = null;
+        }
+    }
+
+    /**
+     * Drops all trees computed on an older version of the graph. Called with the lock held.
+     */
+    private void validate(long current) {
+        if (current != cachedVersion) {
+            cachedVersion = current;
+            trees.clear();
+            Arrays.fill(clock, null);
+            snapshot = null;
+            invalidations.increment();
+        }
+    }
+
+    /**
+     * Puts an entry into the first free slot of the clock, or else into the slot of the first entry
+     * not referenced since the hand last passed it. Called with the lock held.
+     */
+    private void insert(Entry entry) {
+        while (true) {
+            Entry resident = clock[hand];
+            if (resident == null) {
+                break;
+            }
+            if (resident.referenced) {
+                resident.referenced = false;
+            } else {
+                trees.remove(resident.source, resident);
+                evictions.increment();
+                break;
+            }
+            hand = (hand + 1) % capacity;
+        }
+        entry.slot = hand;
+        clock[hand] = entry;
+        trees.put(entry.source, entry);
+        hand = (hand + 1) % capacity;
+    }
+
+    private Graph requireGraph() {
+        if (graph == null) {
+            throw new IllegalStateException("The cache was created on a GraphStore, not on a Graph");
+        }
+        return graph;
+    }
+
+    private static boolean failed(FutureTask<?> task) {
+        if (task == null || !task.isDone()) {
+            return false;
+        }
+        try {
+            task.get();
+            return false;
+        } catch (InterruptedException | ExecutionException e) {
+            return true;
+        }
+    }
+
+    private static <T> T await(FutureTask<T> task) {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a search", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new RuntimeException(cause);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.jll.DijkstrasAlgorithim.DataStructures;
+
+import java.util.Arrays;
+
+/**
+ * The result of a shortest path search on a {@link GraphStore}: the distance of every node from
+ * the source and the predecessor of every node on its shortest path, both indexed by node id.
+ * <p>
+ * Nodes that were not reached have distance {@code Double.POSITIVE_INFINITY} and parent {@code -1}.
+ * The source is its own root and also has parent {@code -1}.
+ * </p>
+ *
+ * @author Ani Thyagarajan
+ */
+public class ShortestPathTree {
+
+    private final int source;
+    private final double[] distances;
+    private final int[] parents;
+
+    /**
+     * @param source    The node id the search started at.
+     * @param distances The distance of every node from the source.
+     * @param parents   The predecessor of every node on its shortest path.
+     */
+    public ShortestPathTree(int source, double[] distances, int[] parents) {
+        if (distances.length != parents.length) {
+            throw new IllegalArgumentException("Distances and parents must have the same length");
+        }
+        this.source = source;
+        this.distances = distances;
+        this.parents = parents;
+    }
+
+    /**
+     * @return The node id the search started at.
+     */
+    public int getSource() {
+        return source;
+    }
+
+    /**
+     * @param node A node id.
+     * @return The shortest distance from the source, or {@code Double.POSITIVE_INFINITY} if unreached.
+     */
+    public double getDistance(int node) {
+        return distances[node];
+    }
+
+    /**
+     * @param node A node id.
+     * @return The predecessor of the node on its shortest path, or {@code -1}.
+     */
+    public int getParent(int node) {
+        return parents[node];
+    }
+
+    /**
+     * @param node A node id.
+     * @return {@code true} if the search reached the node.
+     */
+    public boolean isReached(int node) {
+        return distances[node] != Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Walks the parent pointers back from a node to the source.
+     *
+     * @param target A node id.
+     * @return The node ids of the shortest path from the source to {@code target}, both included,
+     *         or an empty array if the target was not reached.
+     */
+    public int[] getPath(int target) {
+        if (!isReached(target)) {
+            return new int[0];
+        }
+        int length = 1;
+        for (int v = target; v != source; v = parents[v]) {
+            length++;
+        }
+        int[] path = new int[length];
+        for (int v = target, i = length - 1; i >= 0; v = parents[v], i--) {
+            path[i] = v;
+        }
+        return path;
+    }
+
+    /**
+     * @return A copy of the distances indexed by node id.
+     */
+    public double[] getDistances() {
+        return Arrays.copyOf(distances, distances.length);
+    }
+
+    /**
+     * @return The number of nodes the tree spans.
+     */
+    public int size() {
+        return distances.length;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.jll.DijkstrasAlgorithim.DataStructures;
+
+/**
+ * A spanning tree over the indices of a {@link DistanceMatrix}, stored as the parent of every index.
+ * The root, and every index the tree does not reach, has parent {@code -1}.
+ *
+ * @author Ani Thyagarajan
+ */
+public class SpanningTree {
+
+    private final int root;
+    private final int[] parents;
+    private final double weight;
+
+    /**
+     * @param root    The index the tree was grown from.
+     * @param parents The parent of every index.
+     * @param weight  The total weight of the tree edges.
+     */
+    public SpanningTree(int root, int[] parents, double weight) {
+        this.root = root;
+        this.parents = parents;
+        this.weight = weight;
+    }
+
+    /**
+     * @return The index the tree was grown from.
+     */
+    public int getRoot() {
+        return root;
+    }
+
+    /**
+     * @param index A matrix index.
+     * @return The parent of the index in the tree, or {@code -1}.
+     */
+    public int getParent(int index) {
+        return parents[index];
+    }
+
+    /**
+     * @return The total weight of the tree edges, {@code Double.POSITIVE_INFINITY} if the matrix
+     *         is disconnected.
+     */
+    public double getWeight() {
+        return weight;
+    }
+
+    /**
+     * @return The number of matrix indices.
+     */
+    public int size() {
+        return parents.length;
+    }
+}
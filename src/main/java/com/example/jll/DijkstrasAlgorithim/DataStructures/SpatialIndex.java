@@ -0,0 +1,365 @@
+package com.example.jll.DijkstrasAlgorithim.DataStructures;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * A k-d tree over the coordinates of nodes for nearest node, k nearest and radius queries, e.g. to
+ * snap a GPS point to the closest stop.
+ * <p>
+ * Every node is stored as a point on the unit sphere, so the straight-line distance between two
+ * points grows with their great-circle distance and the tree needs no special cases at the poles or
+ * the date line. The tree is balanced and implicit: the points are permuted so that every subarray
+ * has its splitting point in the middle, split along the axis of largest spread. Queries visit
+ * {@code O(log n)} points on average and results are reported as haversine distances in meters.
+ * </p>
+ * <p>
+ * Results are positions in the list of nodes the index was built from. The index is a snapshot,
+ * it has to be rebuilt when nodes are added or move.
+ * </p>
+ *
+ * @author Ani Thyagarajan
+ */
+public class SpatialIndex {
+
+    private final List<Node> nodes;
+
+    // The points in tree order and the list position of each
+    private final double[] x;
+    private final double[] y;
+    private final double[] z;
+    private final int[] ids;
+
+    /**
+     * The splitting axis of the subarray whose middle element is at each position.
+     */
+    private final byte[] axes;
+
+    /**
+     * Builds the index.
+     *
+     * @param nodes The nodes to index, their coordinates in degrees.
+     */
+    public SpatialIndex(List<Node> nodes) {
+        this.nodes = List.copyOf(nodes);
+        int n = nodes.size();
+        x = new double[n];
+        y = new double[n];
+        z = new double[n];
+        ids = new int[n];
+        axes = new byte[n];
+        for (int i = 0; i < n; i++) {
+            double latitude = Math.toRadians(nodes.get(i).getLatitude());
+            double longitude = Math.toRadians(nodes.get(i).getLongitude());
+            x[i] = Math.cos(latitude) * Math.cos(longitude);
+            y[i] = Math.cos(latitude) * Math.sin(longitude);
+            z[i] = Math.sin(latitude);
+            ids[i] = i;
+        }
+        build(0, n);
+    }
+
+    /**
+     * @return The number of indexed nodes.
+     */
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * @param index A position in the list of nodes.
+     * @return The node at that position.
+     */
+    public Node getNode(int index) {
+        return nodes.get(index);
+    }
+
+    /**
+     * @return The position of the node closest to the coordinate, or {@code -1} if the index is empty.
+     */
+    public int nearest(double latitude, double longitude) {
+        int[] nearest = nearest(latitude, longitude, 1);
+        return nearest.length == 0 ? -1 : nearest[0];
+    }
+
+    /**
+     * @return The node closest to the coordinate, or {@code null} if the index is empty.
+     */
+    public Node nearestNode(double latitude, double longitude) {
+        int nearest = nearest(latitude, longitude);
+        return nearest == -1 ? null : nodes.get(nearest);
+    }
+
+    /**
+     * @param k The number of nodes wanted.
+     * @return The positions of the {@code k} nodes closest to the coordinate, nearest first.
+     */
+    public int[] nearest(double latitude, double longitude, int k) {
+        double[] point = unitVector(latitude, longitude);
+        return nearest(point[0], point[1], point[2], k, -1);
+    }
+
+    /**
+     * @param k The number of nodes wanted.
+     * @return The {@code k} nodes closest to the coordinate, nearest first.
+     */
+    public List<Node> nearestNodes(double latitude, double longitude, int k) {
+        return toNodes(nearest(latitude, longitude, k));
+    }
+
+    /**
+     * @param meters The radius around the coordinate.
+     * @return The positions of all nodes within the radius, in no particular order.
+     */
+    public int[] withinRadius(double latitude, double longitude, double meters) {
+        double[] point = unitVector(latitude, longitude);
+        double angle = Math.min(Math.max(meters, 0.0) / GeoDistance.EARTH_RADIUS, Math.PI);
+        double chord = 2.0 * Math.sin(angle / 2.0);
+        IntList found = new IntList();
+        collect(0, ids.length, point[0], point[1], point[2], chord * chord * (1 + 1e-12), found);
+        return found.toArray();
+    }
+
+    /**
+     * @param meters The radius around the coordinate.
+     * @return All nodes within the radius, in no particular order.
+     */
+    public List<Node> nodesWithinRadius(double latitude, double longitude, double meters) {
+        return toNodes(withinRadius(latitude, longitude, meters));
+    }
+
+    /**
+     * Computes the candidate lists for the TSP local search, see
+     * {@link com.example.jll.TSP.TourImprovement#twoOpt(int[], int[][], com.example.jll.TSP.TourImprovement.EdgeCost)}.
+     *
+     * @param k The number of candidates per node.
+     * @return For every node position the positions of its {@code k} nearest other nodes, nearest first.
+     */
+    public int[][] candidateLists(int k) {
+        int[][] candidates = new int[ids.length][];
+        IntStream.range(0, ids.length).parallel().forEach(slot ->
+                candidates[ids[slot]] = nearest(x[slot], y[slot], z[slot], k, ids[slot]));
+        return candidates;
+    }
+
+    /**
+     * @return The haversine distance between the coordinate and a node in meters.
+     */
+    public double distance(double latitude, double longitude, int index) {
+        return GeoDistance.haversine(latitude, longitude, nodes.get(index).getLatitude(), nodes.get(index).getLongitude());
+    }
+
+    private int[] nearest(double px, double py, double pz, int k, int exclude) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must not be negative, got " + k);
+        }
+        Neighbors neighbors = new Neighbors(Math.min(k, ids.length));
+        if (neighbors.capacity > 0) {
+            search(0, ids.length, px, py, pz, exclude, neighbors);
+        }
+        return neighbors.sorted();
+    }
+
+    private void search(int from, int to, double px, double py, double pz, int exclude, Neighbors neighbors) {
+        if (from >= to) {
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        if (ids[middle] != exclude) {
+            double dx = x[middle] - px;
+            double dy = y[middle] - py;
+            double dz = z[middle] - pz;
+            neighbors.offer(ids[middle], dx * dx + dy * dy + dz * dz);
+        }
+        double difference = coordinate(middle, axes[middle]) - (axes[middle] == 0 ? px : axes[middle] == 1 ? py : pz);
+        boolean left = difference > 0;
+        search(left ? from : middle + 1, left ? middle : to, px, py, pz, exclude, neighbors);
+        if (difference * difference < neighbors.bound()) {
+            search(left ? middle + 1 : from, left ? to : middle, px, py, pz, exclude, neighbors);
+        }
+    }
+
+    private void collect(int from, int to, double px, double py, double pz, double limit, IntList found) {
+        if (from >= to) {
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        double dx = x[middle] - px;
+        double dy = y[middle] - py;
+        double dz = z[middle] - pz;
+        if (dx * dx + dy * dy + dz * dz <= limit) {
+            found.add(ids[middle]);
+        }
+        double difference = coordinate(middle, axes[middle]) - (axes[middle] == 0 ? px : axes[middle] == 1 ? py : pz);
+        if (difference > 0 || difference * difference <= limit) {
+            collect(from, middle, px, py, pz, limit, found);
+        }
+        if (difference <= 0 || difference * difference <= limit) {
+            collect(middle + 1, to, px, py, pz, limit, found);
+        }
+    }
+
+    /**
+     * Arranges {@code [from, to)} so that the middle element splits it along the axis of largest spread.
+     */
+    private void build(int from, int to) {
+        while (to - from > 1) {
+            double[] min = {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY};
+            double[] max = {Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+            for (int i = from; i < to; i++) {
+                for (int axis = 0; axis < 3; axis++) {
+                    min[axis] = Math.min(min[axis], coordinate(i, axis));
+                    max[axis] = Math.max(max[axis], coordinate(i, axis));
+                }
+            }
+            int axis = 0;
+            for (int a = 1; a < 3; a++) {
+                if (max[a] - min[a] > max[axis] - min[axis]) {
+                    axis = a;
+                }
+            }
+            int middle = (from + to) >>> 1;
+            select(from, to - 1, middle, axis);
+            axes[middle] = (byte) axis;
+            build(from, middle);
+            from = middle + 1;
+        }
+    }
+
+    /**
+     * Quickselect: moves the element of rank {@code k} along {@code axis} to position {@code k}.
+     */
+    private void select(int left, int right, int k, int axis) {
+        while (left < right) {
+            double pivot = coordinate((left + right) >>> 1, axis);
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (coordinate(i, axis) < pivot) {
+                    i++;
+                }
+                while (coordinate(j, axis) > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(i++, j--);
+                }
+            }
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private double coordinate(int i, int axis) {
+        return axis == 0 ? x[i] : axis == 1 ? y[i] : z[i];
+    }
+
+    private void swap(int i, int j) {
+        double t = x[i]; x[i] = x[j]; x[j] = t;
+        t = y[i]; y[i] = y[j]; y[j] = t;
+        t = z[i]; z[i] = z[j]; z[j] = t;
+        int id = ids[i]; ids[i] = ids[j]; ids[j] = id;
+    }
+
+    private static double[] unitVector(double latitude, double longitude) {
+        double phi = Math.toRadians(latitude);
+        double lambda = Math.toRadians(longitude);
+        return new double[]{Math.cos(phi) * Math.cos(lambda), Math.cos(phi) * Math.sin(lambda), Math.sin(phi)};
+    }
+
+    private List<Node> toNodes(int[] indices) {
+        List<Node> result = new ArrayList<>(indices.length);
+        for (int index : indices) {
+            result.add(nodes.get(index));
+        }
+        return result;
+    }
+
+    /**
+     * The best {@code capacity} points seen so far, in a max-heap on the squared chord length.
+     */
+    private static final class Neighbors {
+        private final int capacity;
+        private final int[] heap;
+        private final double[] keys;
+        private int size;
+
+        Neighbors(int capacity) {
+            this.capacity = capacity;
+            this.heap = new int[capacity];
+            this.keys = new double[capacity];
+        }
+
+        double bound() {
+            return size < capacity ? Double.POSITIVE_INFINITY : keys[0];
+        }
+
+        void offer(int id, double key) {
+            if (size < capacity) {
+                int i = size++;
+                while (i > 0 && keys[(i - 1) >>> 1] < key) {
+                    heap[i] = heap[(i - 1) >>> 1];
+                    keys[i] = keys[(i - 1) >>> 1];
+                    i = (i - 1) >>> 1;
+                }
+                heap[i] = id;
+                keys[i] = key;
+            } else if (key < keys[0]) {
+                siftDown(id, key, size);
+            }
+        }
+
+        private void siftDown(int id, double key, int end) {
+            int i = 0;
+            while (2 * i + 1 < end) {
+                int child = 2 * i + 1;
+                if (child + 1 < end && keys[child + 1] > keys[child]) {
+                    child++;
+                }
+                if (keys[child] <= key) {
+                    break;
+                }
+                heap[i] = heap[child];
+                keys[i] = keys[child];
+                i = child;
+            }
+            heap[i] = id;
+            keys[i] = key;
+        }
+
+        /**
+         * Empties the heap into an array, nearest first.
+         */
+        int[] sorted() {
+            int[] result = new int[size];
+            for (int end = size - 1; end >= 0; end--) {
+                result[end] = heap[0];
+                siftDown(heap[end], keys[end], end);
+            }
+            return result;
+        }
+    }
+
+    private static final class IntList {
+        private int[] values = new int[16];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
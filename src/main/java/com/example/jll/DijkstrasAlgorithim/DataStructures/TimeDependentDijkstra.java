@@ -0,0 +1,119 @@
+package com.example.jll.DijkstrasAlgorithim.DataStructures;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Earliest arrival search on a {@link Graph} whose edges may carry a {@link TravelTimeProfile},
+ * answering questions like "leaving at 7:40, when do we arrive?".
+ * <p>
+ * The search is Dijkstra's algorithm keyed by arrival time instead of distance: an edge is
+ * relaxed with the travel time at the moment its tail node is reached. Because every profile
+ * satisfies the FIFO property, arriving earlier at a node never hurts, so settling nodes in order
+ * of arrival is exact and no waiting at nodes is needed. Edges without a profile use their static
+ * weight at all times. Times are in the unit of the profiles, usually seconds since midnight.
+ * </p>
+ *
+ * @author Ani Thyagarajan
+ */
+public class TimeDependentDijkstra {
+
+    private TimeDependentDijkstra() {
+    }
+
+    /**
+     * Computes the earliest arrival at every node when leaving the source at the given time.
+     *
+     * @param graph         The graph to search.
+     * @param source        The node the trips start at.
+     * @param departureTime The time of departure from the source.
+     * @return The travel time to every node, i.e. its arrival time minus the departure time, and
+     *         the predecessor of every node on its fastest path, indexed by node id.
+     * @throws IllegalArgumentException if the source is not part of the graph.
+     */
+    public static ShortestPathTree calculateArrivalTree(Graph graph, Node source, double departureTime) {
+        return search(graph, graph.getId(source), -1, departureTime);
+    }
+
+    /**
+     * Computes the fastest path between two nodes, stopping as soon as the target is reached.
+     *
+     * @param graph         The graph containing both nodes.
+     * @param source        The node the trip starts at.
+     * @param target        The node the trip ends at.
+     * @param departureTime The time of departure from the source.
+     * @return The nodes of the fastest path, both ends included, or an empty list if the target is unreachable.
+     * @throws IllegalArgumentException if a node is not part of the graph.
+     */
+    public static List<Node> calculateFastestPath(Graph graph, Node source, Node target, double departureTime) {
+        int targetId = graph.getId(target);
+        ShortestPathTree tree = search(graph, graph.getId(source), targetId, departureTime);
+        if (!tree.isReached(targetId)) {
+            return Collections.emptyList();
+        }
+        LinkedList<Node> path = new LinkedList<>();
+        for (int v = targetId; v != -1; v = tree.getParent(v)) {
+            path.addFirst(graph.getNode(v));
+        }
+        return path;
+    }
+
+    /**
+     * Computes the earliest arrival at the target when leaving the source at the given time.
+     *
+     * @param graph         The graph containing both nodes.
+     * @param source        The node the trip starts at.
+     * @param target        The node the trip ends at.
+     * @param departureTime The time of departure from the source.
+     * @return The arrival time, or {@code Double.POSITIVE_INFINITY} if the target is unreachable.
+     * @throws IllegalArgumentException if a node is not part of the graph.
+     */
+    public static double calculateArrivalTime(Graph graph, Node source, Node target, double departureTime) {
+        int targetId = graph.getId(target);
+        return departureTime + search(graph, graph.getId(source), targetId, departureTime).getDistance(targetId);
+    }
+
+    private static ShortestPathTree search(Graph graph, int source, int target, double departureTime) {
+        int n = graph.size();
+        double[] arrivals = new double[n];
+        int[] parents = new int[n];
+        Arrays.fill(arrivals, Double.POSITIVE_INFINITY);
+        Arrays.fill(parents, -1);
+        DistanceHeap heap = new DistanceHeap(n);
+        arrivals[source] = departureTime;
+        heap.decreaseKey(source, departureTime);
+
+        while (!heap.isEmpty()) {
+            int current = heap.poll();
+            if (current == target) {
+                break;
+            }
+            Node node = graph.getNode(current);
+            double arrival = arrivals[current];
+            PrimitiveAdjacency adjacency = node.getAdjacentNodes();
+            for (int i = 0; i < adjacency.size(); i++) {
+                Node adjacentNode = adjacency.getTarget(i);
+                int adjacent = graph.findId(adjacentNode);
+                if (adjacent == -1) {
+                    continue;
+                }
+                TravelTimeProfile profile = node.getTravelTimeProfile(adjacentNode);
+                double candidate = profile == null
+                        ? arrival + adjacency.getWeight(i)
+                        : profile.getArrivalTime(arrival);
+                if (candidate < arrivals[adjacent]) {
+                    arrivals[adjacent] = candidate;
+                    parents[adjacent] = current;
+                    heap.decreaseKey(adjacent, candidate);
+                }
+            }
+        }
+
+        for (int v = 0; v < n; v++) {
+            arrivals[v] -= departureTime;
+        }
+        return new ShortestPathTree(source, arrivals, parents);
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.jll.DijkstrasAlgorithim.DataStructures;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * The travel time of an edge as a periodic piecewise-linear function of the departure time, e.g.
+ * the congestion pattern of a road over a day.
+ * <p>
+ * A profile is given by breakpoints within one period: departure times and the travel times at
+ * them. Between breakpoints the travel time is interpolated linearly, and after the last
+ * breakpoint it is interpolated towards the first one of the next period. Profiles satisfy the
+ * FIFO property: leaving later never means arriving earlier, i.e. no segment falls faster than
+ * slope -1. This is what makes the time-dependent search in {@link TimeDependentDijkstra} exact.
+ * </p>
+ * <p>
+ * Profiles are immutable and interned: {@link #of(double, double[], double[])} returns the same
+ * instance for the same breakpoints, so the edges of a large network share a handful of patterns
+ * instead of each holding its own copy.
+ * </p>
+ *
+ * @author Ani Thyagarajan
+ */
+public final class TravelTimeProfile {
+
+    /**
+     * The length of a day in seconds, the usual period of a traffic profile.
+     */
+    public static final double DAY = 24 * 3600;
+
+    private static final Map<TravelTimeProfile, WeakReference<TravelTimeProfile>> POOL = new WeakHashMap<>();
+
+    private final double period;
+    private final double[] departures;
+    private final double[] travelTimes;
+    private final double minimumTravelTime;
+    private final int hash;
+
+    private TravelTimeProfile(double period, double[] departures, double[] travelTimes) {
+        this.period = period;
+        this.departures = departures;
+        this.travelTimes = travelTimes;
+        this.minimumTravelTime = Arrays.stream(travelTimes).min().orElse(0.0);
+        this.hash = 31 * (31 * Double.hashCode(period) + Arrays.hashCode(departures)) + Arrays.hashCode(travelTimes);
+    }
+
+    /**
+     * Returns the shared profile with the given breakpoints.
+     *
+     * @param period      The length of the period, e.g. {@link #DAY}.
+     * @param departures  The departure times of the breakpoints, strictly increasing within {@code [0, period)}.
+     * @param travelTimes The non-negative travel times at the breakpoints.
+     * @return The interned profile.
+     * @throws IllegalArgumentException if the breakpoints are malformed or violate the FIFO property.
+     */
+    public static TravelTimeProfile of(double period, double[] departures, double[] travelTimes) {
+        if (!(period > 0.0) || Double.isInfinite(period)) {
+            throw new IllegalArgumentException("The period must be positive and finite, got " + period);
+        }
+        if (departures.length == 0 || departures.length != travelTimes.length) {
+            throw new IllegalArgumentException("A profile needs at least one breakpoint and one travel time per breakpoint");
+        }
+        for (int i = 0; i < departures.length; i++) {
+            if (!(departures[i] >= 0.0 && departures[i] < period) || (i > 0 && !(departures[i] > departures[i - 1]))) {
+                throw new IllegalArgumentException("Breakpoint departures must increase strictly within [0, period)");
+            }
+            if (!(travelTimes[i] >= 0.0) || Double.isInfinite(travelTimes[i])) {
+                throw new IllegalArgumentException("Travel times must be non-negative and finite, got " + travelTimes[i]);
+            }
+        }
+        int n = departures.length;
+        for (int i = 0; i < n; i++) {
+            int next = (i + 1) % n;
+            double span = next > i ? departures[next] - departures[i] : departures[next] + period - departures[i];
+            if (travelTimes[next] - travelTimes[i] < -span) {
+                throw new IllegalArgumentException("The travel time falls faster than time passes after departure "
+                        + departures[i] + ", which would let a later departure arrive earlier");
+            }
+        }
+
+        TravelTimeProfile profile = new TravelTimeProfile(period, departures.clone(), travelTimes.clone());
+        synchronized (POOL) {
+            WeakReference<TravelTimeProfile> shared = POOL.get(profile);
+            TravelTimeProfile existing = shared == null ? null : shared.get();
+            if (existing != null) {
+                return existing;
+            }
+            POOL.put(profile, new WeakReference<>(profile));
+            return profile;
+        }
+    }
+
+    /**
+     * @param travelTime The travel time at every time of day.
+     * @return The shared profile of an edge without congestion.
+     */
+    public static TravelTimeProfile constant(double travelTime) {
+        return of(DAY, new double[]{0.0}, new double[]{travelTime});
+    }
+
+    /**
+     * @param departure The departure time, any real number, it is reduced modulo the period.
+     * @return The travel time when leaving at that time.
+     */
+    public double getTravelTime(double departure) {
+        int n = departures.length;
+        if (n == 1) {
+            return travelTimes[0];
+        }
+        double time = departure - period * Math.floor(departure / period);
+        int i = Arrays.binarySearch(departures, time);
+        if (i >= 0) {
+            return travelTimes[i];
+        }
+        int next = -i - 1;
+        int previous = next - 1;
+        double start;
+        double end;
+        if (previous < 0) {
+            previous = n - 1;
+            start = departures[previous] - period;
+            end = departures[next];
+        } else if (next == n) {
+            next = 0;
+            start = departures[previous];
+            end = departures[next] + period;
+        } else {
+            start = departures[previous];
+            end = departures[next];
+        }
+        double fraction = (time - start) / (end - start);
+        return travelTimes[previous] + fraction * (travelTimes[next] - travelTimes[previous]);
+    }
+
+    /**
+     * @param departure The departure time.
+     * @return The arrival time when leaving at that time, never earlier than for an earlier departure.
+     */
+    public double getArrivalTime(double departure) {
+        return departure + getTravelTime(departure);
+    }
+
+    /**
+     * @return The lowest travel time over the period, a lower bound usable as a static edge weight.
+     */
+    public double getMinimumTravelTime() {
+        return minimumTravelTime;
+    }
+
+    /**
+     * @return The length of the period.
+     */
+    public double getPeriod() {
+        return period;
+    }
+
+    /**
+     * @return The number of breakpoints.
+     */
+    public int getBreakpointCount() {
+        return departures.length;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof TravelTimeProfile)) {
+            return false;
+        }
+        TravelTimeProfile profile = (TravelTimeProfile) other;
+        return hash == profile.hash && period == profile.period
+                && Arrays.equals(departures, profile.departures) && Arrays.equals(travelTimes, profile.travelTimes);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "TravelTimeProfile(" + departures.length + " breakpoints, min " + minimumTravelTime + ")";
+    }
+}
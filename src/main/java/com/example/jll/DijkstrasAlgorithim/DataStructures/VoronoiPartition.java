@@ -0,0 +1,146 @@
+package com.example.jll.DijkstrasAlgorithim.DataStructures;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The result of a multi-source search: every node labelled with its nearest source, e.g. its
+ * closest depot, and the distance to it. The labels partition the graph into one region per
+ * source, the graph Voronoi diagram.
+ * <p>
+ * Nodes at the same distance from several sources belong to the source listed first. Nodes that
+ * no source reaches have no label. When the partition was computed through
+ * {@link Graph#partitionByNearestSource(List)}, the results can also be queried by {@link Node}.
+ * </p>
+ *
+ * @author Ani Thyagarajan
+ */
+public class VoronoiPartition {
+
+    private final Graph graph;
+    private final int[] sources;
+    private final double[] distances;
+    private final int[] labels;
+    private final int[] parents;
+
+    VoronoiPartition(Graph graph, int[] sources, double[] distances, int[] labels, int[] parents) {
+        this.graph = graph;
+        this.sources = sources;
+        this.distances = distances;
+        this.labels = labels;
+        this.parents = parents;
+    }
+
+    /**
+     * @return The number of sources the search was seeded with.
+     */
+    public int getSourceCount() {
+        return sources.length;
+    }
+
+    /**
+     * @param index The position of a source in the list the search was seeded with.
+     * @return The node id of that source.
+     */
+    public int getSource(int index) {
+        return sources[index];
+    }
+
+    /**
+     * @param node A node id.
+     * @return The position of the node's nearest source in the seed list, or {@code -1} if unreached.
+     */
+    public int getSourceIndex(int node) {
+        return labels[node];
+    }
+
+    /**
+     * @param node A node id.
+     * @return The node id of the nearest source, or {@code -1} if unreached.
+     */
+    public int getNearestSource(int node) {
+        return labels[node] == -1 ? -1 : sources[labels[node]];
+    }
+
+    /**
+     * @param node A node id.
+     * @return The distance to the nearest source, or {@code Double.POSITIVE_INFINITY} if unreached.
+     */
+    public double getDistance(int node) {
+        return distances[node];
+    }
+
+    /**
+     * @param node A node id.
+     * @return The predecessor of the node on the shortest path from its nearest source, or {@code -1}.
+     */
+    public int getParent(int node) {
+        return parents[node];
+    }
+
+    /**
+     * @param index The position of a source in the seed list.
+     * @return The node ids assigned to that source, including the source itself.
+     */
+    public int[] getRegion(int index) {
+        int count = 0;
+        for (int label : labels) {
+            if (label == index) {
+                count++;
+            }
+        }
+        int[] region = new int[count];
+        for (int v = 0, i = 0; v < labels.length; v++) {
+            if (labels[v] == index) {
+                region[i++] = v;
+            }
+        }
+        return region;
+    }
+
+    /**
+     * @param node A node of the graph.
+     * @return The nearest source, or {@code null} if no source reaches the node.
+     * @throws IllegalStateException if the partition was not computed on a {@link Graph}.
+     */
+    public Node getNearestSource(Node node) {
+        int source = getNearestSource(requireGraph().getId(node));
+        return source == -1 ? null : graph.getNode(source);
+    }
+
+    /**
+     * @param node A node of the graph.
+     * @return The distance to the nearest source, or {@code Double.POSITIVE_INFINITY} if unreached.
+     * @throws IllegalStateException if the partition was not computed on a {@link Graph}.
+     */
+    public double getDistance(Node node) {
+        return distances[requireGraph().getId(node)];
+    }
+
+    /**
+     * @param source One of the sources of the search.
+     * @return The nodes assigned to that source, including the source itself.
+     * @throws IllegalArgumentException if the node is not one of the sources.
+     * @throws IllegalStateException    if the partition was not computed on a {@link Graph}.
+     */
+    public List<Node> getRegion(Node source) {
+        int id = requireGraph().getId(source);
+        for (int index = 0; index < sources.length; index++) {
+            if (sources[index] == id) {
+                List<Node> region = new ArrayList<>();
+                for (int node : getRegion(index)) {
+                    region.add(graph.getNode(node));
+                }
+                return region;
+            }
+        }
+        throw new IllegalArgumentException("The node " + source.getName() + " is not a source of the partition");
+    }
+
+    private Graph requireGraph() {
+        if (graph == null) {
+            throw new IllegalStateException("The partition was computed on node ids, not on a Graph");
+        }
+        return graph;
+    }
+}
@@ -1,18 +1,16 @@
 package com.example.jll.DijkstrasAlgorithim.Visualization;
 
 import com.example.jll.DijkstrasAlgorithim.DataStructures.Graph;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
-import com.example.jll.DijkstrasAlgorithim.DataStructures.Node;
+import com.example.jll.Instrumentation.ExportEvent;
 
 import java.awt.*;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.util.List;
 import java.util.UUID;
 
 /**
@@ -42,6 +40,11 @@ public class ForceDiagram {
      */
     private final Graph data;
 
+    /**
+     * The layout computed in Java, or {@code null} to run the force simulation in the browser.
+     */
+    private ForceLayout layout;
+
     /**
      * Constructs a new {@code ForceDiagram} that visualizes the shortest path.
      * <p>
@@ -78,88 +81,62 @@ public class ForceDiagram {
     }
 
 
-    private void createDiagram(boolean useShortestPath) {
-        List<Node> nodes = data.getNodes().stream().toList();
-
-        // JSON creation using Jackson
-        ObjectMapper mapper = new ObjectMapper();
-        ObjectNode graphJson = mapper.createObjectNode();
-
-        // Set graph title dynamically
-        graphJson.put("title", title);
-
-        // Arrays for nodes and links
-        ArrayNode nodesArray = mapper.createArrayNode();
-        ArrayNode linksArray = mapper.createArrayNode();
-
-        // Add nodes to the JSON array
-        for (Node node : nodes) {
-            ObjectNode nodeJson = mapper.createObjectNode();
-            nodeJson.put("id", node.getName());
-            nodeJson.put("group", getGroupForNode(node));  // Customize group logic if needed
-            nodesArray.add(nodeJson);
-        }
+    /**
+     * Constructs a new {@code ForceDiagram} whose layout is computed in Java before it is written.
+     * <p>
+     * Use this for graphs with more than a few thousand nodes: the browser only draws the
+     * precomputed positions on a canvas, switching to aggregated clusters when zoomed out, instead
+     * of running a live force simulation.
+     * </p>
+     *
+     * @param data       the graph data to be visualized
+     * @param title      the title of the diagram
+     * @param sourceNode the identifier of the source node to highlight the shortest path, or
+     *                   {@code null} to render the entire graph
+     * @param layout     the layout to compute the node positions with
+     */
+    public ForceDiagram(Graph data, String title, String sourceNode, ForceLayout layout) {
+        this.data = data;
+        this.title = title;
+        this.source = sourceNode;
+        this.layout = layout;
+        createDiagram(sourceNode != null);
+    }
 
+    private void createDiagram(boolean useShortestPath) {
+        ExportEvent event = new ExportEvent();
+        event.begin();
+        File jsonFile = null;
+        boolean success = false;
+        // Write JSON to file
+        try {
+            File outDir = new File("out").getAbsoluteFile();
+            if (!outDir.exists()) {
+                outDir.mkdirs();
+            }
+            // Generate a unique filename using UUID
+            String uniqueFileName = "plotData_" + UUID.randomUUID() + ".json";
 
-        for (Node node : nodes) {
-            if (!useShortestPath) {
-                node.getAdjacentNodes().forEach((dest, weight) -> {
-                    ObjectNode linkJson = mapper.createObjectNode();
-                    linkJson.put("source", node.getName());
-                    linkJson.put("target", dest.getName());
-                    linkJson.put("value", weight);  // Use the appropriate weight value
-                    linksArray.add(linkJson);
-                });
-            } else if (node != nodes.stream().filter(j -> j.getName().equals(source)).findFirst().orElseThrow()) {
-                    if (node.getShortestPath().size() > 1){
-                        for (int i = 0; i < node.getShortestPath().size(); i++) {
-                            try {
-                                Double distance = node.getShortestPath().get(i).getAdjacentNodes().get(node.getShortestPath().get(i+1));
-                                ObjectNode linkJson = mapper.createObjectNode();
-                                linkJson.put("source", node.getShortestPath().get(i).getName());
-                                linkJson.put("target", node.getShortestPath().get(i+1).getName());
-                                linkJson.put("value", distance);  // Use the appropriate weight value
-                                linksArray.add(linkJson);
-                            } catch (IndexOutOfBoundsException e) {
-                                Double distance = node.getShortestPath().get(i).getAdjacentNodes().get(node);
-                                ObjectNode linkJson = mapper.createObjectNode();
-                                linkJson.put("source", node.getShortestPath().get(i).getName());
-                                linkJson.put("target", node.getName());
-                                linkJson.put("value", distance);  // Use the appropriate weight value
-                                linksArray.add(linkJson);
-                            }
-                        }
-                    } else {
-                        Double distance = node.getShortestPath().get(0).getAdjacentNodes().get(node);
-                        ObjectNode linkJson = mapper.createObjectNode();
-                        linkJson.put("source", node.getShortestPath().get(0).getName());
-                        linkJson.put("target", node.getName());
-                        linkJson.put("value", distance);  // Use the appropriate weight value
-                        linksArray.add(linkJson);
-                    }
+            // Ensure the JSON file is written inside the 'out' directory
+            jsonFile = new File(outDir, uniqueFileName);
+            if (layout == null) {
+                JsonExport.pretty().writeDiagram(data, title, useShortestPath ? source : null, jsonFile);
+            } else {
+                GraphLayout positions = layout.layout(data);
+                try (OutputStream out = new FileOutputStream(jsonFile)) {
+                    JsonExport.compact().writeDiagram(data, title, useShortestPath ? source : null, positions, out);
                 }
-        }
-
-            // Add nodes and links to the main JSON object
-            graphJson.set("nodes", nodesArray);
-            graphJson.set("links", linksArray);
-
-            // Write JSON to file
-            try {
-                File outDir = new File("out").getAbsoluteFile();
-                // Generate a unique filename using UUID
-                String uniqueFileName = "plotData_" + UUID.randomUUID() + ".json";
-
-                // Ensure the JSON file is written inside the 'out' directory
-                File jsonFile = new File(outDir, uniqueFileName);
-                mapper.writerWithDefaultPrettyPrinter().writeValue(jsonFile, graphJson);
-
-                generateHtmlFile(uniqueFileName);
-            } catch (IOException e) {
-                System.out.println(e.getMessage());
-            } catch (URISyntaxException e) {
-                throw new RuntimeException(e);
             }
+
+            success = true;
+            generateHtmlFile(uniqueFileName);
+        } catch (IOException e) {
+            System.out.println(e.getMessage());
+        } catch (URISyntaxException e) {
+            throw new RuntimeException(e);
+        } finally {
+            event.complete(jsonFile, data.size(), layout != null, success);
+        }
     }
 
     private File generateHtmlFile(String jsonFilePath) throws IOException, URISyntaxException {
@@ -228,7 +205,11 @@ public class ForceDiagram {
                 "                        if (graph.description) {\n" +
                 "                            document.getElementById('graph-description').textContent = graph.description;\n" +
                 "                        }\n" +
-                "                        renderGraph(graph);\n" +
+                "                        if (graph.layout) {\n" +
+                "                            renderLayout(graph);\n" +
+                "                        } else {\n" +
+                "                            renderGraph(graph);\n" +
+                "                        }\n" +
                 "                    })\n" +
                 "                    .catch(function(error) {\n" +
                 "                        console.error(\"Error loading JSON:\", error);\n" +
@@ -237,6 +218,63 @@ public class ForceDiagram {
                 "            }, 500); // 500ms delay\n" +
                 "        };\n" +
                 "\n" +
+                "        // Draws precomputed positions on a canvas, showing the finest level of detail that stays\n" +
+                "        // below a fixed number of visible nodes at the current zoom\n" +
+                "        function renderLayout(graph) {\n" +
+                "            const svg = document.querySelector(\"svg\");\n" +
+                "            const width = +svg.getAttribute(\"width\"), height = +svg.getAttribute(\"height\");\n" +
+                "            const canvas = document.createElement(\"canvas\");\n" +
+                "            canvas.width = width;\n" +
+                "            canvas.height = height;\n" +
+                "            svg.replaceWith(canvas);\n" +
+                "            const context = canvas.getContext(\"2d\");\n" +
+                "\n" +
+                "            const levels = (graph.levels || []).concat([{nodes: graph.nodes, links: graph.links}]);\n" +
+                "            levels.forEach(level => level.byId = new Map(level.nodes.map(d => [d.id, d])));\n" +
+                "            const xs = d3.extent(graph.nodes, d => d.x), ys = d3.extent(graph.nodes, d => d.y);\n" +
+                "            const fit = 0.95 * Math.min(width / (xs[1] - xs[0] || 1), height / (ys[1] - ys[0] || 1));\n" +
+                "            const base = d3.zoomIdentity.translate(width / 2, height / 2).scale(fit)\n" +
+                "                .translate(-(xs[0] + xs[1]) / 2, -(ys[0] + ys[1]) / 2);\n" +
+                "            let transform = d3.zoomIdentity;\n" +
+                "\n" +
+                "            function draw() {\n" +
+                "                const k = transform.k;\n" +
+                "                let level = levels[0];\n" +
+                "                levels.forEach(l => { if (l.nodes.length <= 20000 * k * k) level = l; });\n" +
+                "                const detailed = level === levels[levels.length - 1];\n" +
+                "                context.save();\n" +
+                "                context.clearRect(0, 0, width, height);\n" +
+                "                context.translate(transform.x, transform.y);\n" +
+                "                context.scale(k, k);\n" +
+                "                context.transform(base.k, 0, 0, base.k, base.x, base.y);\n" +
+                "                context.lineWidth = 1 / (k * base.k);\n" +
+                "                context.strokeStyle = \"rgba(153, 153, 153, 0.6)\";\n" +
+                "                context.beginPath();\n" +
+                "                level.links.forEach(link => {\n" +
+                "                    const s = level.byId.get(link.source), t = level.byId.get(link.target);\n" +
+                "                    if (s && t) {\n" +
+                "                        context.moveTo(s.x, s.y);\n" +
+                "                        context.lineTo(t.x, t.y);\n" +
+                "                    }\n" +
+                "                });\n" +
+                "                context.stroke();\n" +
+                "                level.nodes.forEach(d => {\n" +
+                "                    const r = (detailed ? 3 : 2 + Math.sqrt(d.count)) / (k * base.k);\n" +
+                "                    context.fillStyle = detailed ? d3.schemeCategory10[d.group % 10] : \"steelblue\";\n" +
+                "                    context.beginPath();\n" +
+                "                    context.arc(d.x, d.y, r, 0, 2 * Math.PI);\n" +
+                "                    context.fill();\n" +
+                "                });\n" +
+                "                context.restore();\n" +
+                "            }\n" +
+                "\n" +
+                "            d3.select(canvas).call(d3.zoom().scaleExtent([0.5, 1000]).on(\"zoom\", event => {\n" +
+                "                transform = event.transform;\n" +
+                "                draw();\n" +
+                "            }));\n" +
+                "            draw();\n" +
+                "        }\n" +
+                "\n" +
                 "        function renderGraph(graph) {\n" +
                 "            const svg = d3.select(\"svg\"),\n" +
                 "                width = +svg.attr(\"width\"),\n" +
@@ -344,14 +382,4 @@ public class ForceDiagram {
 
         return htmlFile;
     }
-
-
-    private int getGroupForNode(Node node) {
-        // Example logic to determine the group for a node (customize as needed)
-        if (node.getName().equals(source)) {
-            return 1;
-        } else {
-            return 2;
-        }
-    }
 }
@@ -0,0 +1,341 @@
+package com.example.jll.DijkstrasAlgorithim.Visualization;
+
+import com.example.jll.DijkstrasAlgorithim.DataStructures.Graph;
+import com.example.jll.DijkstrasAlgorithim.DataStructures.Node;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * A force-directed layout computed in Java, so that the browser only has to draw the result
+ * instead of running a live simulation, which stops being usable after a few thousand nodes.
+ * <p>
+ * The layout follows Fruchterman and Reingold: all nodes repel each other, the two ends of every
+ * edge attract each other, and the distance a node may move per iteration shrinks linearly to zero
+ * over a fixed number of iterations. The all-pairs repulsion is approximated with a Barnes-Hut
+ * quadtree rebuilt every iteration: a cell that looks small from a node, i.e. whose side divided
+ * by its distance is below {@code theta}, acts as a single body at its center of mass. An iteration
+ * therefore costs {@code O(n log n + m)}, and the forces of all nodes are computed in parallel,
+ * each node only writing its own displacement.
+ * </p>
+ * <p>
+ * Nodes start on a phyllotaxis spiral like in d3, so the layout is deterministic. Edge directions
+ * are ignored and a weak gravity towards the origin keeps disconnected parts close.
+ * </p>
+ *
+ * @author Ani Thyagarajan
+ */
+public class ForceLayout {
+
+    /**
+     * The quadtree is not subdivided below this depth, bodies at the same point share a leaf.
+     */
+    private static final int MAX_DEPTH = 40;
+
+    /**
+     * The number of nodes handed to one parallel task.
+     */
+    private static final int CHUNK = 1024;
+
+    /**
+     * The preferred edge length.
+     */
+    private static final double EDGE_LENGTH = 10.0;
+
+    private static final double GRAVITY = 0.01;
+
+    private static final int EMPTY = -1;
+    private static final int INTERNAL = -2;
+    private static final int SHARED = -3;
+
+    private final int iterations;
+    private final double theta;
+
+    private int[] children;
+    private int[] bodies;
+    private double[] masses;
+    private double[] sumX;
+    private double[] sumY;
+    private double[] sides;
+    private int cells;
+
+    /**
+     * Creates a layout with 300 iterations and {@code theta = 0.8}.
+     */
+    public ForceLayout() {
+        this(300, 0.8);
+    }
+
+    /**
+     * @param iterations The fixed number of iterations.
+     * @param theta      The Barnes-Hut accuracy, 0 computes every pair exactly, around 1 is coarse but fast.
+     * @throws IllegalArgumentException if the iterations are negative or theta is negative.
+     */
+    public ForceLayout(int iterations, double theta) {
+        if (iterations < 0 || !(theta >= 0.0)) {
+            throw new IllegalArgumentException("Iterations and theta must be non-negative");
+        }
+        this.iterations = iterations;
+        this.theta = theta;
+    }
+
+    /**
+     * Lays out the nodes of a graph.
+     *
+     * @param graph The graph to lay out.
+     * @return The position of every node, indexed by node id.
+     */
+    public GraphLayout layout(Graph graph) {
+        int n = graph.size();
+        int[][] neighbors = undirectedNeighbors(graph);
+        double[] x = new double[n];
+        double[] y = new double[n];
+        double angle = Math.PI * (3 - Math.sqrt(5));
+        for (int v = 0; v < n; v++) {
+            double radius = EDGE_LENGTH * Math.sqrt(0.5 + v);
+            x[v] = radius * Math.cos(v * angle);
+            y[v] = radius * Math.sin(v * angle);
+        }
+
+        double[] dispX = new double[n];
+        double[] dispY = new double[n];
+        double start = EDGE_LENGTH * Math.sqrt(n);
+        int chunks = (n + CHUNK - 1) / CHUNK;
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            buildTree(x, y);
+            double temperature = start * (1.0 - (double) iteration / iterations);
+            IntStream.range(0, chunks).parallel().forEach(chunk -> {
+                int[] stack = new int[4 * MAX_DEPTH + 4];
+                int end = Math.min(n, (chunk + 1) * CHUNK);
+                for (int v = chunk * CHUNK; v < end; v++) {
+                    force(v, x, y, neighbors[v], stack, dispX, dispY);
+                }
+            });
+            IntStream.range(0, chunks).parallel().forEach(chunk -> {
+                int end = Math.min(n, (chunk + 1) * CHUNK);
+                for (int v = chunk * CHUNK; v < end; v++) {
+                    double length = Math.hypot(dispX[v], dispY[v]);
+                    if (length > 0.0) {
+                        double step = Math.min(length, temperature) / length;
+                        x[v] += dispX[v] * step;
+                        y[v] += dispY[v] * step;
+                    }
+                }
+            });
+        }
+        children = null;
+        bodies = null;
+        masses = sumX = sumY = sides = null;
+        return new GraphLayout(x, y);
+    }
+
+    /**
+     * Computes the displacement of one node from the quadtree and its edges.
+     */
+    private void force(int v, double[] x, double[] y, int[] neighbors, int[] stack, double[] dispX, double[] dispY) {
+        double k2 = EDGE_LENGTH * EDGE_LENGTH;
+        double fx = -GRAVITY * x[v];
+        double fy = -GRAVITY * y[v];
+
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int cell = stack[--top];
+            if (masses[cell] == 0.0 || bodies[cell] == v) {
+                continue;
+            }
+            double mass = masses[cell];
+            double dx = x[v] - sumX[cell];
+            double dy = y[v] - sumY[cell];
+            double distance = Math.hypot(dx, dy);
+            if (bodies[cell] != INTERNAL || sides[cell] < theta * distance) {
+                if (bodies[cell] == SHARED) {
+                    // v may be one of the bodies at this point, leave its own mass out
+                    mass -= isAt(cell, x[v], y[v]) ? 1.0 : 0.0;
+                }
+                if (distance > 0.0 && mass > 0.0) {
+                    double f = k2 * mass / (distance * distance);
+                    fx += dx * f;
+                    fy += dy * f;
+                }
+            } else {
+                for (int q = 0; q < 4; q++) {
+                    int child = children[4 * cell + q];
+                    if (child != 0) {
+                        stack[top++] = child;
+                    }
+                }
+            }
+        }
+
+        for (int w : neighbors) {
+            double dx = x[w] - x[v];
+            double dy = y[w] - y[v];
+            double distance = Math.hypot(dx, dy);
+            fx += dx * distance / EDGE_LENGTH;
+            fy += dy * distance / EDGE_LENGTH;
+        }
+        dispX[v] = fx;
+        dispY[v] = fy;
+    }
+
+    private boolean isAt(int cell, double x, double y) {
+        return Math.abs(sumX[cell] - x) < 1e-9 && Math.abs(sumY[cell] - y) < 1e-9;
+    }
+
+    /**
+     * Builds the quadtree of all nodes, with the mass and the center of mass of every cell. While
+     * the tree is built the position arrays hold sums, they are divided by the masses at the end.
+     */
+    private void buildTree(double[] x, double[] y) {
+        int n = x.length;
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (int v = 0; v < n; v++) {
+            minX = Math.min(minX, x[v]);
+            minY = Math.min(minY, y[v]);
+            maxX = Math.max(maxX, x[v]);
+            maxY = Math.max(maxY, y[v]);
+        }
+        double side = Math.max(Math.max(maxX - minX, maxY - minY), 1e-9);
+
+        int capacity = Math.max(16, 2 * n);
+        if (bodies == null || bodies.length < capacity) {
+            children = new int[4 * capacity];
+            bodies = new int[capacity];
+            masses = new double[capacity];
+            sumX = new double[capacity];
+            sumY = new double[capacity];
+            sides = new double[capacity];
+        }
+        cells = 0;
+        newCell(side);
+
+        for (int v = 0; v < n; v++) {
+            int cell = 0;
+            double left = minX;
+            double bottom = minY;
+            double size = side;
+            for (int depth = 0; ; depth++) {
+                if (bodies[cell] == EMPTY) {
+                    bodies[cell] = v;
+                    add(cell, x[v], y[v]);
+                    break;
+                }
+                if (bodies[cell] != INTERNAL) {
+                    double mass = masses[cell];
+                    double residentX = sumX[cell] / mass;
+                    double residentY = sumY[cell] / mass;
+                    if (depth == MAX_DEPTH || (residentX == x[v] && residentY == y[v])) {
+                        bodies[cell] = SHARED;
+                        add(cell, x[v], y[v]);
+                        break;
+                    }
+                    // Push the resident bodies down one level, their mass is already counted here
+                    double half = size / 2;
+                    int q = quadrant(residentX, residentY, left + half, bottom + half);
+                    int child = newCell(half);
+                    children[4 * cell + q] = child;
+                    bodies[child] = bodies[cell];
+                    masses[child] = mass;
+                    sumX[child] = sumX[cell];
+                    sumY[child] = sumY[cell];
+                    bodies[cell] = INTERNAL;
+                }
+                add(cell, x[v], y[v]);
+                double half = size / 2;
+                int q = quadrant(x[v], y[v], left + half, bottom + half);
+                if ((q & 1) != 0) {
+                    left += half;
+                }
+                if ((q & 2) != 0) {
+                    bottom += half;
+                }
+                size = half;
+                int child = children[4 * cell + q];
+                if (child == 0) {
+                    child = newCell(half);
+                    children[4 * cell + q] = child;
+                }
+                cell = child;
+            }
+        }
+        for (int cell = 0; cell < cells; cell++) {
+            if (masses[cell] > 0.0) {
+                sumX[cell] /= masses[cell];
+                sumY[cell] /= masses[cell];
+            }
+        }
+    }
+
+    private static int quadrant(double x, double y, double midX, double midY) {
+        return (x >= midX ? 1 : 0) | (y >= midY ? 2 : 0);
+    }
+
+    private int newCell(double side) {
+        if (cells == bodies.length) {
+            int capacity = bodies.length * 2;
+            children = Arrays.copyOf(children, 4 * capacity);
+            bodies = Arrays.copyOf(bodies, capacity);
+            masses = Arrays.copyOf(masses, capacity);
+            sumX = Arrays.copyOf(sumX, capacity);
+            sumY = Arrays.copyOf(sumY, capacity);
+            sides = Arrays.copyOf(sides, capacity);
+        }
+        int cell = cells++;
+        Arrays.fill(children, 4 * cell, 4 * cell + 4, 0);
+        bodies[cell] = EMPTY;
+        masses[cell] = 0.0;
+        sumX[cell] = 0.0;
+        sumY[cell] = 0.0;
+        sides[cell] = side;
+        return cell;
+    }
+
+    private void add(int cell, double x, double y) {
+        masses[cell] += 1.0;
+        sumX[cell] += x;
+        sumY[cell] += y;
+    }
+
+    /**
+     * Collects the neighbors of every node over edges in either direction, by node id.
+     */
+    private static int[][] undirectedNeighbors(Graph graph) {
+        int n = graph.size();
+        int[] degree = new int[n];
+        for (int u = 0; u < n; u++) {
+            for (Node target : graph.getNode(u).getAdjacentNodes().keySet()) {
+                int v = idOf(graph, target);
+                if (v != -1 && v != u) {
+                    degree[u]++;
+                    degree[v]++;
+                }
+            }
+        }
+        int[][] neighbors = new int[n][];
+        for (int v = 0; v < n; v++) {
+            neighbors[v] = new int[degree[v]];
+            degree[v] = 0;
+        }
+        for (int u = 0; u < n; u++) {
+            for (Node target : graph.getNode(u).getAdjacentNodes().keySet()) {
+                int v = idOf(graph, target);
+                if (v != -1 && v != u) {
+                    neighbors[u][degree[u]++] = v;
+                    neighbors[v][degree[v]++] = u;
+                }
+            }
+        }
+        return neighbors;
+    }
+
+    /**
+     * @return The id of the node, or -1 if the edge leaves the graph.
+     */
+    private static int idOf(Graph graph, Node node) {
+        return graph.containsNode(node.getName()) && graph.getNode(node.getName()) == node ? graph.getId(node) : -1;
+    }
+}
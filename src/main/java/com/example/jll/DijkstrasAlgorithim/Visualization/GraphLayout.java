@@ -0,0 +1,156 @@
+package com.example.jll.DijkstrasAlgorithim.Visualization;
+
+import java.util.Arrays;
+
+/**
+ * The positions of the nodes of a graph in the plane, indexed by node id, as computed by
+ * {@link ForceLayout}.
+ * <p>
+ * For drawing very large graphs the layout can be aggregated into coarser levels of detail: the
+ * bounding box is cut into a grid and all nodes in a cell are merged into one cluster at their
+ * mean position. A viewer draws a coarse level when zoomed out and the single nodes when zoomed in.
+ * </p>
+ *
+ * @author Ani Thyagarajan
+ */
+public class GraphLayout {
+
+    /**
+     * The largest number of cells per side of an aggregation grid.
+     */
+    public static final int MAX_GRID = 1 << 12;
+
+    /**
+     * One level of detail: the non-empty grid cells of the layout as clusters.
+     */
+    public static final class Level {
+        private final int grid;
+        private final int[] clusterOf;
+        private final double[] x;
+        private final double[] y;
+        private final int[] counts;
+
+        Level(int grid, int[] clusterOf, double[] x, double[] y, int[] counts) {
+            this.grid = grid;
+            this.clusterOf = clusterOf;
+            this.x = x;
+            this.y = y;
+            this.counts = counts;
+        }
+
+        /**
+         * @return The number of cells per side of the grid.
+         */
+        public int getGrid() {
+            return grid;
+        }
+
+        /**
+         * @return The number of clusters, i.e. of non-empty cells.
+         */
+        public int size() {
+            return counts.length;
+        }
+
+        /**
+         * @param node A node id.
+         * @return The cluster the node was merged into.
+         */
+        public int getCluster(int node) {
+            return clusterOf[node];
+        }
+
+        public double getX(int cluster) {
+            return x[cluster];
+        }
+
+        public double getY(int cluster) {
+            return y[cluster];
+        }
+
+        /**
+         * @param cluster A cluster.
+         * @return The number of nodes merged into it.
+         */
+        public int getCount(int cluster) {
+            return counts[cluster];
+        }
+    }
+
+    private final double[] x;
+    private final double[] y;
+
+    /**
+     * @param x The horizontal position of every node.
+     * @param y The vertical position of every node.
+     */
+    public GraphLayout(double[] x, double[] y) {
+        if (x.length != y.length) {
+            throw new IllegalArgumentException("Both coordinates are needed for every node");
+        }
+        this.x = x;
+        this.y = y;
+    }
+
+    /**
+     * @return The number of nodes.
+     */
+    public int size() {
+        return x.length;
+    }
+
+    public double getX(int node) {
+        return x[node];
+    }
+
+    public double getY(int node) {
+        return y[node];
+    }
+
+    /**
+     * Merges the nodes of every cell of a square grid over the layout into a cluster.
+     *
+     * @param grid The number of cells per side.
+     * @return The clusters, numbered in the order their first node appears.
+     * @throws IllegalArgumentException if the grid is not positive or larger than {@link #MAX_GRID}.
+     */
+    public Level aggregate(int grid) {
+        if (grid < 1 || grid > MAX_GRID) {
+            throw new IllegalArgumentException("The grid must have between 1 and " + MAX_GRID + " cells per side, got " + grid);
+        }
+        double minX = Arrays.stream(x).min().orElse(0.0);
+        double minY = Arrays.stream(y).min().orElse(0.0);
+        double side = Math.max(Math.max(Arrays.stream(x).max().orElse(0.0) - minX,
+                Arrays.stream(y).max().orElse(0.0) - minY), 1e-9);
+
+        int n = x.length;
+        int[] clusterOf = new int[n];
+        int[] clusterOfCell = new int[grid * grid];
+        Arrays.fill(clusterOfCell, -1);
+        double[] sumX = new double[Math.min(n, grid * grid)];
+        double[] sumY = new double[sumX.length];
+        int[] counts = new int[sumX.length];
+        int clusters = 0;
+        for (int v = 0; v < n; v++) {
+            int column = Math.min(grid - 1, (int) ((x[v] - minX) / side * grid));
+            int row = Math.min(grid - 1, (int) ((y[v] - minY) / side * grid));
+            int cell = row * grid + column;
+            if (clusterOfCell[cell] == -1) {
+                clusterOfCell[cell] = clusters++;
+            }
+            int cluster = clusterOfCell[cell];
+            clusterOf[v] = cluster;
+            sumX[cluster] += x[v];
+            sumY[cluster] += y[v];
+            counts[cluster]++;
+        }
+        counts = Arrays.copyOf(counts, clusters);
+        double[] meanX = new double[clusters];
+        double[] meanY = new double[clusters];
+        for (int c = 0; c < clusters; c++) {
+            meanX[c] = sumX[c] / counts[c];
+            meanY[c] = sumY[c] / counts[c];
+        }
+        return new Level(grid, clusterOf, meanX, meanY, counts);
+    }
+}
@@ -0,0 +1,416 @@
+package com.example.jll.DijkstrasAlgorithim.Visualization;
+
+import com.example.jll.DijkstrasAlgorithim.DataStructures.Graph;
+import com.example.jll.DijkstrasAlgorithim.DataStructures.Isochrone;
+import com.example.jll.DijkstrasAlgorithim.DataStructures.Node;
+import com.example.jll.DijkstrasAlgorithim.DataStructures.PrimitiveAdjacency;
+import com.example.jll.DijkstrasAlgorithim.DataStructures.ShortestPathTree;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.*;
+
+/**
+ * Streams graphs and shortest path trees to the JSON read by the diagram and map pages, with
+ * Jackson's {@link JsonGenerator}.
+ * <p>
+ * Nothing is built in memory: nodes and edges are written as they are visited, so exports of
+ * large results take time linear in their size and constant memory. A shortest path tree is
+ * written as one edge per reached node, from its predecessor to it, so every tree edge appears
+ * exactly once no matter how many shortest paths share it. The output is either indented for
+ * reading or compact for size.
+ * </p>
+ *
+ * @author Ani Thyagarajan
+ */
+public class JsonExport {
+
+    /**
+     * The number of nodes above which a diagram with a precomputed layout gets levels of detail.
+     */
+    public static final int DETAIL_THRESHOLD = 2000;
+
+    /**
+     * The smallest average number of nodes per cluster on the finest level of detail.
+     */
+    private static final int NODES_PER_CLUSTER = 4;
+
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    private final boolean pretty;
+
+    private JsonExport(boolean pretty) {
+        this.pretty = pretty;
+    }
+
+    /**
+     * @return An exporter writing indented JSON.
+     */
+    public static JsonExport pretty() {
+        return new JsonExport(true);
+    }
+
+    /**
+     * @return An exporter writing JSON without whitespace.
+     */
+    public static JsonExport compact() {
+        return new JsonExport(false);
+    }
+
+    /**
+     * Writes the diagram data of a graph: its title, its nodes with the source in its own group,
+     * and either all edges or, when a source is given, the edges of the shortest path tree left on
+     * the nodes by {@link com.example.jll.DijkstrasAlgorithim.DataStructures.Dijkstra#calculateShortestPathFromSource(Node)}.
+     *
+     * @param graph      The graph to export.
+     * @param title      The title of the diagram.
+     * @param sourceName The name of the source of the shortest path tree, or {@code null} for all edges.
+     * @param out        The stream to write to, it is not closed.
+     * @throws IOException if writing fails.
+     */
+    public void writeDiagram(Graph graph, String title, String sourceName, OutputStream out) throws IOException {
+        writeDiagram(graph, title, sourceName, null, out);
+    }
+
+    /**
+     * Writes the diagram data of a graph like {@link #writeDiagram(Graph, String, String, OutputStream)},
+     * with the precomputed position of every node. Graphs with more than {@link #DETAIL_THRESHOLD}
+     * nodes also get coarser levels of detail, from a grid of 8 by 8 cells up to grids with a
+     * cluster for every few nodes, each with its clusters and the number of links between them.
+     *
+     * @param graph      The graph to export.
+     * @param title      The title of the diagram.
+     * @param sourceName The name of the source of the shortest path tree, or {@code null} for all edges.
+     * @param layout     The positions of the nodes, or {@code null} to leave the layout to the browser.
+     * @param out        The stream to write to, it is not closed.
+     * @throws IOException if writing fails.
+     */
+    public void writeDiagram(Graph graph, String title, String sourceName, GraphLayout layout, OutputStream out) throws IOException {
+        Node source = sourceName == null ? null : graph.getNode(sourceName);
+        List<GraphLayout.Level> levels = levelsOfDetail(layout);
+        List<Map<Long, int[]>> levelLinks = new ArrayList<>();
+        levels.forEach(level -> levelLinks.add(new HashMap<>()));
+        try (JsonGenerator generator = open(out)) {
+            generator.writeStartObject();
+            generator.writeStringField("title", title);
+            if (layout != null) {
+                generator.writeBooleanField("layout", true);
+            }
+            generator.writeArrayFieldStart("nodes");
+            int id = 0;
+            for (Node node : graph.getNodes()) {
+                generator.writeStartObject();
+                generator.writeStringField("id", node.getName());
+                generator.writeNumberField("group", node == source ? 1 : 2);
+                if (layout != null) {
+                    generator.writeNumberField("x", layout.getX(id));
+                    generator.writeNumberField("y", layout.getY(id));
+                }
+                generator.writeEndObject();
+                id++;
+            }
+            generator.writeEndArray();
+            generator.writeArrayFieldStart("links");
+            if (source == null) {
+                for (Node node : graph.getNodes()) {
+                    PrimitiveAdjacency adjacency = node.getAdjacentNodes();
+                    for (int i = 0; i < adjacency.size(); i++) {
+                        writeLink(generator, node, adjacency.getTarget(i), adjacency.getWeight(i));
+                        countLink(graph, levels, levelLinks, node, adjacency.getTarget(i));
+                    }
+                }
+            } else {
+                for (Node node : graph.getNodes()) {
+                    List<Node> path = node.getShortestPath();
+                    if (node != source && !path.isEmpty()) {
+                        Node parent = path.get(path.size() - 1);
+                        writeLink(generator, parent, node, parent.getAdjacentNodes().getWeight(node));
+                        countLink(graph, levels, levelLinks, parent, node);
+                    }
+                }
+            }
+            generator.writeEndArray();
+            if (!levels.isEmpty()) {
+                writeLevels(generator, levels, levelLinks);
+            }
+            generator.writeEndObject();
+        }
+    }
+
+    /**
+     * Writes the map data of a shortest path tree left on the nodes by
+     * {@link com.example.jll.DijkstrasAlgorithim.DataStructures.Dijkstra#calculateShortestPathFromSource(Node)}:
+     * the nodes with their coordinates and one link per tree edge.
+     *
+     * @param nodes  The nodes to export.
+     * @param source The source of the shortest path tree.
+     * @param out    The stream to write to, it is not closed.
+     * @throws IOException if writing fails.
+     */
+    public void writeMap(Collection<Node> nodes, Node source, OutputStream out) throws IOException {
+        try (JsonGenerator generator = open(out)) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("nodes");
+            for (Node node : nodes) {
+                generator.writeStartObject();
+                generator.writeStringField("id", node.getName());
+                generator.writeNumberField("latitude", node.getLatitude());
+                generator.writeNumberField("longitude", node.getLongitude());
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.writeArrayFieldStart("links");
+            writeTreeLinks(generator, nodes, source);
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+    }
+
+    /**
+     * Writes the diagram data of a shortest path tree computed on node ids, e.g. by
+     * {@link com.example.jll.DijkstrasAlgorithim.DataStructures.Dijkstra#calculateShortestPathTree(com.example.jll.DijkstrasAlgorithim.DataStructures.GraphStore, int)}
+     * on {@code CompactGraph.of(graph)}.
+     *
+     * @param graph The graph whose ids the tree uses.
+     * @param tree  The tree to export.
+     * @param title The title of the diagram.
+     * @param out   The stream to write to, it is not closed.
+     * @throws IOException if writing fails.
+     */
+    public void writeShortestPathTree(Graph graph, ShortestPathTree tree, String title, OutputStream out) throws IOException {
+        try (JsonGenerator generator = open(out)) {
+            generator.writeStartObject();
+            generator.writeStringField("title", title);
+            generator.writeArrayFieldStart("nodes");
+            for (int v = 0; v < tree.size(); v++) {
+                generator.writeStartObject();
+                generator.writeStringField("id", graph.getNode(v).getName());
+                generator.writeNumberField("group", v == tree.getSource() ? 1 : 2);
+                if (tree.isReached(v)) {
+                    generator.writeNumberField("distance", tree.getDistance(v));
+                } else {
+                    generator.writeNullField("distance");
+                }
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.writeArrayFieldStart("links");
+            for (int v = 0; v < tree.size(); v++) {
+                int parent = tree.getParent(v);
+                if (parent != -1) {
+                    Node from = graph.getNode(parent);
+                    Node to = graph.getNode(v);
+                    writeLink(generator, from, to, from.getAdjacentNodes().getWeight(to));
+                }
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+    }
+
+    /**
+     * Writes the map data of an isochrone: the reached nodes with their coordinates, distance and
+     * band, one link per shortest path tree edge, and optionally the convex hull of every band as a
+     * closed ring of {@code [longitude, latitude]} pairs like in GeoJSON.
+     *
+     * @param graph     The graph the isochrone was computed on.
+     * @param isochrone The isochrone to export.
+     * @param hulls     Whether to write the hull of every band.
+     * @param out       The stream to write to, it is not closed.
+     * @throws IOException if writing fails.
+     * @throws IllegalStateException if hulls are requested but the isochrone was computed on node ids.
+     */
+    public void writeIsochrone(Graph graph, Isochrone isochrone, boolean hulls, OutputStream out) throws IOException {
+        int[] reached = isochrone.getReachable(isochrone.getBudgetCount() - 1);
+        try (JsonGenerator generator = open(out)) {
+            generator.writeStartObject();
+            generator.writeStringField("source", graph.getNode(isochrone.getSource()).getName());
+            generator.writeArrayFieldStart("budgets");
+            for (int band = 0; band < isochrone.getBudgetCount(); band++) {
+                generator.writeNumber(isochrone.getBudget(band));
+            }
+            generator.writeEndArray();
+            generator.writeArrayFieldStart("nodes");
+            for (int v : reached) {
+                Node node = graph.getNode(v);
+                generator.writeStartObject();
+                generator.writeStringField("id", node.getName());
+                generator.writeNumberField("latitude", node.getLatitude());
+                generator.writeNumberField("longitude", node.getLongitude());
+                generator.writeNumberField("distance", isochrone.getDistance(v));
+                generator.writeNumberField("band", isochrone.getBand(v));
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.writeArrayFieldStart("links");
+            for (int v : reached) {
+                int parent = isochrone.getParent(v);
+                if (parent != -1) {
+                    Node from = graph.getNode(parent);
+                    Node to = graph.getNode(v);
+                    writeLink(generator, from, to, from.getAdjacentNodes().getWeight(to));
+                }
+            }
+            generator.writeEndArray();
+            if (hulls) {
+                generator.writeArrayFieldStart("hulls");
+                for (int band = 0; band < isochrone.getBudgetCount(); band++) {
+                    List<Node> hull = isochrone.getHull(band);
+                    generator.writeStartObject();
+                    generator.writeNumberField("budget", isochrone.getBudget(band));
+                    generator.writeArrayFieldStart("coordinates");
+                    for (int i = 0; i <= hull.size(); i++) {
+                        Node corner = hull.get(i % hull.size());
+                        generator.writeStartArray();
+                        generator.writeNumber(corner.getLongitude());
+                        generator.writeNumber(corner.getLatitude());
+                        generator.writeEndArray();
+                    }
+                    generator.writeEndArray();
+                    generator.writeEndObject();
+                }
+                generator.writeEndArray();
+            }
+            generator.writeEndObject();
+        }
+    }
+
+    /**
+     * Writes the diagram data of a graph to a file, see {@link #writeDiagram(Graph, String, String, OutputStream)}.
+     *
+     * @throws IOException if writing fails.
+     */
+    public void writeDiagram(Graph graph, String title, String sourceName, File file) throws IOException {
+        try (OutputStream out = new FileOutputStream(file)) {
+            writeDiagram(graph, title, sourceName, out);
+        }
+    }
+
+    /**
+     * Writes the map data of a shortest path tree to a file, see {@link #writeMap(Collection, Node, OutputStream)}.
+     *
+     * @throws IOException if writing fails.
+     */
+    public void writeMap(Collection<Node> nodes, Node source, File file) throws IOException {
+        try (OutputStream out = new FileOutputStream(file)) {
+            writeMap(nodes, source, out);
+        }
+    }
+
+    /**
+     * Writes the map data of an isochrone to a file, see {@link #writeIsochrone(Graph, Isochrone, boolean, OutputStream)}.
+     *
+     * @throws IOException if writing fails.
+     */
+    public void writeIsochrone(Graph graph, Isochrone isochrone, boolean hulls, File file) throws IOException {
+        try (OutputStream out = new FileOutputStream(file)) {
+            writeIsochrone(graph, isochrone, hulls, out);
+        }
+    }
+
+    /**
+     * Picks grids from 8 by 8 cells upwards, doubling until the clusters would hold fewer than
+     * {@link #NODES_PER_CLUSTER} nodes on average.
+     */
+    private static List<GraphLayout.Level> levelsOfDetail(GraphLayout layout) {
+        List<GraphLayout.Level> levels = new ArrayList<>();
+        if (layout == null || layout.size() <= DETAIL_THRESHOLD) {
+            return levels;
+        }
+        for (int grid = 8; grid <= GraphLayout.MAX_GRID; grid *= 2) {
+            GraphLayout.Level level = layout.aggregate(grid);
+            if (level.size() * NODES_PER_CLUSTER > layout.size()) {
+                break;
+            }
+            levels.add(level);
+        }
+        return levels;
+    }
+
+    /**
+     * Counts a link between the clusters of its ends on every level of detail.
+     */
+    private static void countLink(Graph graph, List<GraphLayout.Level> levels, List<Map<Long, int[]>> levelLinks,
+                                  Node from, Node to) {
+        if (levels.isEmpty() || !graph.containsNode(to.getName()) || graph.getNode(to.getName()) != to) {
+            return;
+        }
+        int u = graph.getId(from);
+        int v = graph.getId(to);
+        for (int i = 0; i < levels.size(); i++) {
+            int a = levels.get(i).getCluster(u);
+            int b = levels.get(i).getCluster(v);
+            if (a != b) {
+                long key = ((long) Math.min(a, b) << 32) | Math.max(a, b);
+                levelLinks.get(i).computeIfAbsent(key, k -> new int[1])[0]++;
+            }
+        }
+    }
+
+    private static void writeLevels(JsonGenerator generator, List<GraphLayout.Level> levels,
+                                    List<Map<Long, int[]>> levelLinks) throws IOException {
+        generator.writeArrayFieldStart("levels");
+        for (int i = 0; i < levels.size(); i++) {
+            GraphLayout.Level level = levels.get(i);
+            generator.writeStartObject();
+            generator.writeNumberField("grid", level.getGrid());
+            generator.writeArrayFieldStart("nodes");
+            for (int c = 0; c < level.size(); c++) {
+                generator.writeStartObject();
+                generator.writeNumberField("id", c);
+                generator.writeNumberField("x", level.getX(c));
+                generator.writeNumberField("y", level.getY(c));
+                generator.writeNumberField("count", level.getCount(c));
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.writeArrayFieldStart("links");
+            for (Map.Entry<Long, int[]> link : levelLinks.get(i).entrySet()) {
+                generator.writeStartObject();
+                generator.writeNumberField("source", (int) (link.getKey() >>> 32));
+                generator.writeNumberField("target", (int) (long) link.getKey());
+                generator.writeNumberField("value", link.getValue()[0]);
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+    }
+
+    /**
+     * Writes one link per reached node from the last node of its shortest path to it.
+     */
+    private static void writeTreeLinks(JsonGenerator generator, Collection<Node> nodes, Node source) throws IOException {
+        for (Node node : nodes) {
+            List<Node> path = node.getShortestPath();
+            if (node == source || path.isEmpty()) {
+                continue;
+            }
+            Node parent = path.get(path.size() - 1);
+            writeLink(generator, parent, node, parent.getAdjacentNodes().getWeight(node));
+        }
+    }
+
+    private static void writeLink(JsonGenerator generator, Node from, Node to, double weight) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("source", from.getName());
+        generator.writeStringField("target", to.getName());
+        generator.writeNumberField("value", weight);
+        generator.writeEndObject();
+    }
+
+    private JsonGenerator open(OutputStream out) throws IOException {
+        JsonGenerator generator = FACTORY.createGenerator(out, JsonEncoding.UTF8);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        if (pretty) {
+            generator.useDefaultPrettyPrinter();
+        }
+        return generator;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.jll.Instrumentation;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.io.File;
+
+/**
+ * A Java Flight Recorder event for writing one visualization, including the layout if it is
+ * computed in Java and the JSON export.
+ *
+ * @author Ani Thyagarajan
+ */
+@Name("com.example.jll.Export")
+@Label("Diagram Export")
+@Category({"Java Logistics Library", "Export"})
+@Description("Laying out a graph and writing it to JSON for the browser")
+@StackTrace(false)
+public final class ExportEvent extends Event {
+
+    @Label("File")
+    private String file;
+
+    @Label("Nodes")
+    private int nodes;
+
+    @Label("File Size")
+    @DataAmount
+    private long bytes;
+
+    @Label("Layout In Java")
+    private boolean layout;
+
+    @Label("Outcome")
+    private String outcome;
+
+    /**
+     * Ends the event and commits it if it is recorded, the fields are only filled in then.
+     *
+     * @param file    The JSON file written, or {@code null} if it was never created.
+     * @param nodes   The number of nodes exported.
+     * @param layout  Whether the positions were computed in Java.
+     * @param success Whether the file was written completely.
+     */
+    public void complete(File file, int nodes, boolean layout, boolean success) {
+        end();
+        if (shouldCommit()) {
+            this.file = file == null ? null : file.getPath();
+            this.bytes = file == null ? 0 : file.length();
+            this.nodes = nodes;
+            this.layout = layout;
+            this.outcome = Instrumentation.outcome(success);
+            commit();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.jll.Instrumentation;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram of non-negative values with exponential buckets: bucket {@code b} counts
+ * the values below {@code 2^b} that did not fit in a smaller bucket, so 64 buckets cover every
+ * {@code long}. Quantiles are reported as the upper bound of the bucket they fall into, i.e. with
+ * at most a factor of two error, which is what latency and size distributions need.
+ *
+ * @author Ani Thyagarajan
+ */
+public final class Histogram {
+
+    /**
+     * The number of buckets.
+     */
+    public static final int BUCKETS = 64;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder sum = new LongAdder();
+    private final LongAdder count = new LongAdder();
+
+    /**
+     * @param value The value to record, negative values are counted as zero.
+     */
+    public void record(long value) {
+        long clamped = Math.max(0, value);
+        counts.incrementAndGet(bucketOf(clamped));
+        sum.add(clamped);
+        count.increment();
+    }
+
+    /**
+     * @return The number of recorded values.
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * @return The sum of all recorded values.
+     */
+    public long getSum() {
+        return sum.sum();
+    }
+
+    /**
+     * @param bucket A bucket between 0 and {@link #BUCKETS} - 1.
+     * @return The number of values in that bucket.
+     */
+    public long getBucketCount(int bucket) {
+        return counts.get(bucket);
+    }
+
+    /**
+     * @param bucket A bucket between 0 and {@link #BUCKETS} - 1.
+     * @return The exclusive upper bound of the values in that bucket.
+     */
+    public static double getUpperBound(int bucket) {
+        return Math.pow(2, bucket);
+    }
+
+    /**
+     * Since only whole values are recorded, this is the inclusive bound exporters like Prometheus
+     * expect for {@code le}.
+     *
+     * @param bucket A bucket between 0 and {@link #BUCKETS} - 1.
+     * @return The largest value that falls into that bucket, {@code 2^bucket - 1}.
+     */
+    public static long getLargestValue(int bucket) {
+        return bucket == BUCKETS - 1 ? Long.MAX_VALUE : (1L << bucket) - 1;
+    }
+
+    /**
+     * @param quantile A quantile between 0 and 1, e.g. 0.99.
+     * @return The upper bound of the bucket holding that quantile, or 0 if nothing was recorded.
+     */
+    public double getQuantile(double quantile) {
+        long total = 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            total += counts.get(b);
+        }
+        long rank = (long) Math.ceil(quantile * total);
+        long seen = 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            seen += counts.get(b);
+            if (seen >= rank && seen > 0) {
+                return getUpperBound(b);
+            }
+        }
+        return 0.0;
+    }
+
+    static int bucketOf(long value) {
+        return value == 0 ? 0 : Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(value));
+    }
+}
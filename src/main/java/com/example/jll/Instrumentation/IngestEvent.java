@@ -0,0 +1,72 @@
+package com.example.jll.Instrumentation;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.io.File;
+
+/**
+ * A Java Flight Recorder event for reading one CSV file, from opening it to the parsed nodes,
+ * matrix or edges.
+ * <pre>
+ * IngestEvent event = new IngestEvent();
+ * event.begin();
+ * ...
+ * event.complete(IngestEvent.EDGE_LIST, file, rows, success);
+ * </pre>
+ *
+ * @author Ani Thyagarajan
+ */
+@Name("com.example.jll.Ingest")
+@Label("CSV Ingest")
+@Category({"Java Logistics Library", "Ingest"})
+@Description("Reading a CSV file into nodes, a distance matrix or edges")
+@StackTrace(false)
+public final class IngestEvent extends Event {
+
+    public static final String DISTANCE_MATRIX = "distanceMatrix";
+    public static final String NODES = "nodes";
+    public static final String EDGE_LIST = "edgeList";
+
+    @Label("Format")
+    private String format;
+
+    @Label("File")
+    private String file;
+
+    @Label("File Size")
+    @DataAmount
+    private long bytes;
+
+    @Label("Rows")
+    @Description("The data rows read, without the header")
+    private long rows;
+
+    @Label("Outcome")
+    private String outcome;
+
+    /**
+     * Ends the event and commits it if it is recorded, the fields are only filled in then.
+     *
+     * @param format  The kind of file, one of the constants of this class.
+     * @param file    The file read.
+     * @param rows    The number of data rows read before the end or the failure.
+     * @param success Whether the file was read completely.
+     */
+    public void complete(String format, File file, long rows, boolean success) {
+        end();
+        if (shouldCommit()) {
+            this.format = format;
+            this.file = file.getPath();
+            this.bytes = file.length();
+            this.rows = rows;
+            this.outcome = Instrumentation.outcome(success);
+            commit();
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.jll.Instrumentation;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+
+/**
+ * The switches for the output and the metrics of the solvers.
+ * <ul>
+ *     <li>A {@link Reporter} receives the result tables and tours that used to go to standard
+ *     output. There is none by default; install {@link Reporter#CONSOLE} for the old behavior.</li>
+ *     <li>{@link SearchListener}s receive the {@link QueryStatistics} of every instrumented query,
+ *     e.g. a {@link MetricsRegistry} aggregating them into counters and histograms.</li>
+ *     <li>Java Flight Recorder receives a {@link SolveEvent} per query and {@link IngestEvent}s,
+ *     {@link MatrixFetchEvent}s and {@link ExportEvent}s around the I/O, while a recording is
+ *     running. Without a listener or a recording nothing is timed or measured.</li>
+ * </ul>
+ * Both settings are global and may be changed at any time from any thread.
+ *
+ * @author Ani Thyagarajan
+ */
+public final class Instrumentation {
+
+    private static final SearchListener[] NONE = new SearchListener[0];
+    private static final String SUCCESS = "success";
+    private static final String FAILURE = "failure";
+
+    private static volatile SearchListener[] listeners = NONE;
+    private static volatile Reporter reporter;
+
+    private Instrumentation() {
+    }
+
+    /**
+     * @param reporter Receives the result output, or {@code null} to drop it.
+     */
+    public static void setReporter(Reporter reporter) {
+        Instrumentation.reporter = reporter;
+    }
+
+    /**
+     * @return The installed reporter, or {@code null} if output is dropped.
+     */
+    public static Reporter getReporter() {
+        return reporter;
+    }
+
+    /**
+     * @return Whether a reporter is installed, check before formatting any output.
+     */
+    public static boolean isReporting() {
+        return reporter != null;
+    }
+
+    /**
+     * Passes a line to the reporter, if there is one.
+     *
+     * @param line One line of output.
+     */
+    public static void report(String line) {
+        Reporter current = reporter;
+        if (current != null) {
+            current.report(line);
+        }
+    }
+
+    /**
+     * @param listener Receives the statistics of every query from now on.
+     */
+    public static synchronized void addListener(SearchListener listener) {
+        SearchListener[] current = listeners;
+        SearchListener[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = listener;
+        listeners = updated;
+    }
+
+    /**
+     * @param listener A listener added before.
+     * @return {@code true} if the listener was removed.
+     */
+    public static synchronized boolean removeListener(SearchListener listener) {
+        SearchListener[] current = listeners;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] == listener) {
+                SearchListener[] updated = new SearchListener[current.length - 1];
+                System.arraycopy(current, 0, updated, 0, i);
+                System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+                listeners = updated;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return Whether any listener is installed.
+     */
+    public static boolean isEnabled() {
+        return listeners.length > 0;
+    }
+
+    /**
+     * Starts measuring a query.
+     *
+     * @param operation The name of the operation, e.g. {@code dijkstra.tree}.
+     * @return The probe to finish when the query is done, or {@code null} if there are no
+     * listeners and no recording of {@link SolveEvent}s.
+     */
+    public static Probe start(String operation) {
+        SolveEvent event = new SolveEvent();
+        if (listeners.length == 0 && !event.isEnabled()) {
+            return null;
+        }
+        return new Probe(operation, event);
+    }
+
+    static String outcome(boolean success) {
+        return success ? SUCCESS : FAILURE;
+    }
+
+    static void publish(QueryStatistics statistics) {
+        for (SearchListener listener : listeners) {
+            listener.onQuery(statistics);
+        }
+    }
+
+    /**
+     * @return The bytes allocated by the current thread so far, or {@code -1} if unsupported.
+     */
+    static long allocatedBytes() {
+        return Allocations.BEAN == null ? -1 : Allocations.BEAN.getCurrentThreadAllocatedBytes();
+    }
+
+    /**
+     * Looks the management bean up on first use only, so that queries without listeners never load it.
+     */
+    private static final class Allocations {
+        private static final com.sun.management.ThreadMXBean BEAN = find();
+
+        private static com.sun.management.ThreadMXBean find() {
+            ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            if (bean instanceof com.sun.management.ThreadMXBean sun && sun.isThreadAllocatedMemorySupported()) {
+                sun.setThreadAllocatedMemoryEnabled(true);
+                return sun;
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.jll.Instrumentation;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * A Java Flight Recorder event for fetching one distance or duration matrix from the Mapbox
+ * Matrix API and building the graph from it. The round trip is recorded separately from the
+ * duration of the whole event, so slow requests can be told apart from slow parsing.
+ *
+ * @author Ani Thyagarajan
+ */
+@Name("com.example.jll.MatrixFetch")
+@Label("Matrix Fetch")
+@Category({"Java Logistics Library", "Ingest"})
+@Description("Requesting a matrix from the Mapbox Matrix API and building the graph")
+@StackTrace(false)
+public final class MatrixFetchEvent extends Event {
+
+    @Label("Profile")
+    private String profile;
+
+    @Label("Annotation")
+    private String annotation;
+
+    @Label("Nodes")
+    private int nodes;
+
+    @Label("Response Size")
+    @Description("The size of the response body in bytes")
+    @DataAmount
+    private long responseBytes;
+
+    @Label("Round Trip")
+    @Timespan(Timespan.NANOSECONDS)
+    private long roundTrip;
+
+    @Label("Outcome")
+    private String outcome;
+
+    /**
+     * Ends the event and commits it if it is recorded, the fields are only filled in then.
+     *
+     * @param profile       The Mapbox profile, e.g. {@code mapbox/driving/}.
+     * @param annotation    The requested annotation, {@code duration} or {@code distance}.
+     * @param nodes         The number of coordinates requested.
+     * @param responseBytes The size of the response body in bytes, or {@code 0} if there was none.
+     * @param roundTrip     The nanoseconds spent waiting for the response.
+     * @param success       Whether the graph was built.
+     */
+    public void complete(String profile, String annotation, int nodes, long responseBytes, long roundTrip, boolean success) {
+        end();
+        if (shouldCommit()) {
+            this.profile = profile;
+            this.annotation = annotation;
+            this.nodes = nodes;
+            this.responseBytes = responseBytes;
+            this.roundTrip = roundTrip;
+            this.outcome = Instrumentation.outcome(success);
+            commit();
+        }
+    }
+}
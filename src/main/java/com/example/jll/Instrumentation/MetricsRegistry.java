@@ -0,0 +1,247 @@
+package com.example.jll.Instrumentation;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link SearchListener} that aggregates the statistics of all queries per operation into
+ * counters and histograms, and exports them as JSON or in the Prometheus text format.
+ * <pre>
+ * MetricsRegistry metrics = new MetricsRegistry();
+ * Instrumentation.addListener(metrics);
+ * ...
+ * metrics.writePrometheus(writer);
+ * </pre>
+ *
+ * @author Ani Thyagarajan
+ */
+public class MetricsRegistry implements SearchListener {
+
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    /**
+     * The aggregated statistics of one operation.
+     */
+    public static final class OperationMetrics {
+        private final LongAdder queries = new LongAdder();
+        private final LongAdder nodesSettled = new LongAdder();
+        private final LongAdder edgesRelaxed = new LongAdder();
+        private final LongAdder heapOperations = new LongAdder();
+        private final LongAdder improvements = new LongAdder();
+        private final LongAdder allocatedBytes = new LongAdder();
+        private final Histogram wallMicros = new Histogram();
+        private final Histogram settledPerQuery = new Histogram();
+        private final Histogram bytesPerQuery = new Histogram();
+
+        private void add(QueryStatistics statistics) {
+            queries.increment();
+            nodesSettled.add(statistics.getNodesSettled());
+            edgesRelaxed.add(statistics.getEdgesRelaxed());
+            heapOperations.add(statistics.getHeapOperations());
+            improvements.add(statistics.getImprovements());
+            wallMicros.record(statistics.getWallNanos() / 1000);
+            settledPerQuery.record(statistics.getNodesSettled());
+            if (statistics.getAllocatedBytes() >= 0) {
+                allocatedBytes.add(statistics.getAllocatedBytes());
+                bytesPerQuery.record(statistics.getAllocatedBytes());
+            }
+        }
+
+        public long getQueries() {
+            return queries.sum();
+        }
+
+        public long getNodesSettled() {
+            return nodesSettled.sum();
+        }
+
+        public long getEdgesRelaxed() {
+            return edgesRelaxed.sum();
+        }
+
+        public long getHeapOperations() {
+            return heapOperations.sum();
+        }
+
+        public long getImprovements() {
+            return improvements.sum();
+        }
+
+        public long getAllocatedBytes() {
+            return allocatedBytes.sum();
+        }
+
+        /**
+         * @return The wall time per query in microseconds.
+         */
+        public Histogram getWallMicros() {
+            return wallMicros;
+        }
+
+        /**
+         * @return The nodes settled per query.
+         */
+        public Histogram getSettledPerQuery() {
+            return settledPerQuery;
+        }
+
+        /**
+         * @return The bytes allocated per query, for the queries where it could be measured.
+         */
+        public Histogram getBytesPerQuery() {
+            return bytesPerQuery;
+        }
+    }
+
+    private final Map<String, OperationMetrics> operations = new ConcurrentHashMap<>();
+
+    @Override
+    public void onQuery(QueryStatistics statistics) {
+        operations.computeIfAbsent(statistics.getOperation(), name -> new OperationMetrics()).add(statistics);
+    }
+
+    /**
+     * @param operation The name of an operation, e.g. {@code dijkstra.tree}.
+     * @return Its metrics, or {@code null} if it never ran.
+     */
+    public OperationMetrics get(String operation) {
+        return operations.get(operation);
+    }
+
+    /**
+     * @return The metrics of every operation that ran, by name in alphabetical order.
+     */
+    public Map<String, OperationMetrics> getOperations() {
+        return new TreeMap<>(operations);
+    }
+
+    /**
+     * Drops all metrics.
+     */
+    public void reset() {
+        operations.clear();
+    }
+
+    /**
+     * Writes the counters and histograms in the Prometheus text exposition format, with the
+     * operation as a label and the histograms as cumulative {@code _bucket} series.
+     *
+     * @param out The writer to write to, it is flushed but not closed.
+     * @throws IOException if writing fails.
+     */
+    public void writePrometheus(Writer out) throws IOException {
+        Map<String, OperationMetrics> snapshot = getOperations();
+        counter(out, "jll_queries_total", "Instrumented queries", snapshot, OperationMetrics::getQueries);
+        counter(out, "jll_nodes_settled_total", "Nodes settled", snapshot, OperationMetrics::getNodesSettled);
+        counter(out, "jll_edges_relaxed_total", "Edges relaxed", snapshot, OperationMetrics::getEdgesRelaxed);
+        counter(out, "jll_heap_operations_total", "Priority queue operations", snapshot, OperationMetrics::getHeapOperations);
+        counter(out, "jll_tour_improvements_total", "Improving tour moves", snapshot, OperationMetrics::getImprovements);
+        counter(out, "jll_allocated_bytes_total", "Bytes allocated by the querying thread", snapshot, OperationMetrics::getAllocatedBytes);
+        histogram(out, "jll_query_duration_microseconds", "Wall time per query", snapshot, OperationMetrics::getWallMicros);
+        histogram(out, "jll_query_nodes_settled", "Nodes settled per query", snapshot, OperationMetrics::getSettledPerQuery);
+        histogram(out, "jll_query_allocated_bytes", "Bytes allocated per query", snapshot, OperationMetrics::getBytesPerQuery);
+        out.flush();
+    }
+
+    /**
+     * Writes all metrics as one JSON object keyed by operation, with the non-empty histogram
+     * buckets as {@code {"le": bound, "count": n}} pairs and the 50th, 90th and 99th percentiles.
+     *
+     * @param out The stream to write to, it is not closed.
+     * @throws IOException if writing fails.
+     */
+    public void writeJson(OutputStream out) throws IOException {
+        try (JsonGenerator generator = FACTORY.createGenerator(out, JsonEncoding.UTF8)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.useDefaultPrettyPrinter();
+            generator.writeStartObject();
+            for (Map.Entry<String, OperationMetrics> entry : getOperations().entrySet()) {
+                OperationMetrics metrics = entry.getValue();
+                generator.writeObjectFieldStart(entry.getKey());
+                generator.writeNumberField("queries", metrics.getQueries());
+                generator.writeNumberField("nodesSettled", metrics.getNodesSettled());
+                generator.writeNumberField("edgesRelaxed", metrics.getEdgesRelaxed());
+                generator.writeNumberField("heapOperations", metrics.getHeapOperations());
+                generator.writeNumberField("improvements", metrics.getImprovements());
+                generator.writeNumberField("allocatedBytes", metrics.getAllocatedBytes());
+                writeHistogram(generator, "wallMicros", metrics.getWallMicros());
+                writeHistogram(generator, "settledPerQuery", metrics.getSettledPerQuery());
+                writeHistogram(generator, "bytesPerQuery", metrics.getBytesPerQuery());
+                generator.writeEndObject();
+            }
+            generator.writeEndObject();
+        }
+    }
+
+    private interface CounterValue {
+        long of(OperationMetrics metrics);
+    }
+
+    private interface HistogramValue {
+        Histogram of(OperationMetrics metrics);
+    }
+
+    private static void counter(Writer out, String name, String help, Map<String, OperationMetrics> snapshot,
+                                CounterValue value) throws IOException {
+        out.write("# HELP " + name + " " + help + "\n# TYPE " + name + " counter\n");
+        for (Map.Entry<String, OperationMetrics> entry : snapshot.entrySet()) {
+            out.write(name + "{operation=\"" + entry.getKey() + "\"} " + value.of(entry.getValue()) + "\n");
+        }
+    }
+
+    private static void histogram(Writer out, String name, String help, Map<String, OperationMetrics> snapshot,
+                                  HistogramValue value) throws IOException {
+        out.write("# HELP " + name + " " + help + "\n# TYPE " + name + " histogram\n");
+        for (Map.Entry<String, OperationMetrics> entry : snapshot.entrySet()) {
+            Histogram histogram = value.of(entry.getValue());
+            String label = "operation=\"" + entry.getKey() + "\"";
+            long cumulative = 0;
+            int last = lastNonEmpty(histogram);
+            for (int b = 0; b <= last; b++) {
+                cumulative += histogram.getBucketCount(b);
+                out.write(name + "_bucket{" + label + ",le=\"" + Histogram.getLargestValue(b) + "\"} " + cumulative + "\n");
+            }
+            out.write(name + "_bucket{" + label + ",le=\"+Inf\"} " + histogram.getCount() + "\n");
+            out.write(name + "_sum{" + label + "} " + histogram.getSum() + "\n");
+            out.write(name + "_count{" + label + "} " + histogram.getCount() + "\n");
+        }
+    }
+
+    private static void writeHistogram(JsonGenerator generator, String name, Histogram histogram) throws IOException {
+        generator.writeObjectFieldStart(name);
+        generator.writeNumberField("count", histogram.getCount());
+        generator.writeNumberField("sum", histogram.getSum());
+        generator.writeNumberField("p50", histogram.getQuantile(0.5));
+        generator.writeNumberField("p90", histogram.getQuantile(0.9));
+        generator.writeNumberField("p99", histogram.getQuantile(0.99));
+        generator.writeArrayFieldStart("buckets");
+        for (int b = 0; b < Histogram.BUCKETS; b++) {
+            if (histogram.getBucketCount(b) > 0) {
+                generator.writeStartObject();
+                generator.writeNumberField("le", Histogram.getLargestValue(b));
+                generator.writeNumberField("count", histogram.getBucketCount(b));
+                generator.writeEndObject();
+            }
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+
+    private static int lastNonEmpty(Histogram histogram) {
+        for (int b = Histogram.BUCKETS - 1; b >= 0; b--) {
+            if (histogram.getBucketCount(b) > 0) {
+                return b;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.jll.Instrumentation;
+
+/**
+ * Measures one query from {@link Instrumentation#start(String)} to {@link #finish(long, long, long, long)}.
+ * The solvers count their work in local variables and hand the totals over at the end, so the
+ * counting costs nothing measurable when no listener is installed, no recording is running and
+ * {@code start} returns {@code null}.
+ *
+ * @author Ani Thyagarajan
+ */
+public final class Probe {
+
+    private final String operation;
+    private final SolveEvent event;
+    private final long startNanos;
+    private final long startBytes;
+
+    Probe(String operation, SolveEvent event) {
+        this.operation = operation;
+        this.event = event;
+        this.startBytes = Instrumentation.allocatedBytes();
+        this.startNanos = System.nanoTime();
+        event.begin();
+    }
+
+    /**
+     * Ends the measurement, passes the statistics to all listeners and commits the
+     * {@link SolveEvent} if it is recorded.
+     *
+     * @param nodesSettled   The number of nodes settled.
+     * @param edgesRelaxed   The number of edges relaxed.
+     * @param heapOperations The number of priority queue operations.
+     * @param improvements   The number of improving tour moves.
+     * @return The statistics of the query.
+     */
+    public QueryStatistics finish(long nodesSettled, long edgesRelaxed, long heapOperations, long improvements) {
+        event.complete(operation, nodesSettled, edgesRelaxed, heapOperations, improvements);
+        long wall = System.nanoTime() - startNanos;
+        long endBytes = Instrumentation.allocatedBytes();
+        long bytes = startBytes < 0 || endBytes < 0 ? -1 : endBytes - startBytes;
+        QueryStatistics statistics = new QueryStatistics(operation, nodesSettled, edgesRelaxed, heapOperations,
+                improvements, wall, bytes);
+        Instrumentation.publish(statistics);
+        return statistics;
+    }
+}
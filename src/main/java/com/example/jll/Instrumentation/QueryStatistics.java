@@ -0,0 +1,63 @@
+package com.example.jll.Instrumentation;
+
+import lombok.Getter;
+
+/**
+ * The work done by one query, e.g. one single-source search or one tour construction.
+ * <p>
+ * Counters that do not apply to an operation are zero. The allocated bytes are measured on the
+ * thread that ran the query and are {@code -1} if the JVM cannot measure them, so work done by
+ * parallel helper threads is not included.
+ * </p>
+ *
+ * @author Ani Thyagarajan
+ */
+@Getter
+public final class QueryStatistics {
+
+    /**
+     * The name of the instrumented operation, e.g. {@code dijkstra.tree}.
+     */
+    private final String operation;
+
+    /**
+     * The number of nodes taken from the queue with their final distance.
+     */
+    private final long nodesSettled;
+
+    /**
+     * The number of edges looked at from settled nodes.
+     */
+    private final long edgesRelaxed;
+
+    /**
+     * The number of pushes, decrease-keys and polls on the priority queue.
+     */
+    private final long heapOperations;
+
+    /**
+     * The number of improving moves applied to a tour.
+     */
+    private final long improvements;
+
+    private final long wallNanos;
+    private final long allocatedBytes;
+
+    QueryStatistics(String operation, long nodesSettled, long edgesRelaxed, long heapOperations,
+                    long improvements, long wallNanos, long allocatedBytes) {
+        this.operation = operation;
+        this.nodesSettled = nodesSettled;
+        this.edgesRelaxed = edgesRelaxed;
+        this.heapOperations = heapOperations;
+        this.improvements = improvements;
+        this.wallNanos = wallNanos;
+        this.allocatedBytes = allocatedBytes;
+    }
+
+    @Override
+    public String toString() {
+        return operation + ": " + nodesSettled + " settled, " + edgesRelaxed + " relaxed, " + heapOperations
+                + " heap operations, " + improvements + " improvements, " + wallNanos / 1000 + " us, "
+                + allocatedBytes + " bytes";
+    }
+}
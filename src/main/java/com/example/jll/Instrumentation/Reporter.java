@@ -0,0 +1,22 @@
+package com.example.jll.Instrumentation;
+
+/**
+ * Receives the human-readable results the solvers used to print unconditionally, e.g. the
+ * Dijkstra label table or a finished tour. Reporting is off by default, so nothing is sorted or
+ * formatted unless a reporter is installed with {@link Instrumentation#setReporter(Reporter)}.
+ *
+ * @author Ani Thyagarajan
+ */
+@FunctionalInterface
+public interface Reporter {
+
+    /**
+     * Prints every line to standard output, like the library did before reporting was opt-in.
+     */
+    Reporter CONSOLE = System.out::println;
+
+    /**
+     * @param line One line of output, without a line break.
+     */
+    void report(String line);
+}
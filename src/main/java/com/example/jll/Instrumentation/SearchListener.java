@@ -0,0 +1,17 @@
+package com.example.jll.Instrumentation;
+
+/**
+ * Is told about every instrumented query once it finished, see
+ * {@link Instrumentation#addListener(SearchListener)}. Listeners are called on the thread that ran
+ * the query and must be thread-safe and fast.
+ *
+ * @author Ani Thyagarajan
+ */
+@FunctionalInterface
+public interface SearchListener {
+
+    /**
+     * @param statistics The work done by the query.
+     */
+    void onQuery(QueryStatistics statistics);
+}
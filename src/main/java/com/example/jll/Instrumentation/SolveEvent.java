@@ -0,0 +1,59 @@
+package com.example.jll.Instrumentation;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * A Java Flight Recorder event for one instrumented query, e.g. one single-source search or one
+ * tour construction, committed by {@link Probe#finish(long, long, long, long)}.
+ * <p>
+ * Only queries of at least one millisecond are recorded by default, so a continuous recording
+ * does not fill up with the many short searches of a batch. Lower the threshold in the recording
+ * settings to see all of them.
+ * </p>
+ *
+ * @author Ani Thyagarajan
+ */
+@Name("com.example.jll.Solve")
+@Label("Solve")
+@Category({"Java Logistics Library", "Solve"})
+@Description("A single search or tour heuristic")
+@StackTrace(false)
+@Threshold("1 ms")
+public final class SolveEvent extends Event {
+
+    @Label("Operation")
+    private String operation;
+
+    @Label("Nodes Settled")
+    private long nodesSettled;
+
+    @Label("Edges Relaxed")
+    private long edgesRelaxed;
+
+    @Label("Heap Operations")
+    private long heapOperations;
+
+    @Label("Improvements")
+    private long improvements;
+
+    /**
+     * Ends the event and commits it if it is recorded, the fields are only filled in then.
+     */
+    void complete(String operation, long nodesSettled, long edgesRelaxed, long heapOperations, long improvements) {
+        end();
+        if (shouldCommit()) {
+            this.operation = operation;
+            this.nodesSettled = nodesSettled;
+            this.edgesRelaxed = edgesRelaxed;
+            this.heapOperations = heapOperations;
+            this.improvements = improvements;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,550 @@
+package com.example.jll.TSP;
+
+import com.example.jll.DijkstrasAlgorithim.DataStructures.DistanceMatrix;
+import com.example.jll.DijkstrasAlgorithim.DataStructures.Graph;
+import com.example.jll.DijkstrasAlgorithim.DataStructures.Node;
+import com.example.jll.Instrumentation.Instrumentation;
+import lombok.Getter;
+
+import java.util.*;
+
+/**
+ * Solves the Capacitated Vehicle Routing Problem (CVRP) with the Clarke-Wright savings heuristic
+ * followed by an inter-route local search.
+ * <p>
+ * Every node of the graph other than the depot is a customer whose {@link Node#getDemand() demand}
+ * has to be delivered by a vehicle of the given capacity. Each route starts and ends at the depot.
+ * </p>
+ * <ul>
+ *     <li>The savings constructor starts with one route per customer and repeatedly merges the two
+ *     routes with the largest saving {@code d(i, depot) + d(depot, j) - d(i, j)} that still fit
+ *     in a vehicle. Savings are kept in a primitive binary heap.</li>
+ *     <li>The local search then relocates single customers into other routes and exchanges
+ *     customers between routes until no improving move is left.</li>
+ * </ul>
+ * <p>
+ * To handle thousands of customers, both phases only consider each customer's
+ * {@code neighbourhoodSize} nearest customers (a granular neighbourhood). When the neighbourhood
+ * covers all customers the savings list is complete.
+ * </p>
+ * <p>
+ * The depot needs a direct edge to and from every customer, so that every customer can at least
+ * be served by a route of its own. Missing edges between customers are never used.
+ * </p>
+ *
+ * @author Ani Thyagarajan
+ */
+public class ClarkeWrightSavings {
+
+    /**
+     * The default number of nearest customers considered for savings and local search moves.
+     */
+    public static final int DEFAULT_NEIGHBOURHOOD_SIZE = 40;
+
+    private static final double EPSILON = 1e-9;
+
+    private final Graph graph;
+    private final Node depot;
+    private final double capacity;
+    private final int neighbourhoodSize;
+
+    /**
+     * The routes of the solution, each starting and ending with the depot.
+     */
+    @Getter
+    private List<List<Node>> routes;
+
+    /**
+     * The total distance driven by all vehicles.
+     */
+    @Getter
+    private double totalDistance;
+
+    /**
+     * The total demand delivered on each route, in the order of {@link #getRoutes()}.
+     */
+    @Getter
+    private List<Double> loads;
+
+    // Working state, customers are indexed 1..n and index 0 is the depot
+    private DistanceMatrix matrix;
+    private double[] demand;
+    private int[][] neighbours;
+    private int[] next;
+    private int[] prev;
+    private int[] routeOf;
+    private int[] first;
+    private int[] last;
+    private int[] length;
+    private double[] load;
+
+    public ClarkeWrightSavings(Graph graph, Node depot, double capacity) {
+        this(graph, depot, capacity, DEFAULT_NEIGHBOURHOOD_SIZE);
+    }
+
+    public ClarkeWrightSavings(Graph graph, String depot, double capacity) {
+        this(graph, graph.getNode(depot), capacity);
+    }
+
+    /**
+     * Creates and solves a CVRP instance.
+     *
+     * @param graph             The graph containing the depot and all customers.
+     * @param depot             The depot every route starts and ends at.
+     * @param capacity          The capacity of each vehicle.
+     * @param neighbourhoodSize The number of nearest customers considered per customer.
+     * @throws IllegalArgumentException if the capacity or neighbourhood size is not positive,
+     *                                  a single customer exceeds the vehicle capacity, or an
+     *                                  edge between the depot and a customer is missing or not finite.
+     */
+    public ClarkeWrightSavings(Graph graph, Node depot, double capacity, int neighbourhoodSize) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Vehicle capacity must be positive: " + capacity);
+        }
+        if (neighbourhoodSize < 1) {
+            throw new IllegalArgumentException("Neighbourhood size must be positive: " + neighbourhoodSize);
+        }
+        this.graph = graph;
+        this.depot = depot;
+        this.capacity = capacity;
+        this.neighbourhoodSize = neighbourhoodSize;
+        solve();
+    }
+
+    /**
+     * Builds the initial routes with the savings heuristic, improves them with the local search
+     * and reports the resulting routes.
+     *
+     * @throws IllegalArgumentException if a single customer exceeds the vehicle capacity, or an
+     *                                  edge between the depot and a customer is missing or not finite.
+     */
+    public void solve() {
+        List<Node> ordered = new ArrayList<>(graph.getNodes().size());
+        ordered.add(depot);
+        for (Node node : graph.getNodes()) {
+            if (node != depot) {
+                ordered.add(node);
+            }
+        }
+        matrix = new DistanceMatrix(ordered);
+
+        int n = ordered.size() - 1;
+        demand = new double[n + 1];
+        for (int c = 1; c <= n; c++) {
+            demand[c] = ordered.get(c).getDemand();
+            if (demand[c] > capacity) {
+                throw new IllegalArgumentException("Demand of " + ordered.get(c).getName()
+                        + " exceeds the vehicle capacity");
+            }
+            if (!Double.isFinite(matrix.get(0, c)) || !Double.isFinite(matrix.get(c, 0))) {
+                throw new IllegalArgumentException("The depot " + depot.getName() + " needs a finite edge to and from "
+                        + ordered.get(c).getName());
+            }
+        }
+
+        int k = Math.max(0, Math.min(neighbourhoodSize, n - 1));
+        neighbours = nearestCustomers(n, k);
+        constructSavingsRoutes(n, k);
+        improveRoutes(n);
+        collectRoutes(n);
+
+        // Output Results
+        if (!Instrumentation.isReporting()) {
+            return;
+        }
+        Instrumentation.report("Executed Clarke-Wright Savings CVRP Heuristic with depot " + depot.getName());
+        Instrumentation.report("--------------------------------------------------------------------------------");
+        for (List<Node> route : routes) {
+            Instrumentation.report(String.join(" -> ", route.stream().map(Node::getName).toArray(String[]::new)));
+        }
+        Instrumentation.report("Vehicles Used: " + routes.size());
+        Instrumentation.report("Total Route Distance: " + totalDistance);
+        Instrumentation.report("--------------------------------------------------------------------------------");
+    }
+
+    /**
+     * Finds the {@code k} nearest customers of every customer.
+     */
+    private int[][] nearestCustomers(int n, int k) {
+        int[][] result = new int[n + 1][];
+        int[] candidates = new int[n];
+        for (int c = 1; c <= n; c++) {
+            int count = 0;
+            for (int o = 1; o <= n; o++) {
+                if (o != c) {
+                    candidates[count++] = o;
+                }
+            }
+            result[c] = selectNearest(c, candidates, count, k);
+        }
+        return result;
+    }
+
+    /**
+     * Selects the {@code k} candidates closest to {@code c} with a bounded max-heap and returns them
+     * in ascending distance order.
+     */
+    private int[] selectNearest(int c, int[] candidates, int count, int k) {
+        int[] heap = new int[k];
+        if (k == 0) {
+            return heap;
+        }
+        int size = 0;
+        for (int i = 0; i < count; i++) {
+            int o = candidates[i];
+            if (size < k) {
+                heap[size] = o;
+                siftUpFarthest(c, heap, size++);
+            } else if (matrix.get(c, o) < matrix.get(c, heap[0])) {
+                heap[0] = o;
+                siftDownFarthest(c, heap, 0, size);
+            }
+        }
+        for (int end = size - 1; end > 0; end--) {
+            int tmp = heap[0];
+            heap[0] = heap[end];
+            heap[end] = tmp;
+            siftDownFarthest(c, heap, 0, end);
+        }
+        return heap;
+    }
+
+    private void siftUpFarthest(int c, int[] heap, int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (matrix.get(c, heap[i]) <= matrix.get(c, heap[parent])) {
+                return;
+            }
+            int tmp = heap[i];
+            heap[i] = heap[parent];
+            heap[parent] = tmp;
+            i = parent;
+        }
+    }
+
+    private void siftDownFarthest(int c, int[] heap, int i, int size) {
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) {
+                return;
+            }
+            if (child + 1 < size && matrix.get(c, heap[child + 1]) > matrix.get(c, heap[child])) {
+                child++;
+            }
+            if (matrix.get(c, heap[i]) >= matrix.get(c, heap[child])) {
+                return;
+            }
+            int tmp = heap[i];
+            heap[i] = heap[child];
+            heap[child] = tmp;
+            i = child;
+        }
+    }
+
+    /**
+     * Runs the parallel savings heuristic. Every customer starts on its own route; the pair
+     * {@code (i, j)} merges the route ending in {@code i} with the route starting in {@code j}.
+     * On symmetric instances routes may also be reversed so that any two route ends can be joined.
+     */
+    private void constructSavingsRoutes(int n, int k) {
+        next = new int[n + 1];
+        prev = new int[n + 1];
+        routeOf = new int[n + 1];
+        first = new int[n + 1];
+        last = new int[n + 1];
+        length = new int[n + 1];
+        load = new double[n + 1];
+        for (int c = 1; c <= n; c++) {
+            routeOf[c] = c;
+            first[c] = c;
+            last[c] = c;
+            length[c] = 1;
+            load[c] = demand[c];
+        }
+
+        boolean symmetric = matrix.isSymmetric();
+        SavingsHeap heap = new SavingsHeap(n * k);
+        for (int i = 1; i <= n; i++) {
+            for (int j : neighbours[i]) {
+                double saving = matrix.get(i, 0) + matrix.get(0, j) - matrix.get(i, j);
+                if (saving > EPSILON && !Double.isNaN(saving) && saving != Double.POSITIVE_INFINITY) {
+                    heap.add(saving, i, j);
+                }
+            }
+        }
+        heap.heapify();
+
+        while (!heap.isEmpty()) {
+            long pair = heap.poll();
+            int i = (int) (pair >>> 32);
+            int j = (int) pair;
+            int ri = routeOf[i];
+            int rj = routeOf[j];
+            if (ri == rj || load[ri] + load[rj] > capacity + EPSILON) {
+                continue;
+            }
+            if (last[ri] == i && first[rj] == j) {
+                append(ri, rj);
+            } else if (symmetric) {
+                boolean iIsEnd = first[ri] == i || last[ri] == i;
+                boolean jIsEnd = first[rj] == j || last[rj] == j;
+                if (!iIsEnd || !jIsEnd) {
+                    continue;
+                }
+                if (last[ri] != i) {
+                    reverse(ri);
+                }
+                if (first[rj] != j) {
+                    reverse(rj);
+                }
+                append(ri, rj);
+            }
+        }
+    }
+
+    /**
+     * Appends route {@code b} to the end of route {@code a}, relabelling the shorter of the two.
+     */
+    private void append(int a, int b) {
+        int keep = length[a] >= length[b] ? a : b;
+        int drop = keep == a ? b : a;
+        for (int c = first[drop]; c != 0; c = next[c]) {
+            routeOf[c] = keep;
+        }
+
+        int head = first[a];
+        int tail = last[b];
+        next[last[a]] = first[b];
+        prev[first[b]] = last[a];
+
+        length[keep] = length[a] + length[b];
+        load[keep] = load[a] + load[b];
+        first[keep] = head;
+        last[keep] = tail;
+        length[drop] = 0;
+        load[drop] = 0;
+        first[drop] = 0;
+        last[drop] = 0;
+    }
+
+    /**
+     * Reverses the direction of a route, only valid on symmetric instances.
+     */
+    private void reverse(int r) {
+        int c = first[r];
+        while (c != 0) {
+            int following = next[c];
+            next[c] = prev[c];
+            prev[c] = following;
+            c = following;
+        }
+        int tmp = first[r];
+        first[r] = last[r];
+        last[r] = tmp;
+    }
+
+    /**
+     * Applies first-improvement relocate and exchange moves between different routes until
+     * no move in the granular neighbourhood reduces the total distance.
+     */
+    private void improveRoutes(int n) {
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            for (int u = 1; u <= n; u++) {
+                for (int v : neighbours[u]) {
+                    if (routeOf[u] != routeOf[v] && (tryRelocate(u, v) || tryExchange(u, v))) {
+                        improved = true;
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Tries to move customer {@code u} next to customer {@code v} in another route.
+     */
+    private boolean tryRelocate(int u, int v) {
+        int ru = routeOf[u];
+        int rv = routeOf[v];
+        if (load[rv] + demand[u] > capacity + EPSILON) {
+            return false;
+        }
+        int pu = prev[u];
+        int nu = next[u];
+        double removal = matrix.get(pu, nu) - matrix.get(pu, u) - matrix.get(u, nu);
+
+        int nv = next[v];
+        double after = matrix.get(v, u) + matrix.get(u, nv) - matrix.get(v, nv);
+        int pv = prev[v];
+        double before = matrix.get(pv, u) + matrix.get(u, v) - matrix.get(pv, v);
+
+        // Written so that a NaN from two missing edges rejects the move
+        if (!(removal + Math.min(after, before) < -EPSILON)) {
+            return false;
+        }
+
+        unlink(u, ru);
+        if (after <= before) {
+            linkBetween(u, v, next[v], rv);
+        } else {
+            linkBetween(u, prev[v], v, rv);
+        }
+        return true;
+    }
+
+    /**
+     * Tries to swap customer {@code u} with customer {@code v} of another route.
+     */
+    private boolean tryExchange(int u, int v) {
+        int ru = routeOf[u];
+        int rv = routeOf[v];
+        if (load[ru] - demand[u] + demand[v] > capacity + EPSILON
+                || load[rv] - demand[v] + demand[u] > capacity + EPSILON) {
+            return false;
+        }
+        int pu = prev[u];
+        int nu = next[u];
+        int pv = prev[v];
+        int nv = next[v];
+        double delta = matrix.get(pu, v) + matrix.get(v, nu) - matrix.get(pu, u) - matrix.get(u, nu)
+                + matrix.get(pv, u) + matrix.get(u, nv) - matrix.get(pv, v) - matrix.get(v, nv);
+        if (!(delta < -EPSILON)) {
+            return false;
+        }
+
+        unlink(u, ru);
+        unlink(v, rv);
+        linkBetween(v, pu, nu, ru);
+        linkBetween(u, pv, nv, rv);
+        return true;
+    }
+
+    private void unlink(int c, int r) {
+        int p = prev[c];
+        int nx = next[c];
+        if (p == 0) {
+            first[r] = nx;
+        } else {
+            next[p] = nx;
+        }
+        if (nx == 0) {
+            last[r] = p;
+        } else {
+            prev[nx] = p;
+        }
+        length[r]--;
+        load[r] -= demand[c];
+    }
+
+    /**
+     * Inserts customer {@code c} between {@code p} and {@code nx} of route {@code r},
+     * where 0 stands for the depot at either end of the route.
+     */
+    private void linkBetween(int c, int p, int nx, int r) {
+        prev[c] = p;
+        next[c] = nx;
+        if (p == 0) {
+            first[r] = c;
+        } else {
+            next[p] = c;
+        }
+        if (nx == 0) {
+            last[r] = c;
+        } else {
+            prev[nx] = c;
+        }
+        routeOf[c] = r;
+        length[r]++;
+        load[r] += demand[c];
+    }
+
+    private void collectRoutes(int n) {
+        routes = new ArrayList<>();
+        loads = new ArrayList<>();
+        totalDistance = 0.0;
+        for (int r = 1; r <= n; r++) {
+            if (length[r] == 0) {
+                continue;
+            }
+            List<Node> route = new ArrayList<>(length[r] + 2);
+            route.add(depot);
+            int previous = 0;
+            for (int c = first[r]; c != 0; c = next[c]) {
+                route.add(matrix.getNodes().get(c));
+                totalDistance += matrix.get(previous, c);
+                previous = c;
+            }
+            totalDistance += matrix.get(previous, 0);
+            route.add(depot);
+            routes.add(route);
+            loads.add(load[r]);
+        }
+    }
+
+    /**
+     * A binary max-heap of savings stored in parallel primitive arrays, the customer pair
+     * {@code (i, j)} is packed into a single {@code long}.
+     */
+    private static final class SavingsHeap {
+        private double[] savings;
+        private long[] pairs;
+        private int size;
+
+        SavingsHeap(int expectedSize) {
+            savings = new double[Math.max(16, expectedSize)];
+            pairs = new long[savings.length];
+        }
+
+        void add(double saving, int i, int j) {
+            if (size == savings.length) {
+                savings = Arrays.copyOf(savings, size * 2);
+                pairs = Arrays.copyOf(pairs, size * 2);
+            }
+            savings[size] = saving;
+            pairs[size++] = ((long) i << 32) | (j & 0xFFFFFFFFL);
+        }
+
+        void heapify() {
+            for (int i = (size >>> 1) - 1; i >= 0; i--) {
+                siftDown(i);
+            }
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        long poll() {
+            long top = pairs[0];
+            size--;
+            savings[0] = savings[size];
+            pairs[0] = pairs[size];
+            siftDown(0);
+            return top;
+        }
+
+        private void siftDown(int i) {
+            double saving = savings[i];
+            long pair = pairs[i];
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && savings[child + 1] > savings[child]) {
+                    child++;
+                }
+                if (saving >= savings[child]) {
+                    break;
+                }
+                savings[i] = savings[child];
+                pairs[i] = pairs[child];
+                i = child;
+            }
+            savings[i] = saving;
+            pairs[i] = pair;
+        }
+    }
+}
@@ -0,0 +1,410 @@
+package com.example.jll.TSP;
+
+import com.example.jll.DijkstrasAlgorithim.DataStructures.DistanceMatrix;
+import com.example.jll.DijkstrasAlgorithim.DataStructures.GeoDistance;
+import com.example.jll.DijkstrasAlgorithim.DataStructures.Graph;
+import com.example.jll.DijkstrasAlgorithim.DataStructures.Node;
+import com.example.jll.Instrumentation.Instrumentation;
+import lombok.Getter;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.IntStream;
+
+/**
+ * Solves very large TSP instances on node coordinates by decomposition ("cluster first, route second").
+ * <ol>
+ *     <li>The nodes are split into clusters of at most {@code clusterSize} nodes by recursively
+ *     bisecting the latitude/longitude bounding box at the median (an adaptive grid).</li>
+ *     <li>Every cluster is solved in parallel with the nearest neighbor heuristic and 2-opt on a
+ *     small haversine matrix of just that cluster.</li>
+ *     <li>The clusters are visited in the order of a tour over their centroids. Each cluster tour is
+ *     cut open at the edge that best connects it to the previous and the next cluster.</li>
+ *     <li>The stitched tour is polished with windowed 2-opt and Or-opt moves, in parallel on
+ *     independent stretches of the tour, which mainly repairs the seams between clusters.</li>
+ * </ol>
+ * <p>
+ * Distances are great-circle distances in meters computed from the coordinates, so no edges are
+ * needed and memory stays linear in the number of nodes; only the per-cluster matrices are quadratic
+ * in the cluster size.
+ * </p>
+ *
+ * @author Ani Thyagarajan
+ */
+public class ClusterFirstRouteSecond {
+
+    /**
+     * The default maximum number of nodes per cluster.
+     */
+    public static final int DEFAULT_CLUSTER_SIZE = 200;
+
+    private static final int POLISH_WINDOW = 50;
+
+    private final Graph graph;
+    private final List<Node> nodes;
+    private final Node startNode;
+    private final int clusterSize;
+
+    /**
+     * The tour, starting and ending with the start node.
+     */
+    @Getter
+    private List<Node> tour;
+
+    /**
+     * The length of the tour in meters.
+     */
+    @Getter
+    private double totalDistance;
+
+    /**
+     * The number of clusters the instance was split into.
+     */
+    @Getter
+    private int clusterCount;
+
+    // Coordinates in radians, indexed like nodes
+    private double[] latitude;
+    private double[] longitude;
+    private double[] cosLatitude;
+
+    public ClusterFirstRouteSecond(Graph graph, Node startNode) {
+        this(graph, startNode, DEFAULT_CLUSTER_SIZE);
+    }
+
+    public ClusterFirstRouteSecond(Graph graph, String startNode) {
+        this(graph, graph.getNode(startNode));
+    }
+
+    /**
+     * Creates and solves a decomposed TSP instance.
+     *
+     * @param graph       The graph whose nodes have to be visited, edges are ignored.
+     * @param startNode   The node the tour starts and ends at.
+     * @param clusterSize The maximum number of nodes per cluster.
+     * @throws IllegalArgumentException if the cluster size is smaller than 4, a node has no coordinates
+     *                                  or the start node is not part of the graph.
+     */
+    public ClusterFirstRouteSecond(Graph graph, Node startNode, int clusterSize) {
+        if (clusterSize < 4) {
+            throw new IllegalArgumentException("Cluster size must be at least 4: " + clusterSize);
+        }
+        this.graph = graph;
+        this.nodes = new ArrayList<>(graph.getNodes());
+        this.startNode = startNode;
+        this.clusterSize = clusterSize;
+        solve();
+    }
+
+    /**
+     * Runs the clustering, the parallel cluster solves and the stitching, then prints the tour length.
+     */
+    public void solve() {
+        int size = nodes.size();
+        latitude = new double[size];
+        longitude = new double[size];
+        cosLatitude = new double[size];
+        for (int i = 0; i < size; i++) {
+            Node node = nodes.get(i);
+            if (node.getLongitude() == 0 && node.getLatitude() == 0) {
+                throw new IllegalArgumentException("Node does not contain coordinates, Node name: " + node.getName());
+            }
+            latitude[i] = Math.toRadians(node.getLatitude());
+            longitude[i] = Math.toRadians(node.getLongitude());
+            cosLatitude[i] = Math.cos(latitude[i]);
+        }
+
+        int[] order = IntStream.range(0, size).toArray();
+        List<int[]> clusters = cluster(order);
+        clusterCount = clusters.size();
+
+        int[][] clusterTours = clusters.parallelStream().map(this::solveCluster).toArray(int[][]::new);
+        int[] stitched = stitch(clusterTours);
+
+        int start = graph.getId(startNode);
+        int offset = 0;
+        while (stitched[offset] != start) {
+            offset++;
+        }
+        tour = new ArrayList<>(size + 1);
+        totalDistance = 0.0;
+        for (int i = 0; i < size; i++) {
+            int current = stitched[(offset + i) % size];
+            tour.add(nodes.get(current));
+            totalDistance += distance(current, stitched[(offset + i + 1) % size]);
+        }
+        tour.add(startNode);
+
+        // Output Results
+        if (Instrumentation.isReporting()) {
+            Instrumentation.report("Executed Cluster-First Route-Second TSP Heuristic with source node " + startNode.getName());
+            Instrumentation.report("--------------------------------------------------------------------------------");
+            Instrumentation.report("Nodes: " + size + ", Clusters: " + clusterCount);
+            Instrumentation.report("Total Tour Distance: " + totalDistance);
+            Instrumentation.report("--------------------------------------------------------------------------------");
+        }
+    }
+
+    /**
+     * Splits the nodes into clusters of at most {@code clusterSize} nodes by recursive median
+     * bisection along the longer side of each bounding box.
+     */
+    private List<int[]> cluster(int[] order) {
+        ConcurrentLinkedQueue<int[]> ranges = new ConcurrentLinkedQueue<>();
+        ForkJoinPool.commonPool().invoke(new Bisection(order, 0, order.length, ranges));
+
+        List<int[]> clusters = new ArrayList<>(ranges.size());
+        ranges.stream().sorted(Comparator.comparingInt(range -> range[0]))
+                .forEach(range -> clusters.add(Arrays.copyOfRange(order, range[0], range[1])));
+        return clusters;
+    }
+
+    private final class Bisection extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] order;
+        private final int from;
+        private final int to;
+        private final Queue<int[]> ranges;
+
+        Bisection(int[] order, int from, int to, Queue<int[]> ranges) {
+            this.order = order;
+            this.from = from;
+            this.to = to;
+            this.ranges = ranges;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= clusterSize) {
+                ranges.add(new int[]{from, to});
+                return;
+            }
+            double minX = Double.POSITIVE_INFINITY, maxX = Double.NEGATIVE_INFINITY;
+            double minY = Double.POSITIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+            for (int i = from; i < to; i++) {
+                double x = longitude[order[i]] * cosLatitude[order[i]];
+                double y = latitude[order[i]];
+                minX = Math.min(minX, x);
+                maxX = Math.max(maxX, x);
+                minY = Math.min(minY, y);
+                maxY = Math.max(maxY, y);
+            }
+            boolean splitOnX = maxX - minX >= maxY - minY;
+            int middle = (from + to) >>> 1;
+            select(order, from, to - 1, middle, splitOnX);
+            invokeAll(new Bisection(order, from, middle, ranges), new Bisection(order, middle, to, ranges));
+        }
+
+        private double key(int node, boolean onX) {
+            return onX ? longitude[node] * cosLatitude[node] : latitude[node];
+        }
+
+        /**
+         * Quickselect: partially sorts {@code order[left..right]} so that position {@code k}
+         * holds the element it would have in sorted order.
+         */
+        private void select(int[] order, int left, int right, int k, boolean onX) {
+            while (left < right) {
+                double pivot = key(order[(left + right) >>> 1], onX);
+                int i = left;
+                int j = right;
+                while (i <= j) {
+                    while (key(order[i], onX) < pivot) {
+                        i++;
+                    }
+                    while (key(order[j], onX) > pivot) {
+                        j--;
+                    }
+                    if (i <= j) {
+                        int tmp = order[i];
+                        order[i++] = order[j];
+                        order[j--] = tmp;
+                    }
+                }
+                if (k <= j) {
+                    right = j;
+                } else if (k >= i) {
+                    left = i;
+                } else {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Solves the TSP of a single cluster on its own haversine matrix.
+     *
+     * @return The cluster tour as global node indices.
+     */
+    private int[] solveCluster(int[] members) {
+        int size = members.length;
+        List<Node> clusterNodes = new ArrayList<>(size);
+        double[] weights = new double[DistanceMatrix.cellCount(size)];
+        for (int i = 0; i < size; i++) {
+            clusterNodes.add(nodes.get(members[i]));
+            for (int j = i + 1; j < size; j++) {
+                double d = distance(members[i], members[j]);
+                weights[i * size + j] = d;
+                weights[j * size + i] = d;
+            }
+        }
+        DistanceMatrix matrix = new DistanceMatrix(clusterNodes, weights);
+        int[] local = TourImprovement.nearestNeighborTour(matrix, 0);
+        TourImprovement.twoOpt(matrix, local);
+        TourImprovement.improveStretch(local, 0, size, size, matrix::get);
+
+        int[] global = new int[size];
+        for (int i = 0; i < size; i++) {
+            global[i] = members[local[i]];
+        }
+        return global;
+    }
+
+    /**
+     * Orders the clusters along a tour over their centroids and concatenates the cluster tours,
+     * opening each one at the edge that is cheapest to enter from the previous cluster and to
+     * leave towards the next one. The joined tour is then polished around the seams.
+     */
+    private int[] stitch(int[][] clusterTours) {
+        int count = clusterTours.length;
+        double[] centroidLatitude = new double[count];
+        double[] centroidLongitude = new double[count];
+        double[] centroidCos = new double[count];
+        for (int c = 0; c < count; c++) {
+            double sumLatitude = 0.0;
+            double sumLongitude = 0.0;
+            for (int node : clusterTours[c]) {
+                sumLatitude += latitude[node];
+                sumLongitude += longitude[node];
+            }
+            centroidLatitude[c] = sumLatitude / clusterTours[c].length;
+            centroidLongitude[c] = sumLongitude / clusterTours[c].length;
+            centroidCos[c] = Math.cos(centroidLatitude[c]);
+        }
+
+        // Nearest neighbor tour over the centroids, improved with windowed 2-opt and Or-opt
+        int[] clusterOrder = new int[count];
+        boolean[] used = new boolean[count];
+        used[0] = true;
+        for (int position = 1; position < count; position++) {
+            int current = clusterOrder[position - 1];
+            int nearest = -1;
+            double nearestDistance = Double.POSITIVE_INFINITY;
+            for (int candidate = 0; candidate < count; candidate++) {
+                if (used[candidate]) {
+                    continue;
+                }
+                double d = haversine(centroidLatitude, centroidLongitude, centroidCos, current, candidate);
+                if (nearest == -1 || d < nearestDistance) {
+                    nearest = candidate;
+                    nearestDistance = d;
+                }
+            }
+            clusterOrder[position] = nearest;
+            used[nearest] = true;
+        }
+        TourImprovement.improveStretch(clusterOrder, 0, count, POLISH_WINDOW,
+                (a, b) -> haversine(centroidLatitude, centroidLongitude, centroidCos, a, b));
+
+        int[] stitched = new int[nodes.size()];
+        int[] seams = new int[count];
+        int filled = 0;
+        int previousExit = -1;
+        for (int position = 0; position < count; position++) {
+            seams[position] = filled;
+            int c = clusterOrder[position];
+            int previous = clusterOrder[(position + count - 1) % count];
+            int next = clusterOrder[(position + 1) % count];
+            int[] clusterTour = clusterTours[c];
+            int size = clusterTour.length;
+
+            int bestCut = 0;
+            boolean bestForward = true;
+            double bestCost = Double.POSITIVE_INFINITY;
+            for (int i = 0; i < size; i++) {
+                int a = clusterTour[i];
+                int b = clusterTour[(i + 1) % size];
+                double edge = size > 1 ? distance(a, b) : 0.0;
+                // Forward: enter at b, walk the cycle and leave from a
+                double forward = entryCost(previousExit, b, centroidLatitude, centroidLongitude, previous)
+                        + exitCost(a, centroidLatitude, centroidLongitude, next) - edge;
+                // Backward: enter at a, walk the cycle in reverse and leave from b
+                double backward = entryCost(previousExit, a, centroidLatitude, centroidLongitude, previous)
+                        + exitCost(b, centroidLatitude, centroidLongitude, next) - edge;
+                if (forward < bestCost) {
+                    bestCost = forward;
+                    bestCut = i;
+                    bestForward = true;
+                }
+                if (backward < bestCost) {
+                    bestCost = backward;
+                    bestCut = i;
+                    bestForward = false;
+                }
+            }
+
+            for (int step = 0; step < size; step++) {
+                int index = bestForward ? (bestCut + 1 + step) % size : ((bestCut - step) % size + size) % size;
+                stitched[filled++] = clusterTour[index];
+            }
+            previousExit = stitched[filled - 1];
+        }
+
+        if (count > 1) {
+            // Rotate half of the first cluster to the end so that every seam lies inside the array
+            int shift = clusterTours[clusterOrder[0]].length / 2;
+            int smallest = Integer.MAX_VALUE;
+            for (int[] clusterTour : clusterTours) {
+                smallest = Math.min(smallest, clusterTour.length);
+            }
+            TourImprovement.reverse(stitched, 0, shift - 1);
+            TourImprovement.reverse(stitched, shift, stitched.length - 1);
+            TourImprovement.reverse(stitched, 0, stitched.length - 1);
+            for (int i = 0; i < count; i++) {
+                seams[i] = (seams[i] - shift + stitched.length) % stitched.length;
+            }
+            polishSeams(stitched, seams, Math.min(POLISH_WINDOW, smallest / 2));
+        }
+        return stitched;
+    }
+
+    private double entryCost(int previousExit, int entry, double[] centroidLatitude, double[] centroidLongitude,
+                             int previousCluster) {
+        if (previousExit >= 0) {
+            return distance(previousExit, entry);
+        }
+        // The first cluster is entered from the last one, approximated by its centroid
+        return GeoDistance.haversineRadians(centroidLatitude[previousCluster], centroidLongitude[previousCluster],
+                latitude[entry], longitude[entry]);
+    }
+
+    private double exitCost(int exit, double[] centroidLatitude, double[] centroidLongitude, int nextCluster) {
+        return GeoDistance.haversineRadians(latitude[exit], longitude[exit],
+                centroidLatitude[nextCluster], centroidLongitude[nextCluster]);
+    }
+
+    /**
+     * Polishes the stitched tour around the seams between consecutive clusters, where the cluster
+     * tours were joined without regard for each other. The windows around different seams do not
+     * overlap and are improved in parallel.
+     */
+    private void polishSeams(int[] tour, int[] seams, int halfWidth) {
+        IntStream.range(0, seams.length).parallel().forEach(i -> TourImprovement.improveStretch(tour,
+                seams[i] - halfWidth, seams[i] + halfWidth, POLISH_WINDOW, this::distance));
+    }
+
+    private double distance(int a, int b) {
+        return haversine(latitude, longitude, cosLatitude, a, b);
+    }
+
+    private static double haversine(double[] latitude, double[] longitude, double[] cosLatitude, int a, int b) {
+        double sinLatitude = Math.sin((latitude[b] - latitude[a]) * 0.5);
+        double sinLongitude = Math.sin((longitude[b] - longitude[a]) * 0.5);
+        double h = sinLatitude * sinLatitude + cosLatitude[a] * cosLatitude[b] * sinLongitude * sinLongitude;
+        return 2.0 * GeoDistance.EARTH_RADIUS * Math.asin(Math.sqrt(Math.min(1.0, h)));
+    }
+}
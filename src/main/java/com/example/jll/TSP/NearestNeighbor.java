@@ -1,7 +1,10 @@
 package com.example.jll.TSP;
 
 import com.example.jll.DijkstrasAlgorithim.DataStructures.Graph;
+import com.example.jll.DijkstrasAlgorithim.DataStructures.GraphStore;
 import com.example.jll.DijkstrasAlgorithim.DataStructures.Node;
+import com.example.jll.Instrumentation.Instrumentation;
+import com.example.jll.Instrumentation.Probe;
 
 import java.util.*;
 
@@ -19,19 +22,28 @@ public class NearestNeighbor {
 
     public NearestNeighbor(Graph graph, String startNode) {
         this.graph = graph;
-        this.startNode = graph.getNodes().stream().filter(node -> node.getName()
-                        .equals(startNode)).findFirst().orElseThrow();
+        this.startNode = graph.getNode(startNode);
         findTour();
     }
 
     /**
      * Executes the Nearest Neighbor heuristic for solving the Traveling Salesman Problem (TSP).
      * - Starts at the given node.
-     * - Iteratively visits the nearest unvisited neighbor.
-     * - Returns to the start node to complete the cycle.
-     * - Prints the final tour and the total distance.
+     * - Iteratively visits the nearest unvisited neighbor until every node of the graph is in the tour.
+     * - Returns to the start node to complete the cycle, a single node graph gives a tour of length zero.
+     * - Reports the final tour and the total distance, if a reporter is installed, see
+     *   {@link Instrumentation#setReporter}.
+     *
+     * @throws IllegalStateException if the graph is not strongly connected, so no tour can exist,
+     *                               or the heuristic runs into a node without unvisited neighbors.
      */
     public void findTour() {
+        if (!graph.getReachabilityIndex().isStronglyConnected()) {
+            throw new IllegalStateException("No tour exists, not every node can be reached from every other node");
+        }
+
+        Probe probe = Instrumentation.start("tsp.nearestNeighbor");
+        long scanned = 0;
         Set<Node> visited = new HashSet<>();
         List<Node> tour = new ArrayList<>();
         totalDistance = 0.0; // Reset before each run
@@ -40,30 +52,97 @@ public class NearestNeighbor {
         visited.add(current);
         tour.add(current);
 
-        while (tour.size() < graph.getNodes().size() - 1) {
+        while (tour.size() < graph.getNodes().size()) {
+            scanned += current.getAdjacentNodes().size();
             Map.Entry<Node, Double> nearestEntry = findNearestNeighbor(current, visited);
-            if (nearestEntry != null) {
-                Node nearest = nearestEntry.getKey();
-                double distance = nearestEntry.getValue();
-
-                visited.add(nearest);
-                tour.add(nearest);
-                totalDistance += distance; // Update total distance
-                current = nearest;
+            if (nearestEntry == null) {
+                throw new IllegalStateException("Nearest Neighbor heuristic is stuck at node " + current.getName()
+                        + ", all of its neighbors have already been visited");
             }
+            Node nearest = nearestEntry.getKey();
+            double distance = nearestEntry.getValue();
+
+            visited.add(nearest);
+            tour.add(nearest);
+            totalDistance += distance; // Update total distance
+            current = nearest;
         }
 
         // Return to start node to complete the cycle
-        totalDistance += getDistanceTo(current,startNode);
+        if (current != startNode) {
+            totalDistance += getDistanceTo(current, startNode);
+        }
         tour.add(startNode);
+        if (probe != null) {
+            probe.finish(tour.size() - 1, scanned, 0, 0);
+        }
 
         // Output Results
-        System.out.println("Executed Nearest Neighbor TSP Heuristic with source node " + startNode.getName());
-        System.out.println("--------------------------------------------------------------------------------");
-        System.out.println(String.join(" -> ", tour.stream().map(Node::getName).toArray(String[]::new)));
-        System.out.println(totalDistance);
-        System.out.println("Total Tour Distance: " + totalDistance);
-        System.out.println("--------------------------------------------------------------------------------");
+        if (Instrumentation.isReporting()) {
+            Instrumentation.report("Executed Nearest Neighbor TSP Heuristic with source node " + startNode.getName());
+            Instrumentation.report("--------------------------------------------------------------------------------");
+            Instrumentation.report(String.join(" -> ", tour.stream().map(Node::getName).toArray(String[]::new)));
+            Instrumentation.report("Total Tour Distance: " + totalDistance);
+            Instrumentation.report("--------------------------------------------------------------------------------");
+        }
+    }
+
+    /**
+     * Executes the Nearest Neighbor heuristic on a {@link GraphStore}, e.g. an off-heap graph,
+     * without creating any {@link Node} objects. Like {@link #findTour()} it visits every node of
+     * the graph exactly once before returning to the start.
+     *
+     * @param graph     The graph to tour.
+     * @param startNode The node id the tour starts and ends at.
+     * @return The {@code nodeCount() + 1} node ids in visiting order, starting and ending with {@code startNode}.
+     * @throws IllegalStateException if the heuristic runs into a node without unvisited neighbors,
+     *                               or the last node has no edge back to the start.
+     */
+    public static int[] findTour(GraphStore graph, int startNode) {
+        Probe probe = Instrumentation.start("tsp.nearestNeighbor");
+        long scanned = 0;
+        int size = graph.nodeCount();
+        boolean[] visited = new boolean[size];
+        int[] tour = new int[size + 1];
+        tour[0] = startNode;
+        visited[startNode] = true;
+
+        int current = startNode;
+        for (int position = 1; position < size; position++) {
+            int nearest = -1;
+            double nearestDistance = Double.POSITIVE_INFINITY;
+            int end = graph.firstEdge(current + 1);
+            scanned += end - graph.firstEdge(current);
+            for (int e = graph.firstEdge(current); e < end; e++) {
+                int adjacent = graph.edgeTarget(e);
+                if (!visited[adjacent] && (nearest == -1 || graph.edgeWeight(e) < nearestDistance)) {
+                    nearest = adjacent;
+                    nearestDistance = graph.edgeWeight(e);
+                }
+            }
+            if (nearest == -1) {
+                throw new IllegalStateException("Nearest Neighbor heuristic is stuck at node " + current
+                        + ", all of its neighbors have already been visited");
+            }
+            visited[nearest] = true;
+            tour[position] = nearest;
+            current = nearest;
+        }
+
+        boolean closed = size == 1;
+        int end = graph.firstEdge(current + 1);
+        for (int e = graph.firstEdge(current); e < end && !closed; e++) {
+            closed = graph.edgeTarget(e) == startNode;
+        }
+        if (!closed) {
+            throw new IllegalStateException("Cannot close the tour, there is no edge from node "
+                    + current + " back to " + startNode);
+        }
+        tour[size] = startNode;
+        if (probe != null) {
+            probe.finish(size, scanned, 0, 0);
+        }
+        return tour;
     }
 
     /**
@@ -86,14 +165,16 @@ public class NearestNeighbor {
      *
      * @param current The starting node.
      * @param end     The destination node.
-     * @return The distance between the nodes, or Double.MAX_VALUE if no direct edge exists.
+     * @return The distance between the nodes.
+     * @throws IllegalStateException if no direct edge exists.
      */
     private double getDistanceTo(Node current, Node end) {
-        return current.getAdjacentNodes().entrySet().stream()
-                .filter(entry -> entry.getKey().equals(end))
-                .map(Map.Entry::getValue) // Extract the distance value
-                .findFirst() // Get the first (and only) matching entry
-                .orElseThrow(); // Default to MAX_VALUE if no path exists
+        Double distance = current.getAdjacentNodes().get(end);
+        if (distance == null) {
+            throw new IllegalStateException("Cannot close the tour, there is no edge from "
+                    + current.getName() + " back to " + end.getName());
+        }
+        return distance;
     }
 
 
@@ -0,0 +1,505 @@
+package com.example.jll.TSP;
+
+import com.example.jll.DijkstrasAlgorithim.DataIngress.MapboxMatrix;
+import com.example.jll.DijkstrasAlgorithim.DataStructures.DistanceMatrix;
+import com.example.jll.DijkstrasAlgorithim.DataStructures.Graph;
+import com.example.jll.DijkstrasAlgorithim.DataStructures.Node;
+import com.example.jll.Instrumentation.Instrumentation;
+import lombok.Getter;
+
+import java.util.*;
+
+/**
+ * Solves the Vehicle Routing Problem with Time Windows (VRPTW) with a cheapest insertion
+ * constructor followed by an inter-route local search.
+ * <p>
+ * Edge weights are interpreted as travel times, e.g. the nodes of a {@link MapboxMatrix} requested
+ * with {@link MapboxMatrix.MapboxUnits#DURATION}. Service at a customer has to start between its
+ * {@link Node#getReadyTime() ready time} and {@link Node#getDueTime() due time}; vehicles arriving
+ * early wait. The depot's own window bounds when routes may leave and must be back.
+ * </p>
+ * <p>
+ * Every route caches, per position, the earliest possible service start (forward) and the latest
+ * service start that keeps the rest of the route feasible (backward). With these two values the
+ * time window feasibility of inserting, removing or exchanging a customer is checked in O(1)
+ * instead of re-simulating the whole route, and only routes that actually change are rescheduled.
+ * </p>
+ *
+ * @author Ani Thyagarajan
+ */
+public class TimeWindowRouting {
+
+    private static final double EPSILON = 1e-9;
+
+    /**
+     * The number of nearest customers considered for local search moves.
+     */
+    private static final int NEIGHBOURHOOD_SIZE = 30;
+
+    private final Graph graph;
+    private final Node depot;
+    private final double capacity;
+
+    /**
+     * The routes of the solution, each starting and ending with the depot.
+     */
+    @Getter
+    private List<List<Node>> routes;
+
+    /**
+     * The service start time at every stop of the matching route in {@link #routes}.
+     */
+    @Getter
+    private List<List<Double>> serviceStartTimes;
+
+    /**
+     * The total travel time of all vehicles, excluding waiting and service.
+     */
+    @Getter
+    private double totalDuration;
+
+    // Working state, customers are indexed 1..n and index 0 is the depot
+    private DistanceMatrix matrix;
+    private double[] demand;
+    private double[] ready;
+    private double[] due;
+    private double[] service;
+    private List<Route> working;
+    private int[] routeOf;
+    private int[] positionOf;
+
+    public TimeWindowRouting(Graph graph, Node depot, double capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Vehicle capacity must be positive: " + capacity);
+        }
+        this.graph = graph;
+        this.depot = depot;
+        this.capacity = capacity;
+        solve();
+    }
+
+    public TimeWindowRouting(Graph graph, String depot, double capacity) {
+        this(graph, graph.getNode(depot), capacity);
+    }
+
+    /**
+     * Solves the routing problem on the travel times retrieved by a {@link MapboxMatrix}.
+     *
+     * @param matrix   A matrix requested with {@link MapboxMatrix.MapboxUnits#DURATION}.
+     * @param depot    The name of the depot node.
+     * @param capacity The capacity of each vehicle.
+     * @throws IllegalArgumentException if the matrix holds distances instead of durations.
+     */
+    public TimeWindowRouting(MapboxMatrix matrix, String depot, double capacity) {
+        this(durationGraph(matrix), depot, capacity);
+    }
+
+    private static Graph durationGraph(MapboxMatrix matrix) {
+        if (matrix.getUnits() != MapboxMatrix.MapboxUnits.DURATION) {
+            throw new IllegalArgumentException("Time window routing requires a DURATION matrix");
+        }
+        return matrix.getGraph();
+    }
+
+    /**
+     * Builds the routes by cheapest feasible insertion, improves them with relocate and exchange
+     * moves and prints the resulting routes.
+     *
+     * @throws IllegalArgumentException if a customer cannot be served on its own route.
+     */
+    public void solve() {
+        List<Node> ordered = new ArrayList<>(graph.getNodes().size());
+        ordered.add(depot);
+        for (Node node : graph.getNodes()) {
+            if (node != depot) {
+                ordered.add(node);
+            }
+        }
+        matrix = new DistanceMatrix(ordered);
+
+        int n = ordered.size() - 1;
+        demand = new double[n + 1];
+        ready = new double[n + 1];
+        due = new double[n + 1];
+        service = new double[n + 1];
+        for (int c = 0; c <= n; c++) {
+            Node node = ordered.get(c);
+            demand[c] = c == 0 ? 0.0 : node.getDemand();
+            ready[c] = node.getReadyTime();
+            due[c] = node.getDueTime();
+            service[c] = node.getServiceTime();
+        }
+        routeOf = new int[n + 1];
+        positionOf = new int[n + 1];
+        working = new ArrayList<>();
+
+        constructByInsertion(n);
+        improveRoutes(n);
+        collectRoutes();
+
+        // Output Results
+        if (!Instrumentation.isReporting()) {
+            return;
+        }
+        Instrumentation.report("Executed Cheapest Insertion VRPTW Heuristic with depot " + depot.getName());
+        Instrumentation.report("--------------------------------------------------------------------------------");
+        for (int r = 0; r < routes.size(); r++) {
+            List<Node> route = routes.get(r);
+            List<Double> times = serviceStartTimes.get(r);
+            StringJoiner line = new StringJoiner(" -> ");
+            for (int i = 0; i < route.size(); i++) {
+                line.add(route.get(i).getName() + "@" + times.get(i));
+            }
+            Instrumentation.report(line.toString());
+        }
+        Instrumentation.report("Vehicles Used: " + routes.size());
+        Instrumentation.report("Total Travel Duration: " + totalDuration);
+        Instrumentation.report("--------------------------------------------------------------------------------");
+    }
+
+    /**
+     * Repeatedly inserts the unrouted customer with the cheapest feasible insertion. The best
+     * insertion of every customer is cached; after a route changes only that route is re-evaluated,
+     * except for customers whose cached insertion pointed into the changed route.
+     */
+    private void constructByInsertion(int n) {
+        boolean[] routed = new boolean[n + 1];
+        double[] bestCost = new double[n + 1];
+        int[] bestRoute = new int[n + 1];
+        int[] bestPosition = new int[n + 1];
+        Arrays.fill(bestCost, Double.POSITIVE_INFINITY);
+        Arrays.fill(bestRoute, -1);
+
+        for (int remaining = n; remaining > 0; remaining--) {
+            int chosen = -1;
+            for (int c = 1; c <= n; c++) {
+                if (!routed[c] && (chosen == -1 || bestCost[c] < bestCost[chosen])) {
+                    chosen = c;
+                }
+            }
+
+            int changed;
+            if (bestCost[chosen] == Double.POSITIVE_INFINITY) {
+                // Nothing fits in the open routes, seed a new route with the most urgent customer
+                for (int c = 1; c <= n; c++) {
+                    if (!routed[c] && due[c] < due[chosen]) {
+                        chosen = c;
+                    }
+                }
+                Route route = new Route(chosen);
+                if (!route.isFeasible()) {
+                    throw new IllegalArgumentException("Customer " + matrix.getNodes().get(chosen).getName()
+                            + " cannot be served within its time window or the vehicle capacity");
+                }
+                working.add(route);
+                changed = working.size() - 1;
+            } else {
+                changed = bestRoute[chosen];
+                working.get(changed).insert(bestPosition[chosen], chosen);
+            }
+            routed[chosen] = true;
+            working.get(changed).schedule(changed);
+
+            for (int c = 1; c <= n; c++) {
+                if (routed[c]) {
+                    continue;
+                }
+                if (bestRoute[c] == changed) {
+                    bestCost[c] = Double.POSITIVE_INFINITY;
+                    bestRoute[c] = -1;
+                    for (int r = 0; r < working.size(); r++) {
+                        evaluateInsertion(c, r, bestCost, bestRoute, bestPosition);
+                    }
+                } else {
+                    evaluateInsertion(c, changed, bestCost, bestRoute, bestPosition);
+                }
+            }
+        }
+    }
+
+    /**
+     * Updates the cached best insertion of customer {@code c} with the positions of route {@code r}.
+     */
+    private void evaluateInsertion(int c, int r, double[] bestCost, int[] bestRoute, int[] bestPosition) {
+        Route route = working.get(r);
+        if (route.load + demand[c] > capacity + EPSILON) {
+            return;
+        }
+        for (int p = 0; p + 1 < route.size; p++) {
+            if (canInsert(route, p, c)) {
+                int before = route.stops[p];
+                int after = route.stops[p + 1];
+                double cost = matrix.get(before, c) + matrix.get(c, after) - matrix.get(before, after);
+                if (cost < bestCost[c]) {
+                    bestCost[c] = cost;
+                    bestRoute[c] = r;
+                    bestPosition[c] = p + 1;
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks in O(1) whether customer {@code c} can be served between positions {@code p} and
+     * {@code p + 1} of a route without violating any time window.
+     */
+    private boolean canInsert(Route route, int p, int c) {
+        int before = route.stops[p];
+        double start = Math.max(ready[c], route.earliest[p] + service[before] + matrix.get(before, c));
+        if (start > due[c]) {
+            return false;
+        }
+        return start + service[c] + matrix.get(c, route.stops[p + 1]) <= route.latest[p + 1];
+    }
+
+    /**
+     * Checks in O(1) whether the customer at position {@code p} can be removed from its route.
+     */
+    private boolean canRemove(Route route, int p) {
+        int before = route.stops[p - 1];
+        return route.earliest[p - 1] + service[before] + matrix.get(before, route.stops[p + 1])
+                <= route.latest[p + 1];
+    }
+
+    /**
+     * Checks in O(1) whether the customer at position {@code p} can be replaced by customer {@code c}.
+     */
+    private boolean canReplace(Route route, int p, int c) {
+        int before = route.stops[p - 1];
+        double start = Math.max(ready[c], route.earliest[p - 1] + service[before] + matrix.get(before, c));
+        if (start > due[c]) {
+            return false;
+        }
+        return start + service[c] + matrix.get(c, route.stops[p + 1]) <= route.latest[p + 1];
+    }
+
+    /**
+     * Applies first-improvement relocate and exchange moves between routes until no move towards
+     * a customer's nearest neighbours reduces the total travel time.
+     */
+    private void improveRoutes(int n) {
+        int[][] neighbours = nearestCustomers(n);
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            for (int u = 1; u <= n; u++) {
+                for (int v : neighbours[u]) {
+                    if (routeOf[u] != routeOf[v] && (tryRelocate(u, v) || tryExchange(u, v))) {
+                        improved = true;
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the {@link #NEIGHBOURHOOD_SIZE} nearest customers of every customer by insertion into a
+     * short sorted array of primitive distances. Ties keep the lower customer index first.
+     */
+    private int[][] nearestCustomers(int n) {
+        int k = Math.max(0, Math.min(NEIGHBOURHOOD_SIZE, n - 1));
+        int[][] result = new int[n + 1][];
+        double[] distances = new double[k];
+        for (int c = 1; c <= n; c++) {
+            int[] nearest = new int[k];
+            int size = 0;
+            for (int o = 1; o <= n; o++) {
+                if (o == c) {
+                    continue;
+                }
+                double distance = matrix.get(c, o);
+                if (size == k && (k == 0 || Double.compare(distance, distances[k - 1]) >= 0)) {
+                    continue;
+                }
+                int i = size < k ? size++ : k - 1;
+                while (i > 0 && Double.compare(distance, distances[i - 1]) < 0) {
+                    distances[i] = distances[i - 1];
+                    nearest[i] = nearest[i - 1];
+                    i--;
+                }
+                distances[i] = distance;
+                nearest[i] = o;
+            }
+            result[c] = nearest;
+        }
+        return result;
+    }
+
+    /**
+     * Tries to move customer {@code u} directly before or after customer {@code v} in another route.
+     */
+    private boolean tryRelocate(int u, int v) {
+        Route from = working.get(routeOf[u]);
+        Route to = working.get(routeOf[v]);
+        int pu = positionOf[u];
+        if (to.load + demand[u] > capacity + EPSILON || !canRemove(from, pu)) {
+            return false;
+        }
+        int prevU = from.stops[pu - 1];
+        int nextU = from.stops[pu + 1];
+        double removal = matrix.get(prevU, nextU) - matrix.get(prevU, u) - matrix.get(u, nextU);
+
+        int pv = positionOf[v];
+        int bestGap = -1;
+        double bestInsertion = Double.POSITIVE_INFINITY;
+        for (int gap = pv - 1; gap <= pv; gap++) {
+            if (canInsert(to, gap, u)) {
+                int a = to.stops[gap];
+                int b = to.stops[gap + 1];
+                double insertion = matrix.get(a, u) + matrix.get(u, b) - matrix.get(a, b);
+                if (insertion < bestInsertion) {
+                    bestInsertion = insertion;
+                    bestGap = gap;
+                }
+            }
+        }
+        if (bestGap == -1 || removal + bestInsertion >= -EPSILON) {
+            return false;
+        }
+
+        int fromIndex = routeOf[u];
+        int toIndex = routeOf[v];
+        from.remove(pu);
+        to.insert(bestGap + 1, u);
+        from.schedule(fromIndex);
+        to.schedule(toIndex);
+        return true;
+    }
+
+    /**
+     * Tries to swap customer {@code u} with customer {@code v} of another route.
+     */
+    private boolean tryExchange(int u, int v) {
+        Route a = working.get(routeOf[u]);
+        Route b = working.get(routeOf[v]);
+        if (a.load - demand[u] + demand[v] > capacity + EPSILON
+                || b.load - demand[v] + demand[u] > capacity + EPSILON) {
+            return false;
+        }
+        int pu = positionOf[u];
+        int pv = positionOf[v];
+        if (!canReplace(a, pu, v) || !canReplace(b, pv, u)) {
+            return false;
+        }
+        int prevU = a.stops[pu - 1];
+        int nextU = a.stops[pu + 1];
+        int prevV = b.stops[pv - 1];
+        int nextV = b.stops[pv + 1];
+        double delta = matrix.get(prevU, v) + matrix.get(v, nextU) - matrix.get(prevU, u) - matrix.get(u, nextU)
+                + matrix.get(prevV, u) + matrix.get(u, nextV) - matrix.get(prevV, v) - matrix.get(v, nextV);
+        if (delta >= -EPSILON) {
+            return false;
+        }
+
+        int aIndex = routeOf[u];
+        int bIndex = routeOf[v];
+        a.replace(pu, v);
+        b.replace(pv, u);
+        a.schedule(aIndex);
+        b.schedule(bIndex);
+        return true;
+    }
+
+    private void collectRoutes() {
+        routes = new ArrayList<>();
+        serviceStartTimes = new ArrayList<>();
+        totalDuration = 0.0;
+        for (Route route : working) {
+            if (route.size <= 2) {
+                continue;
+            }
+            List<Node> stops = new ArrayList<>(route.size);
+            List<Double> times = new ArrayList<>(route.size);
+            for (int p = 0; p < route.size; p++) {
+                stops.add(matrix.getNodes().get(route.stops[p]));
+                times.add(route.earliest[p]);
+                if (p > 0) {
+                    totalDuration += matrix.get(route.stops[p - 1], route.stops[p]);
+                }
+            }
+            routes.add(stops);
+            serviceStartTimes.add(times);
+        }
+    }
+
+    /**
+     * A single vehicle route with the depot at both ends and its cached schedule.
+     */
+    private final class Route {
+        private int[] stops;
+        private int size;
+        private double load;
+
+        /**
+         * Earliest service start at every position, given the route so far.
+         */
+        private double[] earliest;
+
+        /**
+         * Latest service start at every position that keeps the remainder of the route feasible.
+         */
+        private double[] latest;
+
+        Route(int customer) {
+            stops = new int[]{0, customer, 0, 0};
+            size = 3;
+            load = demand[customer];
+            earliest = new double[stops.length];
+            latest = new double[stops.length];
+            computeSlack();
+        }
+
+        boolean isFeasible() {
+            return load <= capacity + EPSILON && earliest[1] <= due[stops[1]] && earliest[2] <= due[0];
+        }
+
+        void insert(int position, int customer) {
+            if (size == stops.length) {
+                stops = Arrays.copyOf(stops, size * 2);
+                earliest = new double[stops.length];
+                latest = new double[stops.length];
+            }
+            System.arraycopy(stops, position, stops, position + 1, size - position);
+            stops[position] = customer;
+            size++;
+            load += demand[customer];
+        }
+
+        void remove(int position) {
+            load -= demand[stops[position]];
+            System.arraycopy(stops, position + 1, stops, position, size - position - 1);
+            size--;
+        }
+
+        void replace(int position, int customer) {
+            load += demand[customer] - demand[stops[position]];
+            stops[position] = customer;
+        }
+
+        /**
+         * Recomputes the forward and backward slack and the position index of the route's customers.
+         */
+        void schedule(int index) {
+            computeSlack();
+            for (int p = 1; p < size - 1; p++) {
+                routeOf[stops[p]] = index;
+                positionOf[stops[p]] = p;
+            }
+        }
+
+        private void computeSlack() {
+            earliest[0] = ready[0];
+            for (int p = 1; p < size; p++) {
+                int before = stops[p - 1];
+                earliest[p] = Math.max(ready[stops[p]],
+                        earliest[p - 1] + service[before] + matrix.get(before, stops[p]));
+            }
+            latest[size - 1] = due[0];
+            for (int p = size - 2; p >= 0; p--) {
+                int stop = stops[p];
+                latest[p] = Math.min(due[stop], latest[p + 1] - service[stop] - matrix.get(stop, stops[p + 1]));
+            }
+        }
+    }
+}
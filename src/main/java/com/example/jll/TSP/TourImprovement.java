@@ -0,0 +1,317 @@
+package com.example.jll.TSP;
+
+import com.example.jll.DijkstrasAlgorithim.DataStructures.DistanceMatrix;
+import com.example.jll.Instrumentation.Instrumentation;
+import com.example.jll.Instrumentation.Probe;
+
+/**
+ * Construction and local search routines for symmetric TSP tours stored as arrays of node indices.
+ * <ul>
+ *     <li>A 2-opt move removes two edges of the tour and reconnects it by reversing the segment
+ *     in between.</li>
+ *     <li>An Or-opt move takes a segment of up to three stops out of the tour and reinserts it,
+ *     in either direction, between two other consecutive stops.</li>
+ * </ul>
+ * Moves are applied first-improvement until no move shortens the tour.
+ *
+ * @author Ani Thyagarajan
+ */
+public final class TourImprovement {
+
+    private static final double EPSILON = 1e-9;
+    private static final int MAX_SEGMENT_LENGTH = 3;
+
+    /**
+     * The cost of travelling between two stops, e.g. a matrix lookup or a haversine distance
+     * computed on the fly.
+     */
+    @FunctionalInterface
+    public interface EdgeCost {
+        double between(int from, int to);
+    }
+
+    private TourImprovement() {
+    }
+
+    /**
+     * Builds a closed tour with the nearest neighbor heuristic on a distance matrix.
+     *
+     * @param matrix The distances between all stops.
+     * @param start  The index of the first stop.
+     * @return The visiting order of all matrix indices, the return to {@code start} is implied.
+     */
+    public static int[] nearestNeighborTour(DistanceMatrix matrix, int start) {
+        int size = matrix.getSize();
+        int[] tour = new int[size];
+        boolean[] visited = new boolean[size];
+        tour[0] = start;
+        visited[start] = true;
+        for (int position = 1; position < size; position++) {
+            int current = tour[position - 1];
+            int nearest = -1;
+            double nearestDistance = Double.POSITIVE_INFINITY;
+            for (int candidate = 0; candidate < size; candidate++) {
+                if (!visited[candidate] && (nearest == -1 || matrix.get(current, candidate) < nearestDistance)) {
+                    nearest = candidate;
+                    nearestDistance = matrix.get(current, candidate);
+                }
+            }
+            tour[position] = nearest;
+            visited[nearest] = true;
+        }
+        return tour;
+    }
+
+    /**
+     * Improves a closed tour in place with 2-opt moves over all pairs of edges.
+     *
+     * @param matrix A symmetric distance matrix.
+     * @param tour   The visiting order of the matrix indices, the return to the first stop is implied.
+     * @return The length of the improved tour.
+     */
+    public static double twoOpt(DistanceMatrix matrix, int[] tour) {
+        Probe probe = Instrumentation.start("tsp.twoOpt");
+        long moves = 0;
+        int size = tour.length;
+        boolean improved = size > 3;
+        while (improved) {
+            improved = false;
+            for (int i = 0; i < size - 1; i++) {
+                int a = tour[i];
+                int b = tour[i + 1];
+                double ab = matrix.get(a, b);
+                for (int j = i + 2; j < size; j++) {
+                    int c = tour[j];
+                    int d = tour[(j + 1) % size];
+                    if (d == a) {
+                        continue;
+                    }
+                    double delta = matrix.get(a, c) + matrix.get(b, d) - ab - matrix.get(c, d);
+                    if (delta < -EPSILON) {
+                        reverse(tour, i + 1, j);
+                        b = tour[i + 1];
+                        ab = matrix.get(a, b);
+                        improved = true;
+                        moves++;
+                    }
+                }
+            }
+        }
+        if (probe != null) {
+            probe.finish(0, 0, 0, moves);
+        }
+        return length(matrix, tour);
+    }
+
+    /**
+     * Improves a closed tour in place with 2-opt moves restricted to candidate lists, which scales
+     * to tours far too large for {@link #twoOpt(DistanceMatrix, int[])}.
+     * <p>
+     * A move that adds the edge {@code (a, c)} can only pay off if that edge is shorter than one of
+     * the edges at {@code a} it replaces, so for every stop only its nearest neighbors are tried,
+     * nearest first until the new edge gets too long. A queue of stops whose neighborhood changed
+     * replaces the full passes over the tour, and every move reverses the shorter side of the cycle.
+     * </p>
+     *
+     * @param tour       The visiting order of the stops {@code 0..n-1}, the return to the first stop is implied.
+     * @param candidates For every stop its nearest other stops, nearest first, e.g. from
+     *                   {@link com.example.jll.DijkstrasAlgorithim.DataStructures.SpatialIndex#candidateLists(int)}.
+     * @param cost       The symmetric cost of an edge.
+     * @return {@code true} if any move was applied.
+     */
+    public static boolean twoOpt(int[] tour, int[][] candidates, EdgeCost cost) {
+        int size = tour.length;
+        if (size < 5) {
+            return false;
+        }
+        int[] position = new int[size];
+        for (int i = 0; i < size; i++) {
+            position[tour[i]] = i;
+        }
+        // Stops still to look at, a ring buffer holding every stop at most once
+        int[] queue = new int[size];
+        boolean[] queued = new boolean[size];
+        for (int i = 0; i < size; i++) {
+            queue[i] = tour[i];
+            queued[tour[i]] = true;
+        }
+        int head = 0;
+        int pending = size;
+        Probe probe = Instrumentation.start("tsp.twoOpt.candidates");
+        long moves = 0;
+
+        boolean any = false;
+        while (pending > 0) {
+            int a = queue[head];
+            head = (head + 1) % size;
+            pending--;
+            queued[a] = false;
+
+            boolean improved = false;
+            for (int direction = 1; direction >= -1 && !improved; direction -= 2) {
+                int b = tour[(position[a] + direction + size) % size];
+                double ab = cost.between(a, b);
+                for (int c : candidates[a]) {
+                    double ac = cost.between(a, c);
+                    if (ac >= ab - EPSILON) {
+                        break;
+                    }
+                    int d = tour[(position[c] + direction + size) % size];
+                    if (c == b || d == a) {
+                        continue;
+                    }
+                    double delta = ac + cost.between(b, d) - ab - cost.between(c, d);
+                    if (delta < -EPSILON) {
+                        // Forward: a b .. c d becomes a c .. b d, backward: d c .. b a becomes d b .. c a
+                        if (direction == 1) {
+                            reverseCycle(tour, position, position[b], position[c]);
+                        } else {
+                            reverseCycle(tour, position, position[c], position[b]);
+                        }
+                        for (int stop : new int[]{a, b, c, d}) {
+                            if (!queued[stop]) {
+                                queued[stop] = true;
+                                queue[(head + pending++) % size] = stop;
+                            }
+                        }
+                        improved = true;
+                        moves++;
+                        break;
+                    }
+                }
+            }
+            any |= improved;
+        }
+        if (probe != null) {
+            probe.finish(0, 0, 0, moves);
+        }
+        return any;
+    }
+
+    /**
+     * Improves the stretch {@code tour[from..to-1]} in place with 2-opt and Or-opt moves whose
+     * positions lie at most {@code window} apart. Only edges between two positions of the stretch
+     * are changed, so disjoint stretches of the same tour can be improved concurrently.
+     *
+     * @param tour   The tour to improve.
+     * @param from   The first position of the stretch, inclusive.
+     * @param to     The last position of the stretch, exclusive.
+     * @param window The maximum distance in positions between the endpoints of a move.
+     * @param cost   The symmetric cost of an edge.
+     * @return {@code true} if any move was applied.
+     */
+    public static boolean improveStretch(int[] tour, int from, int to, int window, EdgeCost cost) {
+        boolean any = false;
+        boolean improved = to - from >= 4;
+        while (improved) {
+            improved = false;
+            // 2-opt: replace (i, i+1) and (j, j+1) by (i, j) and (i+1, j+1)
+            for (int i = from; i < to - 3; i++) {
+                int limit = Math.min(to - 2, i + window);
+                for (int j = i + 2; j <= limit; j++) {
+                    int a = tour[i], b = tour[i + 1], c = tour[j], d = tour[j + 1];
+                    double delta = cost.between(a, c) + cost.between(b, d) - cost.between(a, b) - cost.between(c, d);
+                    if (delta < -EPSILON) {
+                        reverse(tour, i + 1, j);
+                        improved = true;
+                    }
+                }
+            }
+            // Or-opt: move the segment s..e between p and p+1, either way round
+            for (int s = from + 1; s < to - 1; s++) {
+                for (int length = 1; length <= MAX_SEGMENT_LENGTH && s + length < to; length++) {
+                    int e = s + length - 1;
+                    int before = tour[s - 1], first = tour[s], last = tour[e], after = tour[e + 1];
+                    double removal = cost.between(before, after) - cost.between(before, first) - cost.between(last, after);
+                    int lower = Math.max(from, s - window);
+                    int upper = Math.min(to - 2, e + window);
+                    for (int p = lower; p <= upper; p++) {
+                        if (p >= s - 1 && p <= e) {
+                            continue;
+                        }
+                        int x = tour[p], y = tour[p + 1];
+                        double xy = cost.between(x, y);
+                        double keep = cost.between(x, first) + cost.between(last, y) - xy;
+                        double flip = cost.between(x, last) + cost.between(first, y) - xy;
+                        if (removal + Math.min(keep, flip) < -EPSILON) {
+                            if (flip < keep) {
+                                reverse(tour, s, e);
+                            }
+                            moveSegment(tour, s, e, p);
+                            improved = true;
+                            break;
+                        }
+                    }
+                }
+            }
+            any |= improved;
+        }
+        return any;
+    }
+
+    /**
+     * Computes the length of a closed tour.
+     *
+     * @param matrix The distances between all stops.
+     * @param tour   The visiting order of the matrix indices, the return to the first stop is implied.
+     * @return The sum of all edges including the closing edge.
+     */
+    public static double length(DistanceMatrix matrix, int[] tour) {
+        double total = 0.0;
+        for (int i = 0; i < tour.length; i++) {
+            total += matrix.get(tour[i], tour[(i + 1) % tour.length]);
+        }
+        return total;
+    }
+
+    /**
+     * Moves {@code tour[s..e]} so that it follows the element currently at position {@code p}.
+     */
+    private static void moveSegment(int[] tour, int s, int e, int p) {
+        if (p > e) {
+            // Rotate tour[s..p] left by the segment length
+            reverse(tour, s, e);
+            reverse(tour, e + 1, p);
+            reverse(tour, s, p);
+        } else {
+            // Rotate tour[p+1..e] right by the segment length
+            reverse(tour, p + 1, s - 1);
+            reverse(tour, s, e);
+            reverse(tour, p + 1, e);
+        }
+    }
+
+    /**
+     * Reverses the stops from position {@code from} to position {@code to} of a closed tour, going
+     * forward and wrapping around, or the rest of the cycle if that is shorter, which yields the
+     * same tour in the opposite direction.
+     */
+    private static void reverseCycle(int[] tour, int[] position, int from, int to) {
+        int size = tour.length;
+        int length = (to - from + size) % size + 1;
+        if (2 * length > size) {
+            int start = (to + 1) % size;
+            to = (from - 1 + size) % size;
+            from = start;
+            length = size - length;
+        }
+        for (int step = 0; step < length / 2; step++) {
+            int first = tour[from];
+            int last = tour[to];
+            tour[from] = last;
+            tour[to] = first;
+            position[last] = from;
+            position[first] = to;
+            from = (from + 1) % size;
+            to = (to - 1 + size) % size;
+        }
+    }
+
+    static void reverse(int[] tour, int from, int to) {
+        while (from < to) {
+            int tmp = tour[from];
+            tour[from++] = tour[to];
+            tour[to--] = tmp;
+        }
+    }
+}
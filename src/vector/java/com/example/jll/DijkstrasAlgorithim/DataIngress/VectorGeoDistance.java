@@ -0,0 +1,60 @@
+package com.example.jll.DijkstrasAlgorithim.DataIngress;
+
+import com.example.jll.DijkstrasAlgorithim.DataStructures.GeoDistance;
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD versions of the row computations of {@link GeoMatrix}, written with the incubating Vector
+ * API. The class lives in the {@code vector} source set, the only one compiled with the incubator
+ * module, and is loaded by name when the {@code jdk.incubator.vector} module is present at
+ * runtime, i.e. when the JVM was started with {@code --add-modules jdk.incubator.vector}.
+ *
+ * @author Ani Thyagarajan
+ */
+final class VectorGeoDistance implements GeoRows {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    VectorGeoDistance() {
+    }
+
+    @Override
+    public void haversineRow(double[] x, double[] y, double[] z, int i, int from, int to, double[] weights, int row) {
+        DoubleVector xi = DoubleVector.broadcast(SPECIES, x[i]);
+        DoubleVector yi = DoubleVector.broadcast(SPECIES, y[i]);
+        DoubleVector zi = DoubleVector.broadcast(SPECIES, z[i]);
+        int j = from;
+        for (int bound = from + SPECIES.loopBound(to - from); j < bound; j += SPECIES.length()) {
+            DoubleVector dx = DoubleVector.fromArray(SPECIES, x, j).sub(xi);
+            DoubleVector dy = DoubleVector.fromArray(SPECIES, y, j).sub(yi);
+            DoubleVector dz = DoubleVector.fromArray(SPECIES, z, j).sub(zi);
+            DoubleVector half = dx.mul(dx).add(dy.mul(dy)).add(dz.mul(dz)).sqrt().mul(0.5).min(1.0);
+            half.lanewise(VectorOperators.ASIN).mul(2.0 * GeoDistance.EARTH_RADIUS).intoArray(weights, row + j);
+        }
+        for (; j < to; j++) {
+            weights[row + j] = GeoMatrix.chordToArc(x[i] - x[j], y[i] - y[j], z[i] - z[j]);
+        }
+    }
+
+    @Override
+    public void equirectangularRow(double[] latitudes, double[] longitudes, int i, int from, int to,
+                                   double[] weights, int row) {
+        DoubleVector latitude = DoubleVector.broadcast(SPECIES, latitudes[i]);
+        DoubleVector longitude = DoubleVector.broadcast(SPECIES, longitudes[i]);
+        int j = from;
+        for (int bound = from + SPECIES.loopBound(to - from); j < bound; j += SPECIES.length()) {
+            DoubleVector latitudesJ = DoubleVector.fromArray(SPECIES, latitudes, j);
+            DoubleVector deltaLongitude = DoubleVector.fromArray(SPECIES, longitudes, j).sub(longitude).abs();
+            deltaLongitude = deltaLongitude.min(deltaLongitude.neg().add(2 * Math.PI));
+            DoubleVector cosine = latitudesJ.add(latitude).mul(0.5).lanewise(VectorOperators.COS);
+            DoubleVector dx = deltaLongitude.mul(cosine);
+            DoubleVector dy = latitudesJ.sub(latitude);
+            dx.mul(dx).add(dy.mul(dy)).sqrt().mul(GeoDistance.EARTH_RADIUS).intoArray(weights, row + j);
+        }
+        for (; j < to; j++) {
+            weights[row + j] = GeoMatrix.equirectangular(latitudes[i], longitudes[i], latitudes[j], longitudes[j]);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.jll.DijkstrasAlgorithim.DataStructures;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD versions of the row relaxations of {@link DenseMatrixSearch}, written with the incubating
+ * Vector API. The class lives in the {@code vector} source set, the only one compiled with the
+ * incubator module, and is loaded by name when the {@code jdk.incubator.vector} module is present
+ * at runtime, i.e. when the JVM was started with {@code --add-modules jdk.incubator.vector}.
+ * Node ids are carried in {@code double} lanes so that the parent update uses the same mask as
+ * the distance update.
+ *
+ * @author Ani Thyagarajan
+ */
+final class VectorRelaxation implements RowRelaxation {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    VectorRelaxation() {
+    }
+
+    @Override
+    public void relaxDistances(double[] weights, int row, int size, double distance, int node,
+                               double[] distances, double[] parents) {
+        DoubleVector base = DoubleVector.broadcast(SPECIES, distance);
+        DoubleVector parent = DoubleVector.broadcast(SPECIES, node);
+        int bound = SPECIES.loopBound(size);
+        int v = 0;
+        for (; v < bound; v += SPECIES.length()) {
+            DoubleVector candidate = DoubleVector.fromArray(SPECIES, weights, row + v).add(base);
+            VectorMask<Double> shorter = candidate.compare(VectorOperators.LT, DoubleVector.fromArray(SPECIES, distances, v));
+            if (shorter.anyTrue()) {
+                candidate.intoArray(distances, v, shorter);
+                parent.intoArray(parents, v, shorter);
+            }
+        }
+        for (; v < size; v++) {
+            double candidate = distance + weights[row + v];
+            if (candidate < distances[v]) {
+                distances[v] = candidate;
+                parents[v] = node;
+            }
+        }
+    }
+
+    @Override
+    public void relaxKeys(double[] weights, int row, int size, int node, double[] keys, double[] parents) {
+        DoubleVector parent = DoubleVector.broadcast(SPECIES, node);
+        int bound = SPECIES.loopBound(size);
+        int v = 0;
+        for (; v < bound; v += SPECIES.length()) {
+            DoubleVector weight = DoubleVector.fromArray(SPECIES, weights, row + v);
+            VectorMask<Double> lighter = weight.compare(VectorOperators.LT, DoubleVector.fromArray(SPECIES, keys, v));
+            if (lighter.anyTrue()) {
+                weight.intoArray(keys, v, lighter);
+                parent.intoArray(parents, v, lighter);
+            }
+        }
+        for (; v < size; v++) {
+            if (weights[row + v] < keys[v]) {
+                keys[v] = weights[row + v];
+                parents[v] = node;
+            }
+        }
+    }
+}